@@ -0,0 +1,176 @@
+package ru.nsu.lavitskaya;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput benchmarks for parsing, evaluation, differentiation, simplification and printing
+ * of expressions. Every benchmark runs on each expression family at several sizes, where the
+ * size is the number of operators of the generated tree before differentiation. Run with
+ * {@code ./gradlew jmh}; the gc profiler configured in the build reports the allocation rate
+ * next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExpressionBenchmark {
+
+    /**
+     * The shapes of the generated expressions.
+     */
+    public enum Family {
+        /**
+         * A complete binary tree cycling through all four operators.
+         */
+        BALANCED {
+            @Override
+            Expression build(int size) {
+                return balanced(0, size + 1);
+            }
+        },
+
+        /**
+         * A chain where every operator has the previous one as its left operand.
+         */
+        LEFT_DEEP {
+            @Override
+            Expression build(int size) {
+                Expression expression = new Variable("x");
+                for (int i = 0; i < size; i++) {
+                    expression = operator(i, expression, leaf(i));
+                }
+                return expression;
+            }
+        },
+
+        /**
+         * A polynomial in x written in Horner form.
+         */
+        POLYNOMIAL {
+            @Override
+            Expression build(int size) {
+                Expression expression = new Number(1);
+                for (int i = 0; i < size / 2; i++) {
+                    expression = new Add(new Mul(expression, new Variable("x")),
+                            new Number(i % 5 + 1));
+                }
+                return expression;
+            }
+        },
+
+        /**
+         * The second derivative with respect to x of a sum of small rational terms.
+         */
+        DERIVATIVE_OF_DERIVATIVE {
+            @Override
+            Expression build(int size) {
+                Expression expression = new Number(0);
+                for (int i = 0; i < size / 8; i++) {
+                    Expression term = new Div(
+                            new Mul(new Mul(new Variable("x"), new Variable("x")),
+                                    new Add(new Variable("x"), new Number(i))),
+                            new Add(new Variable("y"), new Number(i + 1)));
+                    expression = new Add(expression, term);
+                }
+                return expression.derivative("x").derivative("x");
+            }
+        };
+
+        abstract Expression build(int size);
+
+        private static Expression balanced(int first, int leaves) {
+            if (leaves == 1) {
+                return leaf(first);
+            }
+            int half = leaves / 2;
+            return operator(first + half, balanced(first, half),
+                    balanced(first + half, leaves - half));
+        }
+
+        private static Expression leaf(int i) {
+            return i % 3 == 0 ? new Number(i % 7 + 1) : new Variable("x" + i % 8);
+        }
+
+        private static Expression operator(int i, Expression left, Expression right) {
+            return switch (i % 4) {
+                case 0 -> new Add(left, right);
+                case 1 -> new Sub(left, right);
+                case 2 -> new Mul(left, right);
+                default -> new Div(left, right);
+            };
+        }
+    }
+
+    @Param({"BALANCED", "LEFT_DEEP", "POLYNOMIAL", "DERIVATIVE_OF_DERIVATIVE"})
+    public Family family;
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private Expression expression;
+    private String text;
+    private Map<String, Double> values;
+    private String assignments;
+
+    /**
+     * Builds the expression of the current family and size, its text and values for all of
+     * its variables.
+     */
+    @Setup
+    public void setUp() {
+        expression = family.build(size);
+        text = expression.toString();
+        values = new HashMap<>();
+        StringBuilder builder = new StringBuilder();
+        int i = 0;
+        for (String name : new TreeSet<>(expression.getVariables())) {
+            double value = 1.5 + i++;
+            values.put(name, value);
+            if (!builder.isEmpty()) {
+                builder.append("; ");
+            }
+            builder.append(name).append('=').append(value);
+        }
+        assignments = builder.toString();
+    }
+
+    @Benchmark
+    public Expression create() {
+        return Expression.create(text);
+    }
+
+    @Benchmark
+    public double evalMap() {
+        return expression.eval(values);
+    }
+
+    @Benchmark
+    public double evalString() {
+        return values.isEmpty() ? expression.eval() : expression.eval(assignments);
+    }
+
+    @Benchmark
+    public Expression derivative() {
+        return expression.derivative("x");
+    }
+
+    @Benchmark
+    public Expression simplify() {
+        return expression.simplify();
+    }
+
+    @Benchmark
+    public String toText() {
+        return expression.toString();
+    }
+}
@@ -1,23 +1,10 @@
 package ru.nsu.lavitskaya;
 
-import java.util.Map;
-import java.util.Objects;
-
 /**
  * Represents an addition operation between two expressions.
  * This class is part of the expression evaluation framework.
  */
-public class Add extends Expression {
-    private final Expression left;
-    private final Expression right;
-
-    public Expression getLeft() {
-        return left;
-    }
-
-    public Expression getRight() {
-        return right;
-    }
+public class Add extends BinaryExpression {
 
     /**
      * Creates a new addition expression with the specified left and right operands.
@@ -26,56 +13,61 @@ public class Add extends Expression {
      * @param right The right expression to be added.
      */
     public Add(Expression left, Expression right) {
-        this.left = left;
-        this.right = right;
+        super(left, right);
     }
 
     /**
-     * Returns a string representation of the addition expression in the format:
-     * (left + right). If the left expression is equivalent to 0.0, it returns:
+     * Returns the symbol printed between the operands. The addition expression is printed in
+     * the format (left+right). If the left expression is printed as 0.0, it is printed as
      * (right).
      *
-     * @return A string representing the addition expression.
+     * @return The addition symbol, or an empty string if the left operand is omitted.
      */
     @Override
-    public String toString() {
-        if (left.toString().equals("0.0")) {
-            return "(" + right.toString() + ")";
-        }
-        return "(" + left.toString() + "+" + right.toString() + ")";
+    String infix() {
+        return omitsLeft() ? "" : "+";
+    }
+
+    @Override
+    boolean omitsLeft() {
+        return isPrintedAs(getLeft(), "0.0");
     }
 
     /**
-     * Evaluates the addition expression using the provided variable mapping.
+     * Adds the values of the operands.
      *
-     * @param variables A map of variables with their corresponding values.
+     * @param left  The value of the left expression.
+     * @param right The value of the right expression.
      * @return The result of adding the evaluated left and right expressions.
      */
     @Override
-    public double eval(Map<String, Double> variables) {
-        return left.eval(variables) + right.eval(variables);
+    double apply(double left, double right) {
+        return left + right;
     }
 
     /**
-     * Evaluates the addition expression without any variables.
+     * Adds the bounds of the operands.
      *
-     * @return The result of adding the evaluated left and right expressions.
+     * @param left  The bounds of the left expression.
+     * @param right The bounds of the right expression.
+     * @return An interval containing every sum of the operands.
      */
     @Override
-    public double eval() {
-        return left.eval() + right.eval();
+    Interval apply(Interval left, Interval right) {
+        return left.add(right);
     }
 
     /**
-     * Calculates the derivative of the addition expression with respect to the specified variable.
+     * Calculates the derivative of the addition expression.
      *
-     * @param var The name of the variable with respect to which the derivative is to be computed.
+     * @param leftDerivative  The derivative of the left expression.
+     * @param rightDerivative The derivative of the right expression.
      * @return A new Add expression representing the sum of the derivatives of the left and right
      *     expressions.
      */
     @Override
-    public Expression derivative(String var) {
-        return new Add(left.derivative(var), right.derivative(var));
+    Expression derivativeOf(Expression leftDerivative, Expression rightDerivative) {
+        return new Add(leftDerivative, rightDerivative);
     }
 
     /**
@@ -85,14 +77,13 @@ public class Add extends Expression {
      * Otherwise, a new Add expression containing the simplified left and right
      * expressions is created and returned.
      *
+     * @param simplifiedLeft  The simplified left expression.
+     * @param simplifiedRight The simplified right expression.
      * @return A simplified addition expression, which may be a Number if both operands
      *     are constants, or a new Add instance if at least one operand is not a constant.
      */
     @Override
-    public Expression simplify() {
-        Expression simplifiedLeft = left.simplify();
-        Expression simplifiedRight = right.simplify();
-
+    Expression simplified(Expression simplifiedLeft, Expression simplifiedRight) {
         if (simplifiedLeft.getClass() == Number.class
                 && simplifiedRight.getClass() == Number.class) {
             return new Number(simplifiedLeft.eval() + simplifiedRight.eval());
@@ -100,4 +91,9 @@ public class Add extends Expression {
 
         return new Add(simplifiedLeft, simplifiedRight);
     }
+
+    @Override
+    <R> R accept(ExpressionVisitor<R> visitor, R left, R right) {
+        return visitor.visitAdd(this, left, right);
+    }
 }
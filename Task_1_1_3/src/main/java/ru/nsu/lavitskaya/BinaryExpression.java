@@ -0,0 +1,174 @@
+package ru.nsu.lavitskaya;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Base class for the operations with two operands.
+ * Evaluation, differentiation, simplification and printing of a binary node are driven by
+ * the iterative walks in {@link Traversal}, which call back into the node for its own part of
+ * the work. Subclasses therefore never recurse into their operands, and trees of any depth can
+ * be processed.
+ */
+public abstract class BinaryExpression extends Expression {
+    private final Expression left;
+    private final Expression right;
+
+    /**
+     * Creates a new binary expression with the specified operands.
+     *
+     * @param left  The left operand.
+     * @param right The right operand.
+     */
+    protected BinaryExpression(Expression left, Expression right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+
+    /**
+     * Applies the operation to the values of the operands.
+     *
+     * @param left  The value of the left operand.
+     * @param right The value of the right operand.
+     * @return The value of the operation.
+     */
+    abstract double apply(double left, double right);
+
+    /**
+     * Applies the operation to intervals bounding the operands.
+     *
+     * @param left  The bounds of the left operand.
+     * @param right The bounds of the right operand.
+     * @return The bounds of the operation.
+     */
+    abstract Interval apply(Interval left, Interval right);
+
+    /**
+     * Builds the derivative of the operation from the derivatives of its operands.
+     *
+     * @param leftDerivative  The derivative of the left operand.
+     * @param rightDerivative The derivative of the right operand.
+     * @return The derivative of the operation.
+     */
+    abstract Expression derivativeOf(Expression leftDerivative, Expression rightDerivative);
+
+    /**
+     * Simplifies the operation given its already simplified operands.
+     *
+     * @param simplifiedLeft  The simplified left operand.
+     * @param simplifiedRight The simplified right operand.
+     * @return The simplified operation.
+     */
+    abstract Expression simplified(Expression simplifiedLeft, Expression simplifiedRight);
+
+    /**
+     * Passes this node and the results for its operands to the matching visitor method.
+     *
+     * @param visitor The visitor.
+     * @param left    The result for the left operand.
+     * @param right   The result for the right operand.
+     * @param <R>     The type of the results.
+     * @return The result for this node.
+     */
+    abstract <R> R accept(ExpressionVisitor<R> visitor, R left, R right);
+
+    /**
+     * Returns the text written between the operands.
+     *
+     * @return The operator symbol.
+     */
+    abstract String infix();
+
+    /**
+     * Checks whether the left operand is left out of the text of this node.
+     *
+     * @return true if only the right operand is printed, false otherwise.
+     */
+    boolean omitsLeft() {
+        return false;
+    }
+
+    /**
+     * Evaluates the expression using the provided variable mapping.
+     *
+     * @param variables A map of variables with their corresponding values.
+     * @return The result of the evaluated expression.
+     */
+    @Override
+    public double eval(Map<String, Double> variables) {
+        return Traversal.evaluate(this, leaf -> leaf.eval(variables));
+    }
+
+    /**
+     * Evaluates the expression using the provided bindings.
+     *
+     * @param bindings The values of the variables.
+     * @return The result of the evaluated expression.
+     */
+    @Override
+    public double eval(Bindings bindings) {
+        return Traversal.evaluate(this, leaf -> leaf.eval(bindings));
+    }
+
+    /**
+     * Evaluates the expression without any variables.
+     *
+     * @return The result of the evaluated expression.
+     */
+    @Override
+    public double eval() {
+        return Traversal.evaluate(this, Expression::eval);
+    }
+
+    /**
+     * Bounds the values of the expression over a box of variable values.
+     *
+     * @param box The interval of values of every variable.
+     * @return An interval containing every value of the expression over the box.
+     */
+    @Override
+    public Interval bounds(Map<String, Interval> box) {
+        return Traversal.postOrder(this, leaf -> leaf.bounds(box), BinaryExpression::apply);
+    }
+
+    /**
+     * Calculates the derivative of the expression with respect to the specified variable.
+     *
+     * @param var The name of the variable with respect to which the derivative is to be computed.
+     * @return An expression representing the derivative.
+     */
+    @Override
+    public Expression derivative(String var) {
+        return Traversal.postOrder(this, leaf -> leaf.derivative(var),
+                BinaryExpression::derivativeOf);
+    }
+
+    /**
+     * Simplifies the expression bottom-up, simplifying the operands of every node first.
+     *
+     * @return A simplified expression.
+     */
+    @Override
+    public Expression simplify() {
+        return Traversal.postOrder(this, Expression::simplify, BinaryExpression::simplified);
+    }
+
+    /**
+     * Writes the expression in the format (left op right).
+     *
+     * @param out The destination for the text.
+     * @throws IOException If the destination fails to accept the text.
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        Traversal.write(this, out);
+    }
+}
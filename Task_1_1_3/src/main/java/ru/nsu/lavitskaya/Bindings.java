@@ -0,0 +1,168 @@
+package ru.nsu.lavitskaya;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable set of variable values used to evaluate an expression.
+ * Every variable is assigned a slot, and the values are stored in a plain array indexed by
+ * slot. Bindings never change after construction, so a single instance can be shared by any
+ * number of threads evaluating the same or different expressions.
+ */
+public final class Bindings {
+    private static final Bindings EMPTY = new Bindings(Collections.emptyMap(), new double[0]);
+
+    private final Map<String, Integer> slots;
+    private final double[] values;
+
+    private Bindings(Map<String, Integer> slots, double[] values) {
+        this.slots = slots;
+        this.values = values;
+    }
+
+    /**
+     * Returns bindings that contain no variables.
+     *
+     * @return The empty bindings.
+     */
+    public static Bindings empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates bindings from a map of variable names to values.
+     * Entries with a {@code null} value are treated as unset and are skipped.
+     *
+     * @param variables A map of variable names to their corresponding values.
+     * @return Bindings holding a copy of the given values.
+     */
+    public static Bindings of(Map<String, Double> variables) {
+        Map<String, Integer> slots = new HashMap<>();
+        double[] values = new double[variables.size()];
+        for (Map.Entry<String, Double> entry : variables.entrySet()) {
+            if (entry.getValue() != null) {
+                values[slots.size()] = entry.getValue();
+                slots.put(entry.getKey(), slots.size());
+            }
+        }
+        return new Bindings(Collections.unmodifiableMap(slots),
+                Arrays.copyOf(values, slots.size()));
+    }
+
+    /**
+     * Returns bindings that are equal to these except that {@code name} is bound to
+     * {@code value}. These bindings are not modified.
+     *
+     * @param name  The name of the variable.
+     * @param value The value to bind.
+     * @return New bindings with the given variable set.
+     */
+    public Bindings with(String name, double value) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            double[] copy = values.clone();
+            copy[slot] = value;
+            return new Bindings(slots, copy);
+        }
+        Map<String, Integer> extended = new HashMap<>(slots);
+        extended.put(name, values.length);
+        double[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        return new Bindings(Collections.unmodifiableMap(extended), copy);
+    }
+
+    /**
+     * Returns the value bound to the variable with the given name.
+     *
+     * @param name The name of the variable.
+     * @return The value of the variable.
+     * @throws IllegalArgumentException If the variable is not bound.
+     */
+    public double get(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new IllegalArgumentException("value not set for variable '" + name + "'.");
+        }
+        return values[slot];
+    }
+
+    /**
+     * Returns the value stored in the given slot.
+     *
+     * @param slot A slot obtained from {@link #slotOf(String)}.
+     * @return The value in the slot.
+     */
+    public double get(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Returns the slot assigned to the variable with the given name.
+     *
+     * @param name The name of the variable.
+     * @return The slot of the variable, or -1 if it is not bound.
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns an object that identifies the assignment of slots to names. Bindings derived
+     * with {@link #with(String, double)} from a variable that is already bound share the
+     * layout of their origin, so a slot looked up once stays valid for all of them.
+     *
+     * @return The slot layout of these bindings, compared by identity.
+     */
+    Object layout() {
+        return slots;
+    }
+
+    /**
+     * Checks whether a variable with the given name is bound.
+     *
+     * @param name The name of the variable.
+     * @return true if the variable has a value, false otherwise.
+     */
+    public boolean contains(String name) {
+        return slots.containsKey(name);
+    }
+
+    /**
+     * Returns the names of all bound variables.
+     *
+     * @return An unmodifiable set of variable names.
+     */
+    public Set<String> names() {
+        return slots.keySet();
+    }
+
+    /**
+     * Returns the number of bound variables.
+     *
+     * @return The number of variables.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns a string representation of the bindings in the format "x=1.0;y=2.0".
+     *
+     * @return A string listing every variable and its value.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+            if (!builder.isEmpty()) {
+                builder.append(';');
+            }
+            builder.append(entry.getKey()).append('=').append(values[entry.getValue()]);
+        }
+        return builder.toString();
+    }
+}
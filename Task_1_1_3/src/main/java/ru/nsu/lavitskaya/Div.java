@@ -1,15 +1,10 @@
 package ru.nsu.lavitskaya;
 
-import java.util.Map;
-import java.util.Objects;
-
 /**
  * Represents a division operation between two expressions.
  * This class is part of the expression evaluation framework.
  */
-public class Div extends Expression {
-    private final Expression left;
-    private final Expression right;
+public class Div extends BinaryExpression {
 
     /**
      * Creates a new division expression with the specified left and right operands.
@@ -18,60 +13,62 @@ public class Div extends Expression {
      * @param right The denominator (right expression).
      */
     public Div(Expression left, Expression right) {
-        this.left = left;
-        this.right = right;
+        super(left, right);
     }
 
     /**
-     * Returns a string representation of the division expression in the format:
-     * (left / right).
+     * Returns the symbol printed between the operands. The division expression is printed in
+     * the format (left/right).
      *
-     * @return A string representing the division expression.
+     * @return The division symbol.
      */
     @Override
-    public String toString() {
-        return "(" + left.toString() + "/" + right.toString() + ")";
+    String infix() {
+        return "/";
     }
 
-
     /**
-     * Evaluates the division expression using the provided variable mapping.
+     * Divides the value of the left operand by the value of the right operand.
      *
-     * @param variables A map of variables with their corresponding values.
+     * @param left  The value of the numerator.
+     * @param right The value of the denominator.
      * @return The result of dividing the evaluated left expression by the evaluated right
      *     expression.
      */
     @Override
-    public double eval(Map<String, Double> variables) {
-        return left.eval(variables) / right.eval(variables);
+    double apply(double left, double right) {
+        return left / right;
     }
 
     /**
-     * Evaluates the division expression without any variables.
+     * Divides the bounds of the numerator by the bounds of the denominator. If the bounds of
+     * the denominator contain zero, the result is unbounded, see {@link Interval#div}.
      *
-     * @return The result of dividing the evaluated left expression by the evaluated right
-     *     expression.
+     * @param left  The bounds of the numerator.
+     * @param right The bounds of the denominator.
+     * @return An interval containing every quotient of the operands.
      */
     @Override
-    public double eval() {
-        return left.eval() / right.eval();
+    Interval apply(Interval left, Interval right) {
+        return left.div(right);
     }
 
     /**
-     * Calculates the derivative of the division expression with respect to the specified variable.
+     * Calculates the derivative of the division expression.
      * This follows the quotient rule: (u / v)' = (u' * v - u * v') / (v^2).
      *
-     * @param var The name of the variable with respect to which the derivative is to be computed.
+     * @param leftDerivative  The derivative of the numerator.
+     * @param rightDerivative The derivative of the denominator.
      * @return A new Div expression representing the derivative of the division.
      */
     @Override
-    public Expression derivative(String var) {
+    Expression derivativeOf(Expression leftDerivative, Expression rightDerivative) {
         return new Div(
                 new Sub(
-                        new Mul(left.derivative(var), right),
-                        new Mul(left, right.derivative(var))
+                        new Mul(leftDerivative, getRight()),
+                        new Mul(getLeft(), rightDerivative)
                 ),
-                new Mul(right, right)
+                new Mul(getRight(), getRight())
         );
     }
 
@@ -84,15 +81,14 @@ public class Div extends Expression {
      * If the left expression and the right expression are identical,
      * a new Number instance representing one is returned, as A / A = 1 (for A ≠ 0).
      *
+     * @param simplifiedLeft  The simplified numerator.
+     * @param simplifiedRight The simplified denominator.
      * @return A simplified division expression, which may be a Number if both operands
      *     are constants, or a new Div instance if at least one operand is not a constant
      *     or does not meet special simplification conditions.
      */
     @Override
-    public Expression simplify() {
-        Expression simplifiedLeft = left.simplify();
-        Expression simplifiedRight = right.simplify();
-
+    Expression simplified(Expression simplifiedLeft, Expression simplifiedRight) {
         if (simplifiedLeft.getClass() == Number.class
                 && simplifiedRight.getClass() == Number.class) {
             return new Number(simplifiedLeft.eval() / simplifiedRight.eval());
@@ -100,10 +96,15 @@ public class Div extends Expression {
         if (simplifiedRight.getClass() == Number.class && simplifiedRight.eval() == 1) {
             return simplifiedLeft;
         }
-        if (Objects.equals(simplifiedRight.toString(), simplifiedLeft.toString())) {
+        if (Traversal.samePrinted(simplifiedRight, simplifiedLeft)) {
             return new Number(1);
         }
 
         return new Div(simplifiedLeft, simplifiedRight);
     }
+
+    @Override
+    <R> R accept(ExpressionVisitor<R> visitor, R left, R right) {
+        return visitor.visitDiv(this, left, right);
+    }
 }
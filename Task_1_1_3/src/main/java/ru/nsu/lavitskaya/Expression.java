@@ -1,9 +1,12 @@
 package ru.nsu.lavitskaya;
 
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Set;
 
 /**
  * An abstract base class that represents a mathematical expression.
@@ -11,7 +14,10 @@ import java.util.Stack;
  * their derivatives, and creating specific expressions from string representations.
  */
 public abstract class Expression {
-    public static Map<String, Double> variables = new HashMap<>();
+    private static final ExpressionParser PARSER = new ExpressionParser();
+
+    private volatile Set<String> variableNames;
+    private volatile Tape tape;
 
     public abstract Expression simplify();
 
@@ -31,6 +37,17 @@ public abstract class Expression {
      */
     public abstract double eval(Map<String, Double> variables);
 
+    /**
+     * Evaluates the expression using the provided immutable bindings.
+     * Bindings are never modified, so the same expression can be evaluated concurrently
+     * from several threads.
+     *
+     * @param bindings The values of the variables.
+     * @return The result of the evaluated expression as a double.
+     * @throws IllegalArgumentException If a variable of the expression is not bound.
+     */
+    public abstract double eval(Bindings bindings);
+
     /**
      * Evaluates the expression without any variable mapping.
      *
@@ -39,15 +56,29 @@ public abstract class Expression {
     public abstract double eval();
 
     /**
-     * Evaluates the expression using a provided string representation of variables,
-     * which allows setting variables dynamically in the format "key=value;key=value;...".
+     * Bounds the values of the expression over a box of variable values using interval
+     * arithmetic. The result contains the value of the expression at every point of the box,
+     * so if it does not contain the values of interest, the whole box can be discarded without
+     * evaluating any point in it.
+     *
+     * @param box The interval of values of every variable.
+     * @return An interval containing every value of the expression over the box.
+     * @throws IllegalArgumentException If a variable of the expression has no interval.
+     */
+    public abstract Interval bounds(Map<String, Interval> box);
+
+    /**
+     * Evaluates the expression using a provided string representation of variables
+     * in the format "key=value;key=value;...". Every key must be a variable of this expression.
      *
      * @param stringOfVars A semicolon-separated string of key-value pairs.
      * @return The result of the evaluated expression.
      * @throws IllegalArgumentException If the format of the input string is invalid or
-     *                                   if a variable does not exist.
+     *                                  if a variable does not exist.
      */
     public double eval(String stringOfVars) {
+        Set<String> names = getVariables();
+        Map<String, Double> values = new HashMap<>();
         String[] pairs = stringOfVars.split(";");
 
         for (String pair : pairs) {
@@ -61,149 +92,192 @@ public abstract class Expression {
             String key = keyValue[0].trim();
             String valueStr = keyValue[1].trim();
 
-            if (!variables.containsKey(key)) {
+            if (!names.contains(key)) {
                 throw new IllegalArgumentException("variable '" + key + "' doesn't exist.");
 
             }
 
             try {
                 double value = Double.parseDouble(valueStr);
-                variables.put(key, value);
+                values.put(key, value);
             } catch (NumberFormatException e) {
                 throw new IllegalArgumentException("value '" + valueStr + "' for variable '"
                         + key + "' isn't a number.");
 
             }
         }
-        return eval(variables);
+        return eval(Bindings.of(values));
     }
 
     /**
-     * Creates an Expression object from a string representation of a mathematical expression.
+     * Returns the names of the variables that occur in this expression.
+     * The set is computed once and then reused, so each expression carries its own
+     * variable set instead of sharing global state.
      *
-     * @param expression The string representation of the expression.
-     * @return An Expression object representing the parsed mathematical expression.
-     * @throws IllegalArgumentException If the expression is invalid.
+     * @return An unmodifiable set of variable names.
      */
-    public static Expression create(String expression) {
-        char[] tokens = expression.toCharArray();
-        Stack<Expression> values = new Stack<>();
-        Stack<Character> operators = new Stack<>();
-
-        for (int i = 0; i < tokens.length; i++) {
-            char token = tokens[i];
-
-            if (token == ' ') {
-                continue;
-            }
-            if (Character.isDigit(token)) {
-                String number = String.valueOf(tokens[i++]);
-                while (i < tokens.length && (Character.isDigit(tokens[i]) || tokens[i] == '.')) {
-                    number += tokens[i++];
-                }
-                i--;
-                values.push(new Number(Double.parseDouble(number)));
-
-            } else if (Character.isLetter(token) || token == '_') {
-                String variable =  String.valueOf(tokens[i++]);
-                while (i < tokens.length && (Character.isDigit(tokens[i])
-                        || Character.isLetter(tokens[i]) || tokens[i] == '_')) {
-                    variable += tokens[i++];
-                }
-                i--;
-                values.push(new Variable(variable));
-                variables.put(variable, null);
-
-            } else if (token == '(') {
-                operators.push(token);
-
-            } else if (token == ')') { // 2+2) () (-)
-                if (!operators.contains('(') || operators.peek() == '(' || values.isEmpty()) {
-                    throw new IllegalArgumentException("invalid expression.");
+    public Set<String> getVariables() {
+        Set<String> names = variableNames;
+        if (names == null) {
+            Set<String> collected = new HashSet<>();
+            Traversal.postOrder(this, leaf -> {
+                if (leaf instanceof Variable variable) {
+                    collected.add(variable.getName());
                 }
+                return null;
+            }, (node, left, right) -> null);
+            names = Collections.unmodifiableSet(collected);
+            variableNames = names;
+        }
+        return names;
+    }
 
-                while (operators.peek() != '(') { // (5+8+9)
-                    char op = operators.pop();
-                    Expression right = values.pop();
-                    Expression left;
-                    if (values.isEmpty()) { // (-2)
-                        if (op == '-' || op == '+') {
-                            left = new Number(0);
-                        } else { // (*2)
-                            throw new IllegalArgumentException("invalid expression.");
-                        }
-                    } else {
-                        left = values.pop();
-                    }
-                    values.push(createExpression(op, left, right));
+    /**
+     * Computes the value of the expression and its partial derivatives with respect to every
+     * variable using reverse-mode automatic differentiation. The expression is evaluated in one
+     * forward sweep over its flattened node table and differentiated in one backward sweep, so
+     * the cost is proportional to the size of the expression regardless of how many variables
+     * it has. No symbolic derivative trees are built.
+     *
+     * @param bindings The values of the variables.
+     * @return The value and the gradient of the expression.
+     * @throws IllegalArgumentException If a variable of the expression is not bound.
+     */
+    public Gradient gradient(Bindings bindings) {
+        Tape tape = tape();
+        int size = tape.size;
+        double[] inputs = new double[tape.variables.length];
+        for (int slot = 0; slot < inputs.length; slot++) {
+            inputs[slot] = bindings.get(tape.variables[slot]);
+        }
+        double[] values = new double[size];
+        double value = tape.evaluate(inputs, values);
+
+        double[] adjoints = new double[size];
+        double[] partials = new double[tape.variables.length];
+        adjoints[tape.root()] = 1;
+        for (int i = size - 1; i >= 0; i--) {
+            double adjoint = adjoints[i];
+            int left = tape.left[i];
+            int right = tape.right[i];
+            switch (tape.ops[i]) {
+                case Tape.VARIABLE -> partials[tape.slots[i]] += adjoint;
+                case Tape.ADD -> {
+                    adjoints[left] += adjoint;
+                    adjoints[right] += adjoint;
                 }
-                operators.pop();
-
-            } else if ("+-*/".indexOf(token) != -1) {
-                while (!operators.isEmpty() && precedence(operators.peek()) > precedence(token)) {
-                    char op = operators.pop();
-                    Expression right = values.pop();
-                    Expression left = values.pop();
-                    values.push(createExpression(op, left, right));
+                case Tape.SUB -> {
+                    adjoints[left] += adjoint;
+                    adjoints[right] -= adjoint;
                 }
-                operators.push(tokens[i++]);
-                while (i < tokens.length && tokens[i] == ' ') {
-                    i++;
+                case Tape.MUL -> {
+                    adjoints[left] += adjoint * values[right];
+                    adjoints[right] += adjoint * values[left];
                 }
-                if (i < tokens.length && (Character.isDigit(tokens[i])
-                        || Character.isLetter(tokens[i]) || tokens[i] == '_' || tokens[i] == '(')) {
-                    i--;
-                } else {
-                    throw new IllegalArgumentException("invalid expression.");
+                case Tape.DIV -> {
+                    adjoints[left] += adjoint / values[right];
+                    adjoints[right] -= adjoint * values[left] / (values[right] * values[right]);
                 }
-
-            } else {
-                throw new IllegalArgumentException("invalid expression.");
-            }
-        }
-
-        while (!operators.isEmpty()) {
-            if (operators.contains('(') || values.isEmpty()) {
-                throw new IllegalArgumentException("invalid expression.");
-            }
-            char op = operators.pop();
-            Expression right = values.pop();
-            Expression left;
-            if (values.isEmpty()) { // -2
-                if (op == '-' || op == '+') {
-                    left = new Number(0);
-                } else {
-                    throw new IllegalArgumentException("invalid expression.");
+                default -> {
                 }
-            } else {
-                left = values.pop();
             }
-            values.push(createExpression(op, left, right));
         }
-
-        return values.pop();
+        return new Gradient(value, tape, partials);
     }
 
-    private static Expression createExpression(char op, Expression left, Expression right) {
-        return switch (op) {
-            case '+' -> new Add(left, right);
-            case '-' -> new Sub(left, right);
-            case '*' -> new Mul(left, right);
-            case '/' -> new Div(left, right);
-            default -> throw new IllegalArgumentException("invalid expression.");
-        };
+    /**
+     * Returns the flattened node table of this expression, building it on first use.
+     *
+     * @return The tape of this expression.
+     */
+    Tape tape() {
+        Tape flattened = tape;
+        if (flattened == null) {
+            flattened = Tape.of(this);
+            tape = flattened;
+        }
+        return flattened;
     }
 
-    private static int precedence(char operator) {
-        return switch (operator) {
-            case '+', '-' -> 1;
-            case '*', '/' -> 2;
-            default -> 0;
-        };
+    /**
+     * Walks the expression in post-order and computes a result for every node with the given
+     * visitor. The walk keeps its state on an explicit stack, so expressions of any depth can
+     * be visited.
+     *
+     * @param visitor The visitor computing the result for every node.
+     * @param <R>     The type of the results.
+     * @return The result computed for this expression.
+     */
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return Traversal.postOrder(this,
+                leaf -> leaf instanceof Number number
+                        ? visitor.visitNumber(number)
+                        : visitor.visitVariable((Variable) leaf),
+                (node, left, right) -> node.accept(visitor, left, right));
     }
 
-}
+    /**
+     * Writes the text of the expression to the given destination. Every node is visited
+     * exactly once and appends its own symbols directly, so printing is linear in the size
+     * of the expression and no intermediate strings are built for subtrees.
+     *
+     * @param out The destination for the text.
+     * @throws IOException If the destination fails to accept the text.
+     */
+    public abstract void writeTo(Appendable out) throws IOException;
 
+    /**
+     * Writes the text of the expression to the given string builder.
+     *
+     * @param out The builder to append to.
+     */
+    public void writeTo(StringBuilder out) {
+        try {
+            writeTo((Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    /**
+     * Returns a string representation of the expression, as written by
+     * {@link #writeTo(Appendable)}.
+     *
+     * @return A string representing the expression.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        writeTo(builder);
+        return builder.toString();
+    }
 
+    /**
+     * Checks whether the given expression is printed as exactly the given text. Only
+     * numbers and variables can match, since every operator is printed in parentheses, so
+     * the check never prints a whole subtree.
+     *
+     * @param expression The expression to check.
+     * @param text       The expected text.
+     * @return true if the expression is printed as the text, false otherwise.
+     */
+    static boolean isPrintedAs(Expression expression, String text) {
+        if (expression instanceof Number || expression instanceof Variable) {
+            return expression.toString().equals(text);
+        }
+        return false;
+    }
 
+    /**
+     * Creates an Expression object from a string representation of a mathematical expression.
+     * Parsing is done in a single pass by {@link ExpressionParser}.
+     *
+     * @param expression The string representation of the expression.
+     * @return An Expression object representing the parsed mathematical expression.
+     * @throws ExpressionParseException If the expression is invalid; the exception reports
+     *                                  the offset of the error.
+     */
+    public static Expression create(String expression) {
+        return PARSER.parse(expression);
+    }
+}
@@ -0,0 +1,265 @@
+package ru.nsu.lavitskaya;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes expressions in a compact binary format.
+ *
+ * <p>The format is the flattened node table of the expression: a header, a pool of variable
+ * names, a pool of distinct constants and the nodes in post-order, so every node follows its
+ * operands and the last node is the root. A node is an opcode byte followed by a varint: the
+ * index into the matching pool for numbers and variables, or the distances back to the two
+ * operands for operators. Subtrees shared by several parents are stored once and are shared
+ * again after reading, so derivative trees keep their size.</p>
+ *
+ * <pre>
+ * magic "EXPR", version byte
+ * varint nameCount,     nameCount x (varint length, UTF-8 bytes)
+ * varint constantCount, constantCount x 8-byte IEEE 754 double
+ * varint nodeCount,     nodeCount x (opcode byte, operand varints)
+ * </pre>
+ */
+public final class ExpressionCodec {
+    private static final byte[] MAGIC = {'E', 'X', 'P', 'R'};
+    private static final byte VERSION = 1;
+
+    private ExpressionCodec() {
+    }
+
+    /**
+     * Writes the expression to the given stream in the binary format. The whole encoding is
+     * built in memory and handed to the stream in a single write.
+     *
+     * @param expression The expression to write.
+     * @param out        The destination stream.
+     * @throws IOException If the stream fails to accept the data.
+     */
+    public static void writeTo(Expression expression, OutputStream out) throws IOException {
+        Tape tape = expression.tape();
+        Output output = new Output(16 + tape.size * 3);
+        output.bytes(MAGIC, MAGIC.length);
+        output.put(VERSION);
+
+        output.varint(tape.variables.length);
+        for (String name : tape.variables) {
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            output.varint(utf8.length);
+            output.bytes(utf8, utf8.length);
+        }
+
+        Map<Long, Integer> pool = new HashMap<>();
+        int[] constantIndex = new int[tape.size];
+        double[] constants = new double[Math.max(1, tape.size)];
+        for (int i = 0; i < tape.size; i++) {
+            if (tape.ops[i] == Tape.NUMBER) {
+                long bits = Double.doubleToRawLongBits(tape.constants[i]);
+                Integer index = pool.get(bits);
+                if (index == null) {
+                    index = pool.size();
+                    pool.put(bits, index);
+                    constants[index] = tape.constants[i];
+                }
+                constantIndex[i] = index;
+            }
+        }
+        output.varint(pool.size());
+        for (int i = 0; i < pool.size(); i++) {
+            output.doubleValue(constants[i]);
+        }
+
+        output.varint(tape.size);
+        for (int i = 0; i < tape.size; i++) {
+            byte op = tape.ops[i];
+            output.put(op);
+            switch (op) {
+                case Tape.NUMBER -> output.varint(constantIndex[i]);
+                case Tape.VARIABLE -> output.varint(tape.slots[i]);
+                default -> {
+                    output.varint(i - tape.left[i]);
+                    output.varint(i - tape.right[i]);
+                }
+            }
+        }
+        out.write(output.buffer, 0, output.size);
+    }
+
+    /**
+     * Reads an expression in the binary format from the given buffer, starting at its current
+     * position. On return the position is just past the expression, so several expressions
+     * can be read from one buffer in turn. Apart from the pools, exactly one object is
+     * allocated per stored node. Constants are always read big-endian, as they are written,
+     * whatever the byte order of the buffer is.
+     *
+     * @param buffer The buffer to read from.
+     * @return The expression stored in the buffer.
+     * @throws IllegalArgumentException If the data is not a valid encoded expression.
+     */
+    public static Expression readFrom(ByteBuffer buffer) {
+        try {
+            for (byte expected : MAGIC) {
+                if (buffer.get() != expected) {
+                    throw malformed("bad magic number");
+                }
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw malformed("unsupported version " + version);
+            }
+
+            String[] names = new String[count(buffer)];
+            for (int i = 0; i < names.length; i++) {
+                int length = count(buffer);
+                byte[] utf8 = new byte[length];
+                buffer.get(utf8);
+                names[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+
+            double[] constants = new double[count(buffer)];
+            for (int i = 0; i < constants.length; i++) {
+                constants[i] = doubleValue(buffer);
+            }
+
+            Expression[] nodes = new Expression[count(buffer)];
+            if (nodes.length == 0) {
+                throw malformed("no nodes");
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                byte op = buffer.get();
+                nodes[i] = switch (op) {
+                    case Tape.NUMBER -> new Number(constants[index(buffer, constants.length)]);
+                    case Tape.VARIABLE -> new Variable(names[index(buffer, names.length)]);
+                    case Tape.ADD -> new Add(operand(buffer, nodes, i), operand(buffer, nodes, i));
+                    case Tape.SUB -> new Sub(operand(buffer, nodes, i), operand(buffer, nodes, i));
+                    case Tape.MUL -> new Mul(operand(buffer, nodes, i), operand(buffer, nodes, i));
+                    case Tape.DIV -> new Div(operand(buffer, nodes, i), operand(buffer, nodes, i));
+                    default -> throw malformed("unknown opcode " + op + " at node " + i);
+                };
+            }
+            return nodes[nodes.length - 1];
+        } catch (BufferUnderflowException e) {
+            throw malformed("unexpected end of data");
+        }
+    }
+
+    /**
+     * Reads an expression in the binary format from the given file. The file is memory-mapped
+     * rather than copied into the heap.
+     *
+     * @param path The file to read.
+     * @return The expression stored in the file.
+     * @throws IOException              If the file can't be read.
+     * @throws IllegalArgumentException If the file does not contain a valid encoded expression.
+     */
+    public static Expression readFrom(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+            return readFrom(buffer);
+        }
+    }
+
+    private static Expression operand(ByteBuffer buffer, Expression[] nodes, int node) {
+        int distance = varint(buffer);
+        if (distance <= 0 || distance > node) {
+            throw malformed("invalid operand of node " + node);
+        }
+        return nodes[node - distance];
+    }
+
+    private static int index(ByteBuffer buffer, int poolSize) {
+        int index = varint(buffer);
+        if (index < 0 || index >= poolSize) {
+            throw malformed("pool index " + index + " out of range");
+        }
+        return index;
+    }
+
+    private static int count(ByteBuffer buffer) {
+        int count = varint(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw malformed("invalid count " + count);
+        }
+        return count;
+    }
+
+    private static int varint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw malformed("varint is too long");
+    }
+
+    private static double doubleValue(ByteBuffer buffer) {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer.get() & 0xff);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("malformed expression data: " + reason + ".");
+    }
+
+    /**
+     * A growable byte array with helpers for the primitive encodings of the format.
+     */
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void put(byte b) {
+            ensure(1);
+            buffer[size++] = b;
+        }
+
+        void bytes(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void doubleValue(double value) {
+            ensure(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.nsu.lavitskaya;
+
+/**
+ * Thrown when the text of an expression cannot be parsed.
+ * The exception records the offset in the source at which the problem was detected.
+ */
+public class ExpressionParseException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    /**
+     * Creates a new exception describing a parse error at the given offset.
+     *
+     * @param reason   A short description of what went wrong.
+     * @param position The zero-based offset in the source text.
+     */
+    public ExpressionParseException(String reason, int position) {
+        super("invalid expression. " + reason + " at position " + position + ".");
+        this.position = position;
+    }
+
+    /**
+     * Returns the zero-based offset in the source text at which the error was detected.
+     *
+     * @return The offset of the error.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,226 @@
+package ru.nsu.lavitskaya;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses the text of an expression into a tree of {@link Expression} nodes.
+ * The parser reads tokens from a {@link Tokenizer} and combines them with explicit operand
+ * and operator stacks, so the running time is linear in the length of the input and nesting
+ * depth is limited only by memory. Binary operators are left-associative, and a '+' or '-'
+ * where an operand is expected is a unary sign. Signs bind tighter than all binary operators,
+ * so a sign applies only to the number, name or parenthesized group that follows it:
+ * {@code 2/-3*4} is {@code (2/(-3))*4}.
+ *
+ * <p>A parser may optionally keep a bounded cache of recently parsed trees keyed by their
+ * source text. Expression trees are immutable, so a cached tree can be shared by all callers.
+ * </p>
+ */
+public class ExpressionParser {
+    private static final int ADD = 1;
+    private static final int SUB = 2;
+    private static final int MUL = 3;
+    private static final int DIV = 4;
+    private static final int PLUS_SIGN = 5;
+    private static final int NEGATE = 6;
+    private static final int GROUP = 7;
+
+    private static final int ADDITIVE = 1;
+    private static final int MULTIPLICATIVE = 2;
+    private static final int UNARY = 3;
+
+    private final Map<String, Expression> cache;
+
+    /**
+     * Creates a parser without a cache.
+     */
+    public ExpressionParser() {
+        this(0);
+    }
+
+    /**
+     * Creates a parser that keeps up to {@code cacheCapacity} recently parsed trees.
+     * When the cache is full, the least recently used tree is evicted.
+     *
+     * @param cacheCapacity The maximum number of cached trees, or 0 to disable caching.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public ExpressionParser(int cacheCapacity) {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("cache capacity can't be negative.");
+        }
+        if (cacheCapacity == 0) {
+            cache = null;
+        } else {
+            cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+                    return size() > cacheCapacity;
+                }
+            };
+        }
+    }
+
+    /**
+     * Parses the given text into an expression tree, consulting the cache first if enabled.
+     *
+     * @param source The text of the expression.
+     * @return The parsed expression.
+     * @throws ExpressionParseException If the text is not a valid expression.
+     */
+    public Expression parse(String source) {
+        if (cache == null) {
+            return parseUncached(source);
+        }
+        synchronized (cache) {
+            Expression cached = cache.get(source);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Expression expression = parseUncached(source);
+        synchronized (cache) {
+            cache.put(source, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * Returns the number of trees currently held in the cache.
+     *
+     * @return The size of the cache, or 0 if caching is disabled.
+     */
+    public int cacheSize() {
+        if (cache == null) {
+            return 0;
+        }
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static Expression parseUncached(String source) {
+        Tokenizer tokenizer = new Tokenizer(source);
+        Deque<Expression> operands = new ArrayDeque<>();
+        int[] operators = new int[16];
+        int[] positions = new int[16];
+        int top = 0;
+
+        while (true) {
+            // Expecting an operand: any number of signs and '(' followed by a number or a name.
+            Tokenizer.Token token = tokenizer.token();
+            while (token == Tokenizer.Token.MINUS || token == Tokenizer.Token.PLUS
+                    || token == Tokenizer.Token.LEFT_PAREN) {
+                if (top == operators.length) {
+                    operators = Arrays.copyOf(operators, top * 2);
+                    positions = Arrays.copyOf(positions, top * 2);
+                }
+                operators[top] = token == Tokenizer.Token.LEFT_PAREN ? GROUP
+                        : token == Tokenizer.Token.MINUS ? NEGATE : PLUS_SIGN;
+                positions[top++] = tokenizer.start();
+                tokenizer.advance();
+                token = tokenizer.token();
+            }
+            if (token == Tokenizer.Token.NUMBER) {
+                operands.push(new Number(tokenizer.numberValue()));
+            } else if (token == Tokenizer.Token.IDENTIFIER) {
+                operands.push(new Variable(tokenizer.text()));
+            } else {
+                throw unexpected(tokenizer);
+            }
+            tokenizer.advance();
+
+            // Expecting an operator: close groups, then reduce and push the next operator.
+            token = tokenizer.token();
+            while (token == Tokenizer.Token.RIGHT_PAREN) {
+                top = reduce(operands, operators, top, ADDITIVE);
+                if (top == 0 || operators[top - 1] != GROUP) {
+                    throw unexpected(tokenizer);
+                }
+                top--;
+                tokenizer.advance();
+                token = tokenizer.token();
+            }
+            int operator = binaryOperator(token);
+            if (operator == 0) {
+                top = reduce(operands, operators, top, ADDITIVE);
+                if (top > 0) {
+                    throw new ExpressionParseException("unclosed '(' opened at position "
+                            + positions[top - 1] + ", expected ')'", tokenizer.start());
+                }
+                if (token != Tokenizer.Token.END) {
+                    throw unexpected(tokenizer);
+                }
+                return operands.pop();
+            }
+            top = reduce(operands, operators, top, precedence(operator));
+            if (top == operators.length) {
+                operators = Arrays.copyOf(operators, top * 2);
+                positions = Arrays.copyOf(positions, top * 2);
+            }
+            operators[top] = operator;
+            positions[top++] = tokenizer.start();
+            tokenizer.advance();
+        }
+    }
+
+    /**
+     * Applies the pending operators whose precedence is at least the given one, stopping at
+     * the innermost open group.
+     *
+     * @return The new height of the operator stack.
+     */
+    private static int reduce(Deque<Expression> operands, int[] operators, int top,
+                              int minPrecedence) {
+        while (top > 0 && operators[top - 1] != GROUP
+                && precedence(operators[top - 1]) >= minPrecedence) {
+            int operator = operators[--top];
+            Expression right = operands.pop();
+            Expression left = operator == NEGATE || operator == PLUS_SIGN
+                    ? new Number(0) : operands.pop();
+            operands.push(createExpression(operator, left, right));
+        }
+        return top;
+    }
+
+    private static Expression createExpression(int operator, Expression left,
+                                               Expression right) {
+        return switch (operator) {
+            case ADD, PLUS_SIGN -> new Add(left, right);
+            case SUB, NEGATE -> new Sub(left, right);
+            case MUL -> new Mul(left, right);
+            case DIV -> new Div(left, right);
+            default -> throw new IllegalStateException("not an operator: " + operator);
+        };
+    }
+
+    private static int binaryOperator(Tokenizer.Token token) {
+        return switch (token) {
+            case PLUS -> ADD;
+            case MINUS -> SUB;
+            case STAR -> MUL;
+            case SLASH -> DIV;
+            default -> 0;
+        };
+    }
+
+    private static int precedence(int operator) {
+        return switch (operator) {
+            case ADD, SUB -> ADDITIVE;
+            case MUL, DIV -> MULTIPLICATIVE;
+            case NEGATE, PLUS_SIGN -> UNARY;
+            default -> 0;
+        };
+    }
+
+    private static ExpressionParseException unexpected(Tokenizer tokenizer) {
+        if (tokenizer.token() == Tokenizer.Token.END) {
+            return new ExpressionParseException("unexpected end of input", tokenizer.start());
+        }
+        return new ExpressionParseException("unexpected '" + tokenizer.text() + "'",
+                tokenizer.start());
+    }
+}
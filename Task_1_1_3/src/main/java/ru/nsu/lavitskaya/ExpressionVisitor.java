@@ -0,0 +1,23 @@
+package ru.nsu.lavitskaya;
+
+/**
+ * A visitor over the nodes of an expression tree, driven by {@link Expression#accept}.
+ * Nodes are visited in post-order: the results for the operands of a node are computed first
+ * and passed to the method for the node itself. The traversal uses an explicit stack, so a
+ * visitor works on trees of any depth.
+ *
+ * @param <R> The type of the result computed for every node.
+ */
+public interface ExpressionVisitor<R> {
+    R visitNumber(Number number);
+
+    R visitVariable(Variable variable);
+
+    R visitAdd(Add add, R left, R right);
+
+    R visitSub(Sub sub, R left, R right);
+
+    R visitMul(Mul mul, R left, R right);
+
+    R visitDiv(Div div, R left, R right);
+}
@@ -0,0 +1,72 @@
+package ru.nsu.lavitskaya;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The value of an expression at a point together with its partial derivatives with respect
+ * to every variable of the expression.
+ */
+public final class Gradient {
+    private final double value;
+    private final Tape tape;
+    private final double[] partials;
+
+    /**
+     * Creates a gradient from the value and the partial derivatives stored by slot.
+     *
+     * @param value    The value of the expression.
+     * @param tape     The tape of the expression, which assigns slots to variables.
+     * @param partials The partial derivatives, indexed by slot.
+     */
+    Gradient(double value, Tape tape, double[] partials) {
+        this.value = value;
+        this.tape = tape;
+        this.partials = partials;
+    }
+
+    /**
+     * Returns the value of the expression.
+     *
+     * @return The value of the expression at the point.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the partial derivative with respect to the given variable.
+     * The derivative with respect to a variable that does not occur in the expression is zero.
+     *
+     * @param var The name of the variable.
+     * @return The partial derivative.
+     */
+    public double getPartial(String var) {
+        int slot = tape.slotOf(var);
+        return slot == -1 ? 0 : partials[slot];
+    }
+
+    /**
+     * Returns all partial derivatives keyed by variable name.
+     *
+     * @return An unmodifiable map from variable names to partial derivatives.
+     */
+    public Map<String, Double> getPartials() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < partials.length; i++) {
+            result.put(tape.variables[i], partials[i]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns a string representation of the gradient.
+     *
+     * @return A string with the value and the partial derivatives.
+     */
+    @Override
+    public String toString() {
+        return "value=" + value + ", partials=" + getPartials();
+    }
+}
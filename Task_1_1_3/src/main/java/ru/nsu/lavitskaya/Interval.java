@@ -0,0 +1,228 @@
+package ru.nsu.lavitskaya;
+
+/**
+ * A closed interval of real numbers, used to bound the values of an expression over a box of
+ * variable values.
+ *
+ * <p>Every operation rounds its result outwards by one unit in the last place, so the result
+ * always contains the exact result for any choice of points from the operands, despite
+ * floating-point rounding. Bounds may be infinite.</p>
+ *
+ * <p>The empty interval, the result of dividing by exactly zero, has NaN bounds. It contains
+ * no numbers, and every operation with it is empty again.</p>
+ */
+public final class Interval {
+    private static final Interval WHOLE = new Interval(Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY);
+    private static final Interval EMPTY = new Interval(Double.NaN, Double.NaN);
+
+    private final double low;
+    private final double high;
+
+    private Interval(double low, double high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Creates the interval between the given bounds.
+     *
+     * @param low  The lower bound.
+     * @param high The upper bound.
+     * @return The interval [low, high].
+     * @throws IllegalArgumentException If a bound is NaN or low is greater than high.
+     */
+    public static Interval of(double low, double high) {
+        if (!(low <= high)) {
+            throw new IllegalArgumentException("invalid interval [" + low + ", " + high + "].");
+        }
+        return new Interval(low, high);
+    }
+
+    /**
+     * Creates the interval holding a single number.
+     *
+     * @param value The number.
+     * @return The interval [value, value].
+     */
+    public static Interval point(double value) {
+        return of(value, value);
+    }
+
+    /**
+     * Returns the interval of all real numbers.
+     *
+     * @return The interval [-Infinity, Infinity].
+     */
+    public static Interval whole() {
+        return WHOLE;
+    }
+
+    /**
+     * Returns the interval that contains no numbers.
+     *
+     * @return The empty interval, with NaN bounds.
+     */
+    public static Interval empty() {
+        return EMPTY;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    /**
+     * Checks whether the interval contains no numbers.
+     *
+     * @return true if the interval is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Returns the distance between the bounds.
+     *
+     * @return The width of the interval.
+     */
+    public double width() {
+        return high - low;
+    }
+
+    /**
+     * Checks whether the interval contains the given number.
+     *
+     * @param value The number.
+     * @return true if low &lt;= value &lt;= high, false otherwise.
+     */
+    public boolean contains(double value) {
+        return low <= value && value <= high;
+    }
+
+    /**
+     * Checks whether the interval has common points with another interval.
+     *
+     * @param other The other interval.
+     * @return true if the intervals intersect, false otherwise.
+     */
+    public boolean intersects(Interval other) {
+        return low <= other.high && other.low <= high;
+    }
+
+    /**
+     * Adds two intervals.
+     *
+     * @param other The interval to add.
+     * @return An interval containing every sum of points from both intervals.
+     */
+    public Interval add(Interval other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        return rounded(low + other.low, high + other.high);
+    }
+
+    /**
+     * Subtracts another interval from this one.
+     *
+     * @param other The interval to subtract.
+     * @return An interval containing every difference of points from both intervals.
+     */
+    public Interval sub(Interval other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        return rounded(low - other.high, high - other.low);
+    }
+
+    /**
+     * Multiplies two intervals.
+     *
+     * @param other The interval to multiply by.
+     * @return An interval containing every product of points from both intervals.
+     */
+    public Interval mul(Interval other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        double a = product(low, other.low);
+        double b = product(low, other.high);
+        double c = product(high, other.low);
+        double d = product(high, other.high);
+        return rounded(Math.min(Math.min(a, b), Math.min(c, d)),
+                Math.max(Math.max(a, b), Math.max(c, d)));
+    }
+
+    /**
+     * Divides this interval by another one. Zero is left out of the divisor, so a divisor
+     * with zero as one of its bounds gives a half-infinite interval, for example
+     * [1, 2] / [0, 3] = [1/3, Infinity]. A divisor with zero strictly inside gives two
+     * half-infinite rays, and the whole line is returned as their hull. So is the case of
+     * zero in both intervals. Division by exactly [0, 0] is undefined and gives the empty
+     * interval.
+     *
+     * @param other The divisor.
+     * @return An interval containing every quotient of points from both intervals.
+     */
+    public Interval div(Interval other) {
+        if (isEmpty() || other.isEmpty() || other.low == 0 && other.high == 0) {
+            return EMPTY;
+        }
+        if (other.contains(0)) {
+            if (contains(0) || other.low < 0 && other.high > 0) {
+                return WHOLE;
+            }
+            boolean positive = low > 0;
+            if (other.low == 0) {
+                return positive ? rounded(quotient(low, other.high), Double.POSITIVE_INFINITY)
+                        : rounded(Double.NEGATIVE_INFINITY, quotient(high, other.high));
+            }
+            return positive ? rounded(Double.NEGATIVE_INFINITY, quotient(low, other.low))
+                    : rounded(quotient(high, other.low), Double.POSITIVE_INFINITY);
+        }
+        double a = quotient(low, other.low);
+        double b = quotient(low, other.high);
+        double c = quotient(high, other.low);
+        double d = quotient(high, other.high);
+        return rounded(Math.min(Math.min(a, b), Math.min(c, d)),
+                Math.max(Math.max(a, b), Math.max(c, d)));
+    }
+
+    /**
+     * Returns a string representation of the interval in the format [low, high].
+     *
+     * @return A string representing the interval.
+     */
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        return "[" + low + ", " + high + "]";
+    }
+
+    private static Interval rounded(double low, double high) {
+        return new Interval(Math.nextDown(low), Math.nextUp(high));
+    }
+
+    /**
+     * Multiplies two bounds, taking zero times infinity as zero: a zero bound stands for an
+     * exact zero, and the product of zero with any finite number is zero.
+     */
+    private static double product(double a, double b) {
+        return a == 0 || b == 0 ? 0 : a * b;
+    }
+
+    /**
+     * Divides two bounds, taking infinity over infinity as zero; the other corner quotients
+     * already span the rest of the range in that case.
+     */
+    private static double quotient(double a, double b) {
+        double q = a / b;
+        return Double.isNaN(q) ? 0 : q;
+    }
+}
@@ -0,0 +1,210 @@
+package ru.nsu.lavitskaya;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A mutable evaluator for an expression that remembers the value of every subtree and
+ * recomputes only what a variable change affects.
+ *
+ * <p>The expression is flattened into a {@link Tape}, and each node records its parents.
+ * {@link #set(String, double)} marks the nodes that depend on the variable, walking from its
+ * occurrences up to the root, and {@link #get()} recomputes just those nodes. When one of many
+ * variables changes, an update costs time proportional to the depth of the tree rather than to
+ * its size.</p>
+ *
+ * <p>Instances are not thread-safe; use one per thread or evaluate the underlying expression
+ * with {@link Bindings}.</p>
+ */
+public class LiveExpression {
+    private final Expression expression;
+    private final Tape tape;
+    private final double[] values;
+    private final boolean[] dirty;
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] occurrenceOffsets;
+    private final int[] occurrences;
+    private final double[] variableValues;
+    private final boolean[] bound;
+    private final int[] pending;
+    private final int[] work;
+    private int pendingCount;
+
+    /**
+     * Creates a live evaluator for the given expression with no variables set.
+     *
+     * @param expression The expression to evaluate.
+     */
+    public LiveExpression(Expression expression) {
+        this.expression = expression;
+        this.tape = expression.tape();
+        int size = tape.size;
+        int variableCount = tape.variables.length;
+        this.values = new double[size];
+        this.dirty = new boolean[size];
+        this.variableValues = new double[variableCount];
+        this.bound = new boolean[variableCount];
+
+        parentOffsets = new int[size + 1];
+        occurrenceOffsets = new int[variableCount + 1];
+        for (int i = 0; i < size; i++) {
+            if (tape.left[i] >= 0) {
+                parentOffsets[tape.left[i] + 1]++;
+            }
+            if (tape.right[i] >= 0 && tape.right[i] != tape.left[i]) {
+                parentOffsets[tape.right[i] + 1]++;
+            }
+            if (tape.ops[i] == Tape.VARIABLE) {
+                occurrenceOffsets[tape.slots[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            parentOffsets[i + 1] += parentOffsets[i];
+        }
+        for (int i = 0; i < variableCount; i++) {
+            occurrenceOffsets[i + 1] += occurrenceOffsets[i];
+        }
+        parents = new int[parentOffsets[size]];
+        occurrences = new int[occurrenceOffsets[variableCount]];
+        int[] parentFill = Arrays.copyOf(parentOffsets, size);
+        int[] occurrenceFill = Arrays.copyOf(occurrenceOffsets, variableCount);
+        for (int i = 0; i < size; i++) {
+            if (tape.left[i] >= 0) {
+                parents[parentFill[tape.left[i]]++] = i;
+            }
+            if (tape.right[i] >= 0 && tape.right[i] != tape.left[i]) {
+                parents[parentFill[tape.right[i]]++] = i;
+            }
+            if (tape.ops[i] == Tape.VARIABLE) {
+                occurrences[occurrenceFill[tape.slots[i]]++] = i;
+            }
+        }
+
+        pending = new int[size];
+        work = new int[size];
+        for (int i = 0; i < size; i++) {
+            pending[i] = i;
+            dirty[i] = true;
+        }
+        pendingCount = size;
+    }
+
+    /**
+     * Creates a live evaluator for the given expression with variables set from the bindings.
+     * Bound names that do not occur in the expression are ignored.
+     *
+     * @param expression The expression to evaluate.
+     * @param bindings   The initial values of the variables.
+     */
+    public LiveExpression(Expression expression, Bindings bindings) {
+        this(expression);
+        for (int slot = 0; slot < tape.variables.length; slot++) {
+            if (bindings.contains(tape.variables[slot])) {
+                variableValues[slot] = bindings.get(tape.variables[slot]);
+                bound[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the expression being evaluated.
+     *
+     * @return The underlying expression.
+     */
+    public Expression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the names of the variables of the expression.
+     *
+     * @return An unmodifiable set of variable names.
+     */
+    public Set<String> getVariables() {
+        return expression.getVariables();
+    }
+
+    /**
+     * Sets the value of a variable and invalidates the subtrees that depend on it.
+     * Setting a variable to the value it already has does nothing.
+     *
+     * @param var   The name of the variable.
+     * @param value The new value.
+     * @throws IllegalArgumentException If the expression has no such variable.
+     */
+    public void set(String var, double value) {
+        int slot = tape.slotOf(var);
+        if (slot == -1) {
+            throw new IllegalArgumentException("variable '" + var + "' doesn't exist.");
+        }
+        if (bound[slot] && Double.compare(variableValues[slot], value) == 0) {
+            return;
+        }
+        variableValues[slot] = value;
+        bound[slot] = true;
+        for (int i = occurrenceOffsets[slot]; i < occurrenceOffsets[slot + 1]; i++) {
+            invalidate(occurrences[i]);
+        }
+    }
+
+    /**
+     * Returns the value of the expression, recomputing only the invalidated subtrees.
+     *
+     * @return The current value of the expression.
+     * @throws IllegalArgumentException If a variable that is needed has not been set.
+     */
+    public double get() {
+        if (pendingCount > 0) {
+            Arrays.sort(pending, 0, pendingCount);
+            int done = 0;
+            try {
+                for (; done < pendingCount; done++) {
+                    int node = pending[done];
+                    values[node] = compute(node);
+                    dirty[node] = false;
+                }
+            } finally {
+                System.arraycopy(pending, done, pending, 0, pendingCount - done);
+                pendingCount -= done;
+            }
+        }
+        return values[tape.root()];
+    }
+
+    private double compute(int node) {
+        byte op = tape.ops[node];
+        if (op == Tape.NUMBER) {
+            return tape.constants[node];
+        }
+        if (op == Tape.VARIABLE) {
+            int slot = tape.slots[node];
+            if (!bound[slot]) {
+                throw new IllegalArgumentException("value not set for variable '"
+                        + tape.variables[slot] + "'.");
+            }
+            return variableValues[slot];
+        }
+        return Tape.apply(op, values[tape.left[node]], values[tape.right[node]]);
+    }
+
+    private void invalidate(int start) {
+        if (dirty[start]) {
+            return;
+        }
+        int top = 0;
+        work[top++] = start;
+        dirty[start] = true;
+        while (top > 0) {
+            int node = work[--top];
+            pending[pendingCount++] = node;
+            for (int i = parentOffsets[node]; i < parentOffsets[node + 1]; i++) {
+                int parent = parents[i];
+                if (!dirty[parent]) {
+                    dirty[parent] = true;
+                    work[top++] = parent;
+                }
+            }
+        }
+    }
+}
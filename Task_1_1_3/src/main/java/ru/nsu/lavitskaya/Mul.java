@@ -1,14 +1,10 @@
 package ru.nsu.lavitskaya;
 
-import java.util.Map;
-
 /**
  * Represents a multiplication operation between two expressions.
  * This class is part of the expression evaluation framework.
  */
-public class Mul extends Expression {
-    private final Expression left;
-    private final Expression right;
+public class Mul extends BinaryExpression {
 
     /**
      * Creates a new multiplication expression with the specified left and right operands.
@@ -17,57 +13,59 @@ public class Mul extends Expression {
      * @param right The right expression to be multiplied.
      */
     public Mul(Expression left, Expression right) {
-        this.left = left;
-        this.right = right;
+        super(left, right);
     }
 
     /**
-     * Returns a string representation of the multiplication expression in the format:
-     * (left * right).
+     * Returns the symbol printed between the operands. The multiplication expression is
+     * printed in the format (left*right).
      *
-     * @return A string representing the multiplication expression.
+     * @return The multiplication symbol.
      */
     @Override
-    public String toString() {
-        return "(" + left.toString() + "*" + right.toString() + ")";
+    String infix() {
+        return "*";
     }
 
     /**
-     * Evaluates the multiplication expression using the provided variable mapping.
+     * Multiplies the values of the operands.
      *
-     * @param variables A map of variables with their corresponding values.
+     * @param left  The value of the left expression.
+     * @param right The value of the right expression.
      * @return The result of multiplying the evaluated left expression by the evaluated right
      *     expression.
      */
     @Override
-    public double eval(Map<String, Double> variables) {
-        return left.eval(variables) * right.eval(variables);
+    double apply(double left, double right) {
+        return left * right;
     }
 
     /**
-     * Evaluates the multiplication expression without any variables.
+     * Multiplies the bounds of the operands.
      *
-     * @return The result of multiplying the evaluated left expression by the evaluated right
-     *     expression.
+     * @param left  The bounds of the left expression.
+     * @param right The bounds of the right expression.
+     * @return An interval containing every product of the operands.
      */
     @Override
-    public double eval() {
-        return left.eval() * right.eval();
+    Interval apply(Interval left, Interval right) {
+        return left.mul(right);
     }
 
     /**
-     * Calculates the derivative of the multiplication expression with respect to the specified
-     * variable.This follows the product rule: (u * v)' = u' * v + u * v'.
+     * Calculates the derivative of the multiplication expression.
+     * This follows the product rule: (u * v)' = u' * v + u * v'.
      *
-     * @param var The name of the variable with respect to which the derivative is to be computed.
+     * @param leftDerivative  The derivative of the left expression.
+     * @param rightDerivative The derivative of the right expression.
      * @return A new Add expression representing the sum of the derivatives according to the
      *     product rule.
      */
     @Override
-    public Expression derivative(String var) {
+    Expression derivativeOf(Expression leftDerivative, Expression rightDerivative) {
         return new Add(
-                new Mul(left.derivative(var), right),
-                new Mul(left, right.derivative(var))
+                new Mul(leftDerivative, getRight()),
+                new Mul(getLeft(), rightDerivative)
         );
     }
 
@@ -82,15 +80,14 @@ public class Mul extends Expression {
      * a new Number instance representing zero is returned, and if it evaluates
      * to 1, the left expression is returned.
      *
+     * @param simplifiedLeft  The simplified left expression.
+     * @param simplifiedRight The simplified right expression.
      * @return A simplified multiplication expression, which may be a Number if both operands
      *     are constants, or a new Mul instance if at least one operand is not a constant
      *     or does not meet special simplification conditions.
      */
     @Override
-    public Expression simplify() {
-        Expression simplifiedLeft = left.simplify();
-        Expression simplifiedRight = right.simplify();
-
+    Expression simplified(Expression simplifiedLeft, Expression simplifiedRight) {
         if (simplifiedLeft.getClass() == Number.class
                 && simplifiedRight.getClass() == Number.class) {
             return new Number(simplifiedLeft.eval() * simplifiedRight.eval());
@@ -113,4 +110,9 @@ public class Mul extends Expression {
         }
         return new Mul(simplifiedLeft, simplifiedRight);
     }
+
+    @Override
+    <R> R accept(ExpressionVisitor<R> visitor, R left, R right) {
+        return visitor.visitMul(this, left, right);
+    }
 }
@@ -1,5 +1,6 @@
 package ru.nsu.lavitskaya;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -19,6 +20,10 @@ public class Number extends Expression {
         this.value = value;
     }
 
+    public double getValue() {
+        return value;
+    }
+
     /**
      * Returns a string representation of the numeric value.
      * If the value is an integer (i.e., it has no fractional part), it will be
@@ -34,6 +39,17 @@ public class Number extends Expression {
         return String.valueOf(value);
     }
 
+    /**
+     * Writes the numeric value in the same format as {@link #toString()}.
+     *
+     * @param out The destination for the text.
+     * @throws IOException If the destination fails to accept the text.
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        out.append(toString());
+    }
+
     /**
      * Evaluates the numeric value using the provided variable mapping.
      * Since this is a constant, the mapping has no effect.
@@ -46,6 +62,18 @@ public class Number extends Expression {
         return value;
     }
 
+    /**
+     * Evaluates the numeric value using the provided bindings.
+     * Since this is a constant, the bindings have no effect.
+     *
+     * @param bindings The values of the variables.
+     * @return The constant numeric value.
+     */
+    @Override
+    public double eval(Bindings bindings) {
+        return value;
+    }
+
     /**
      * Evaluates the numeric value without any variables.
      *
@@ -56,6 +84,17 @@ public class Number extends Expression {
         return value;
     }
 
+    /**
+     * Bounds the numeric value. Since this is a constant, the box has no effect.
+     *
+     * @param box The interval of values of every variable.
+     * @return The interval holding only the constant.
+     */
+    @Override
+    public Interval bounds(Map<String, Interval> box) {
+        return Interval.point(value);
+    }
+
     /**
      * Calculates the derivative of the numeric value with respect to the specified variable.
      * The derivative of a constant is always zero.
@@ -78,5 +117,4 @@ public class Number extends Expression {
     public Expression simplify() {
         return new Number(value);
     }
-
 }
@@ -0,0 +1,295 @@
+package ru.nsu.lavitskaya;
+
+import java.util.stream.IntStream;
+
+/**
+ * Finds roots of an expression in one of its variables.
+ *
+ * <p>The derivative is built and simplified once, when the solver is created, and both the
+ * function and its derivative are compiled to flat node tables. Every iteration then costs one
+ * pass over each table with no tree walks and no allocation, so a single solve takes a few
+ * microseconds. The other variables of the expression are treated as parameters and are
+ * taken from the bindings passed to each solve.</p>
+ *
+ * <p>A solver is immutable and can be used from several threads at once.</p>
+ */
+public final class Solver {
+    private static final double DEFAULT_TOLERANCE = 1e-12;
+    private static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    private final Expression function;
+    private final Expression derivative;
+    private final String variable;
+    private final double tolerance;
+    private final int maxIterations;
+
+    /**
+     * Creates a solver for the roots of the given expression in the given variable.
+     *
+     * @param function The expression whose roots are searched for.
+     * @param variable The name of the unknown.
+     */
+    public Solver(Expression function, String variable) {
+        this(function, function.derivative(variable).simplify(), variable, DEFAULT_TOLERANCE,
+                DEFAULT_MAX_ITERATIONS);
+    }
+
+    private Solver(Expression function, Expression derivative, String variable,
+                   double tolerance, int maxIterations) {
+        this.function = function;
+        this.derivative = derivative;
+        this.variable = variable;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        function.tape();
+        derivative.tape();
+    }
+
+    /**
+     * Returns a solver that stops once a step is smaller than the given relative tolerance.
+     *
+     * @param tolerance The tolerance, relative to the magnitude of the root.
+     * @return A solver with the new tolerance.
+     * @throws IllegalArgumentException If the tolerance is not positive.
+     */
+    public Solver withTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("tolerance must be positive.");
+        }
+        return new Solver(function, derivative, variable, tolerance, maxIterations);
+    }
+
+    /**
+     * Returns a solver that gives up after the given number of iterations.
+     *
+     * @param maxIterations The maximum number of iterations of a solve.
+     * @return A solver with the new limit.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public Solver withMaxIterations(int maxIterations) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("max iterations must be positive.");
+        }
+        return new Solver(function, derivative, variable, tolerance, maxIterations);
+    }
+
+    public Expression getFunction() {
+        return function;
+    }
+
+    /**
+     * Returns the simplified derivative used by the solver.
+     *
+     * @return The derivative of the function with respect to the unknown.
+     */
+    public Expression getDerivative() {
+        return derivative;
+    }
+
+    /**
+     * Finds a root by Newton's method starting from the given point. Where the derivative
+     * vanishes or is not finite, a secant step through the previous iterate is taken instead.
+     *
+     * @param start      The initial guess.
+     * @param parameters The values of the other variables of the expression.
+     * @return The root.
+     * @throws ArithmeticException      If the iteration diverges or does not converge within
+     *                                  the iteration limit.
+     * @throws IllegalArgumentException If a parameter is not bound.
+     */
+    public double newton(double start, Bindings parameters) {
+        Evaluator evaluator = new Evaluator(parameters);
+        double x = start;
+        double fx = evaluator.value(x);
+        double previousX = Double.NaN;
+        double previousFx = Double.NaN;
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if (fx == 0) {
+                return x;
+            }
+            double slope = evaluator.slope(x);
+            if (slope == 0 || !Double.isFinite(slope)) {
+                if (Double.isNaN(previousX) || previousFx == fx) {
+                    previousX = x + 1e-6 * Math.max(1, Math.abs(x));
+                    previousFx = evaluator.value(previousX);
+                }
+                slope = (fx - previousFx) / (x - previousX);
+            }
+            double next = x - fx / slope;
+            if (!Double.isFinite(next)) {
+                throw new ArithmeticException("iteration diverged at " + variable + "=" + x
+                        + ".");
+            }
+            previousX = x;
+            previousFx = fx;
+            x = next;
+            fx = evaluator.value(x);
+            if (converged(previousX, x)) {
+                return x;
+            }
+        }
+        throw notConverged();
+    }
+
+    /**
+     * Solves independent problems in parallel, one Newton solve per initial guess.
+     *
+     * @param starts     The initial guesses.
+     * @param parameters The values of the other variables of the expression.
+     * @return The roots, in the order of the guesses; NaN where a solve failed to converge.
+     * @throws IllegalArgumentException If a parameter is not bound.
+     */
+    public double[] newton(double[] starts, Bindings parameters) {
+        double[] roots = new double[starts.length];
+        IntStream.range(0, starts.length).parallel().forEach(i -> {
+            try {
+                roots[i] = newton(starts[i], parameters);
+            } catch (ArithmeticException e) {
+                roots[i] = Double.NaN;
+            }
+        });
+        return roots;
+    }
+
+    /**
+     * Solves independent problems in parallel, one Newton solve per set of parameters.
+     *
+     * @param start      The initial guess for every problem.
+     * @param parameters The values of the other variables for every problem.
+     * @return The roots, in the order of the parameters; NaN where a solve failed to converge.
+     * @throws IllegalArgumentException If a parameter is not bound.
+     */
+    public double[] newton(double start, Bindings[] parameters) {
+        double[] roots = new double[parameters.length];
+        IntStream.range(0, parameters.length).parallel().forEach(i -> {
+            try {
+                roots[i] = newton(start, parameters[i]);
+            } catch (ArithmeticException e) {
+                roots[i] = Double.NaN;
+            }
+        });
+        return roots;
+    }
+
+    /**
+     * Finds a root inside an interval on whose ends the expression has opposite signs.
+     * Newton steps are used while they stay inside the current bracket and shrink it fast
+     * enough; otherwise the bracket is bisected, so the method always converges.
+     *
+     * @param low        One end of the interval.
+     * @param high       The other end of the interval.
+     * @param parameters The values of the other variables of the expression.
+     * @return The root.
+     * @throws IllegalArgumentException If the ends do not bracket a root or a parameter is not
+     *                                  bound.
+     * @throws ArithmeticException      If the root is not found within the iteration limit.
+     */
+    public double bracket(double low, double high, Bindings parameters) {
+        Evaluator evaluator = new Evaluator(parameters);
+        double fLow = evaluator.value(low);
+        double fHigh = evaluator.value(high);
+        if (fLow == 0) {
+            return low;
+        }
+        if (fHigh == 0) {
+            return high;
+        }
+        if (Math.signum(fLow) == Math.signum(fHigh)) {
+            throw new IllegalArgumentException("root is not bracketed by " + low + " and "
+                    + high + ".");
+        }
+        if (fLow > 0) {
+            double swap = low;
+            low = high;
+            high = swap;
+        }
+
+        double x = 0.5 * (low + high);
+        double step = Math.abs(high - low);
+        double lastStep = step;
+        double fx = evaluator.value(x);
+        double slope = evaluator.slope(x);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            boolean outside = ((x - high) * slope - fx) * ((x - low) * slope - fx) > 0;
+            if (outside || Math.abs(2 * fx) > Math.abs(lastStep * slope)) {
+                lastStep = step;
+                step = 0.5 * (high - low);
+                x = low + step;
+            } else {
+                lastStep = step;
+                step = fx / slope;
+                x -= step;
+            }
+            if (Math.abs(step) <= tolerance * Math.max(1, Math.abs(x))) {
+                return x;
+            }
+            fx = evaluator.value(x);
+            if (fx == 0) {
+                return x;
+            }
+            slope = evaluator.slope(x);
+            if (fx < 0) {
+                low = x;
+            } else {
+                high = x;
+            }
+        }
+        throw notConverged();
+    }
+
+    private boolean converged(double previous, double current) {
+        return Math.abs(current - previous) <= tolerance * Math.max(1, Math.abs(current));
+    }
+
+    private ArithmeticException notConverged() {
+        return new ArithmeticException("no root found for " + variable + " after "
+                + maxIterations + " iterations.");
+    }
+
+    /**
+     * Evaluates the compiled function and derivative for one solve. The inputs and node
+     * values live in arrays owned by the evaluator, so iterations allocate nothing.
+     */
+    private final class Evaluator {
+        private final Tape functionTape = function.tape();
+        private final Tape derivativeTape = derivative.tape();
+        private final double[] functionInputs;
+        private final double[] derivativeInputs;
+        private final double[] functionValues = new double[functionTape.size];
+        private final double[] derivativeValues = new double[derivativeTape.size];
+        private final int functionSlot;
+        private final int derivativeSlot;
+
+        Evaluator(Bindings parameters) {
+            functionInputs = inputs(functionTape, parameters);
+            derivativeInputs = inputs(derivativeTape, parameters);
+            functionSlot = functionTape.slotOf(variable);
+            derivativeSlot = derivativeTape.slotOf(variable);
+        }
+
+        double value(double x) {
+            if (functionSlot >= 0) {
+                functionInputs[functionSlot] = x;
+            }
+            return functionTape.evaluate(functionInputs, functionValues);
+        }
+
+        double slope(double x) {
+            if (derivativeSlot >= 0) {
+                derivativeInputs[derivativeSlot] = x;
+            }
+            return derivativeTape.evaluate(derivativeInputs, derivativeValues);
+        }
+
+        private double[] inputs(Tape tape, Bindings parameters) {
+            double[] inputs = new double[tape.variables.length];
+            for (int slot = 0; slot < inputs.length; slot++) {
+                if (!tape.variables[slot].equals(variable)) {
+                    inputs[slot] = parameters.get(tape.variables[slot]);
+                }
+            }
+            return inputs;
+        }
+    }
+}
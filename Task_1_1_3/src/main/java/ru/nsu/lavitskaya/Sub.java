@@ -1,15 +1,10 @@
 package ru.nsu.lavitskaya;
 
-import java.util.Map;
-import java.util.Objects;
-
 /**
  * Represents a subtraction operation between two expressions.
  * This class is part of the expression evaluation framework.
  */
-public class Sub extends Expression {
-    private final Expression left;
-    private final Expression right;
+public class Sub extends BinaryExpression {
 
     /**
      * Creates a new subtraction expression with the specified left and right operands.
@@ -18,59 +13,62 @@ public class Sub extends Expression {
      * @param right The right expression that will be subtracted.
      */
     public Sub(Expression left, Expression right) {
-        this.left = left;
-        this.right = right;
+        super(left, right);
     }
 
     /**
-     * Returns a string representation of the subtraction expression in the format:
-     * (left - right). If the left expression is equivalent to 0.0, it returns:
+     * Returns the symbol printed between the operands. The subtraction expression is printed
+     * in the format (left-right). If the left expression is printed as 0, it is printed as
      * (-right).
      *
-     * @return A string representing the subtraction expression.
+     * @return The subtraction symbol.
      */
     @Override
-    public String toString() {
-        if (left.toString().equals("0")) {
-            return "(" + "-" + right.toString() + ")";
-        }
-        return "(" + left.toString() + "-" + right.toString() + ")";
+    String infix() {
+        return "-";
+    }
+
+    @Override
+    boolean omitsLeft() {
+        return isPrintedAs(getLeft(), "0");
     }
 
     /**
-     * Evaluates the subtraction expression using the provided variable mapping.
+     * Subtracts the value of the right operand from the value of the left operand.
      *
-     * @param variables A map of variables with their corresponding values.
+     * @param left  The value of the left expression.
+     * @param right The value of the right expression.
      * @return The result of subtracting the evaluated right expression from the evaluated left
      *     expression.
      */
     @Override
-    public double eval(Map<String, Double> variables) {
-        return left.eval(variables) - right.eval(variables);
+    double apply(double left, double right) {
+        return left - right;
     }
 
     /**
-     * Evaluates the subtraction expression without any variables.
+     * Subtracts the bounds of the right operand from the bounds of the left operand.
      *
-     * @return The result of subtracting the evaluated right expression from the evaluated left
-     *     expression.
+     * @param left  The bounds of the left expression.
+     * @param right The bounds of the right expression.
+     * @return An interval containing every difference of the operands.
      */
     @Override
-    public double eval() {
-        return left.eval() - right.eval();
+    Interval apply(Interval left, Interval right) {
+        return left.sub(right);
     }
 
     /**
-     * Calculates the derivative of the subtraction expression with respect to the specified
-     * variable.
+     * Calculates the derivative of the subtraction expression.
      *
-     * @param var The name of the variable with respect to which the derivative is to be computed.
+     * @param leftDerivative  The derivative of the left expression.
+     * @param rightDerivative The derivative of the right expression.
      * @return A new Sub expression representing the difference of the derivatives of the left and
      *     right expressions.
      */
     @Override
-    public Expression derivative(String var) {
-        return new Sub(left.derivative(var), right.derivative(var));
+    Expression derivativeOf(Expression leftDerivative, Expression rightDerivative) {
+        return new Sub(leftDerivative, rightDerivative);
     }
 
     /**
@@ -81,24 +79,28 @@ public class Sub extends Expression {
      * Otherwise, a new Sub expression containing the simplified left and right
      * expressions is returned.
      *
+     * @param simplifiedLeft  The simplified left expression.
+     * @param simplifiedRight The simplified right expression.
      * @return A simplified subtraction expression, which may be a Number if both operands
      *     are constants, or a new Sub instance if at least one operand is not a constant
      *     or if special simplification cases do not apply.
      */
     @Override
-    public Expression simplify() {
-        Expression simplifiedLeft = left.simplify();
-        Expression simplifiedRight = right.simplify();
-
+    Expression simplified(Expression simplifiedLeft, Expression simplifiedRight) {
         if (simplifiedLeft.getClass() == Number.class
                 && simplifiedRight.getClass() == Number.class) {
             return new Number(simplifiedLeft.eval() - simplifiedRight.eval());
         }
 
-        if (Objects.equals(simplifiedLeft.toString(), simplifiedRight.toString())) {
+        if (Traversal.samePrinted(simplifiedLeft, simplifiedRight)) {
             return new Number(0);
         }
 
         return new Sub(simplifiedLeft, simplifiedRight);
     }
+
+    @Override
+    <R> R accept(ExpressionVisitor<R> visitor, R left, R right) {
+        return visitor.visitSub(this, left, right);
+    }
 }
@@ -0,0 +1,199 @@
+package ru.nsu.lavitskaya;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A flattened form of an expression tree: a table of nodes in post-order, so every node
+ * appears after its operands and the last node is the root. Nodes are stored in parallel
+ * primitive arrays (opcode, operand indices, constant value, variable slot).
+ *
+ * <p>A subtree that is referenced from several places (as happens in derivative trees) is
+ * stored only once, so the tape is proportional to the number of distinct nodes. Variables
+ * are numbered by slot in order of first appearance.</p>
+ */
+final class Tape {
+    static final byte NUMBER = 0;
+    static final byte VARIABLE = 1;
+    static final byte ADD = 2;
+    static final byte SUB = 3;
+    static final byte MUL = 4;
+    static final byte DIV = 5;
+
+    final int size;
+    final byte[] ops;
+    final int[] left;
+    final int[] right;
+    final double[] constants;
+    final int[] slots;
+    final String[] variables;
+    private final Map<String, Integer> slotsByName;
+
+    private Tape(int size, byte[] ops, int[] left, int[] right, double[] constants, int[] slots,
+                 String[] variables, Map<String, Integer> slotsByName) {
+        this.size = size;
+        this.ops = ops;
+        this.left = left;
+        this.right = right;
+        this.constants = constants;
+        this.slots = slots;
+        this.variables = variables;
+        this.slotsByName = slotsByName;
+    }
+
+    /**
+     * Flattens the given expression. The tree is walked with an explicit stack, so deep
+     * trees do not exhaust the call stack.
+     *
+     * @param root The expression to flatten.
+     * @return The tape of the expression.
+     */
+    static Tape of(Expression root) {
+        Map<Expression, Integer> indices = new IdentityHashMap<>();
+        Map<String, Integer> slotsByName = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int capacity = 16;
+        byte[] ops = new byte[capacity];
+        int[] left = new int[capacity];
+        int[] right = new int[capacity];
+        double[] constants = new double[capacity];
+        int[] slots = new int[capacity];
+        int size = 0;
+
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Expression node = stack.peek();
+            if (indices.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            Expression leftChild = leftOf(node);
+            Expression rightChild = rightOf(node);
+            if (leftChild != null && !indices.containsKey(leftChild)) {
+                stack.push(leftChild);
+                continue;
+            }
+            if (rightChild != null && !indices.containsKey(rightChild)) {
+                stack.push(rightChild);
+                continue;
+            }
+            stack.pop();
+
+            if (size == capacity) {
+                capacity *= 2;
+                ops = Arrays.copyOf(ops, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                constants = Arrays.copyOf(constants, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+            }
+            ops[size] = opcodeOf(node);
+            left[size] = leftChild == null ? -1 : indices.get(leftChild);
+            right[size] = rightChild == null ? -1 : indices.get(rightChild);
+            slots[size] = -1;
+            if (node instanceof Number number) {
+                constants[size] = number.getValue();
+            } else if (node instanceof Variable variable) {
+                Integer slot = slotsByName.get(variable.getName());
+                if (slot == null) {
+                    slot = names.size();
+                    slotsByName.put(variable.getName(), slot);
+                    names.add(variable.getName());
+                }
+                slots[size] = slot;
+            }
+            indices.put(node, size);
+            size++;
+        }
+        return new Tape(size, ops, left, right, constants, slots, names.toArray(new String[0]),
+                slotsByName);
+    }
+
+    /**
+     * Returns the index of the root node.
+     *
+     * @return The index of the last node on the tape.
+     */
+    int root() {
+        return size - 1;
+    }
+
+    /**
+     * Returns the slot of the variable with the given name.
+     *
+     * @param name The name of the variable.
+     * @return The slot of the variable, or -1 if it does not occur on the tape.
+     */
+    int slotOf(String name) {
+        Integer slot = slotsByName.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Evaluates every node of the tape in order.
+     *
+     * @param inputs The values of the variables, indexed by slot.
+     * @param values Receives the value of every node; must hold at least {@link #size} values.
+     * @return The value of the root.
+     */
+    double evaluate(double[] inputs, double[] values) {
+        for (int i = 0; i < size; i++) {
+            values[i] = switch (ops[i]) {
+                case NUMBER -> constants[i];
+                case VARIABLE -> inputs[slots[i]];
+                default -> apply(ops[i], values[left[i]], values[right[i]]);
+            };
+        }
+        return values[root()];
+    }
+
+    /**
+     * Computes the value of a binary node from the values of its operands.
+     *
+     * @param op    The opcode of the node.
+     * @param left  The value of the left operand.
+     * @param right The value of the right operand.
+     * @return The value of the node.
+     */
+    static double apply(byte op, double left, double right) {
+        return switch (op) {
+            case ADD -> left + right;
+            case SUB -> left - right;
+            case MUL -> left * right;
+            case DIV -> left / right;
+            default -> throw new IllegalStateException("not a binary opcode: " + op);
+        };
+    }
+
+    private static byte opcodeOf(Expression node) {
+        if (node instanceof Number) {
+            return NUMBER;
+        } else if (node instanceof Variable) {
+            return VARIABLE;
+        } else if (node instanceof Add) {
+            return ADD;
+        } else if (node instanceof Sub) {
+            return SUB;
+        } else if (node instanceof Mul) {
+            return MUL;
+        } else if (node instanceof Div) {
+            return DIV;
+        }
+        throw new IllegalArgumentException("unknown expression type: " + node.getClass());
+    }
+
+    private static Expression leftOf(Expression node) {
+        return node instanceof BinaryExpression binary ? binary.getLeft() : null;
+    }
+
+    private static Expression rightOf(Expression node) {
+        return node instanceof BinaryExpression binary ? binary.getRight() : null;
+    }
+}
@@ -0,0 +1,146 @@
+package ru.nsu.lavitskaya;
+
+/**
+ * Splits the source text of an expression into tokens in a single left-to-right pass.
+ * The tokenizer keeps only the current token (its type, bounds and numeric value), so
+ * scanning does not allocate per character or per token; only identifiers and fractional
+ * numbers materialize a substring when they are requested.
+ */
+final class Tokenizer {
+    /**
+     * Kinds of tokens recognized in an expression.
+     */
+    enum Token {
+        NUMBER, IDENTIFIER, PLUS, MINUS, STAR, SLASH, LEFT_PAREN, RIGHT_PAREN, END
+    }
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final String source;
+    private final int length;
+    private int position;
+    private Token token;
+    private int tokenStart;
+    private int tokenEnd;
+    private double numberValue;
+
+    /**
+     * Creates a tokenizer positioned at the first token of the given source.
+     *
+     * @param source The text of the expression.
+     * @throws ExpressionParseException If the first token is malformed.
+     */
+    Tokenizer(String source) {
+        this.source = source;
+        this.length = source.length();
+        advance();
+    }
+
+    Token token() {
+        return token;
+    }
+
+    int start() {
+        return tokenStart;
+    }
+
+    /**
+     * Returns the text of the current token.
+     *
+     * @return The substring of the source covered by the current token.
+     */
+    String text() {
+        return source.substring(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Returns the value of the current token, which must be a number.
+     *
+     * @return The numeric value of the current token.
+     */
+    double numberValue() {
+        return numberValue;
+    }
+
+    /**
+     * Moves to the next token, skipping whitespace.
+     *
+     * @throws ExpressionParseException If the next token is malformed or unknown.
+     */
+    void advance() {
+        while (position < length && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+        tokenStart = position;
+        if (position == length) {
+            token = Token.END;
+            tokenEnd = position;
+            return;
+        }
+
+        char c = source.charAt(position);
+        if (isDigit(c)) {
+            scanNumber();
+        } else if (Character.isLetter(c) || c == '_') {
+            position++;
+            while (position < length && isIdentifierPart(source.charAt(position))) {
+                position++;
+            }
+            token = Token.IDENTIFIER;
+        } else {
+            token = switch (c) {
+                case '+' -> Token.PLUS;
+                case '-' -> Token.MINUS;
+                case '*' -> Token.STAR;
+                case '/' -> Token.SLASH;
+                case '(' -> Token.LEFT_PAREN;
+                case ')' -> Token.RIGHT_PAREN;
+                default -> throw new ExpressionParseException(
+                        "unexpected character '" + c + "'", position);
+            };
+            position++;
+        }
+        tokenEnd = position;
+    }
+
+    private void scanNumber() {
+        long integerPart = 0;
+        int digits = 0;
+        while (position < length && isDigit(source.charAt(position))) {
+            integerPart = integerPart * 10 + (source.charAt(position) - '0');
+            digits++;
+            position++;
+        }
+        boolean fractional = false;
+        if (position < length && source.charAt(position) == '.') {
+            fractional = true;
+            position++;
+            while (position < length && isDigit(source.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < length && (source.charAt(position) == '.'
+                || isIdentifierPart(source.charAt(position)))) {
+            throw new ExpressionParseException("malformed number", tokenStart);
+        }
+
+        token = Token.NUMBER;
+        if (!fractional && digits <= MAX_EXACT_DIGITS) {
+            numberValue = integerPart;
+        } else {
+            numberValue = Double.parseDouble(source.substring(tokenStart, position));
+        }
+    }
+
+    /**
+     * Checks for an ASCII digit. Other Unicode digits are not accepted in numbers, since
+     * {@link Double#parseDouble} does not understand them.
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
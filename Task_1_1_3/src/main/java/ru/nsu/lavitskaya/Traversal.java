@@ -0,0 +1,227 @@
+package ru.nsu.lavitskaya;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Iterative traversals of expression trees. Every walk keeps its pending nodes on an explicit,
+ * growable array stack instead of the call stack, so trees with hundreds of thousands of nested
+ * operators are processed without {@link StackOverflowError}. The stacks start small, so
+ * shallow trees pay only for a few short arrays.
+ */
+final class Traversal {
+    private static final int INITIAL_DEPTH = 16;
+
+    private Traversal() {
+    }
+
+    /**
+     * Combines the results computed for the operands of a binary node.
+     *
+     * @param <R> The type of the results.
+     */
+    @FunctionalInterface
+    interface Combiner<R> {
+        R combine(BinaryExpression node, R left, R right);
+    }
+
+    /**
+     * Computes a result for every node in post-order.
+     *
+     * @param root    The root of the tree.
+     * @param leaf    Computes the result for a number or a variable.
+     * @param combine Computes the result for a binary node from the results of its operands.
+     * @param <R>     The type of the results.
+     * @return The result computed for the root.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R postOrder(Expression root, Function<Expression, R> leaf, Combiner<R> combine) {
+        if (!(root instanceof BinaryExpression)) {
+            return leaf.apply(root);
+        }
+        BinaryExpression[] nodes = new BinaryExpression[INITIAL_DEPTH];
+        byte[] states = new byte[INITIAL_DEPTH];
+        Object[] results = new Object[INITIAL_DEPTH];
+        int top = 0;
+        int resultTop = 0;
+        nodes[top] = (BinaryExpression) root;
+        states[top++] = 0;
+
+        while (top > 0) {
+            BinaryExpression node = nodes[top - 1];
+            byte state = states[top - 1];
+            if (state == 2) {
+                top--;
+                R right = (R) results[--resultTop];
+                R left = (R) results[--resultTop];
+                results[resultTop++] = combine.combine(node, left, right);
+                continue;
+            }
+            states[top - 1] = (byte) (state + 1);
+            Expression operand = state == 0 ? node.getLeft() : node.getRight();
+            if (operand instanceof BinaryExpression binary) {
+                if (top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    states = Arrays.copyOf(states, top * 2);
+                }
+                nodes[top] = binary;
+                states[top++] = 0;
+            } else {
+                if (resultTop == results.length) {
+                    results = Arrays.copyOf(results, resultTop * 2);
+                }
+                results[resultTop++] = leaf.apply(operand);
+            }
+        }
+        return (R) results[0];
+    }
+
+    /**
+     * Evaluates a tree in post-order using a primitive stack of intermediate values.
+     *
+     * @param root The root of the tree.
+     * @param leaf Computes the value of a number or a variable.
+     * @return The value of the tree.
+     */
+    static double evaluate(Expression root, ToDoubleFunction<Expression> leaf) {
+        if (!(root instanceof BinaryExpression)) {
+            return leaf.applyAsDouble(root);
+        }
+        BinaryExpression[] nodes = new BinaryExpression[INITIAL_DEPTH];
+        byte[] states = new byte[INITIAL_DEPTH];
+        double[] values = new double[INITIAL_DEPTH];
+        int top = 0;
+        int valueTop = 0;
+        nodes[top] = (BinaryExpression) root;
+        states[top++] = 0;
+
+        while (top > 0) {
+            BinaryExpression node = nodes[top - 1];
+            byte state = states[top - 1];
+            if (state == 2) {
+                top--;
+                double right = values[--valueTop];
+                double left = values[--valueTop];
+                values[valueTop++] = node.apply(left, right);
+                continue;
+            }
+            states[top - 1] = (byte) (state + 1);
+            Expression operand = state == 0 ? node.getLeft() : node.getRight();
+            if (operand instanceof BinaryExpression binary) {
+                if (top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    states = Arrays.copyOf(states, top * 2);
+                }
+                nodes[top] = binary;
+                states[top++] = 0;
+            } else {
+                if (valueTop == values.length) {
+                    values = Arrays.copyOf(values, valueTop * 2);
+                }
+                values[valueTop++] = leaf.applyAsDouble(operand);
+            }
+        }
+        return values[0];
+    }
+
+    /**
+     * Writes the text of a tree, emitting the opening parenthesis, the left operand, the
+     * operator, the right operand and the closing parenthesis of every binary node in turn.
+     *
+     * @param root The root of the tree.
+     * @param out  The destination for the text.
+     * @throws IOException If the destination fails to accept the text.
+     */
+    static void write(Expression root, Appendable out) throws IOException {
+        if (!(root instanceof BinaryExpression)) {
+            root.writeTo(out);
+            return;
+        }
+        BinaryExpression[] nodes = new BinaryExpression[INITIAL_DEPTH];
+        byte[] states = new byte[INITIAL_DEPTH];
+        int top = 0;
+        nodes[top] = (BinaryExpression) root;
+        states[top++] = 0;
+
+        while (top > 0) {
+            BinaryExpression node = nodes[top - 1];
+            byte state = states[top - 1];
+            Expression operand;
+            if (state == 0) {
+                out.append('(');
+                states[top - 1] = 1;
+                if (node.omitsLeft()) {
+                    continue;
+                }
+                operand = node.getLeft();
+            } else if (state == 1) {
+                out.append(node.infix());
+                states[top - 1] = 2;
+                operand = node.getRight();
+            } else {
+                out.append(')');
+                top--;
+                continue;
+            }
+            if (operand instanceof BinaryExpression binary) {
+                if (top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    states = Arrays.copyOf(states, top * 2);
+                }
+                nodes[top] = binary;
+                states[top++] = 0;
+            } else {
+                operand.writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * Checks whether two trees are printed as the same text without printing them. Trees are
+     * compared node by node and the walk stops at the first difference, so unequal trees are
+     * usually rejected after a few steps. Subtrees shared by both trees are skipped.
+     *
+     * @param first  The first tree.
+     * @param second The second tree.
+     * @return true if both trees have the same text, false otherwise.
+     */
+    static boolean samePrinted(Expression first, Expression second) {
+        Expression[] pending = new Expression[INITIAL_DEPTH * 2];
+        int top = 0;
+        pending[top++] = first;
+        pending[top++] = second;
+
+        while (top > 0) {
+            Expression b = pending[--top];
+            Expression a = pending[--top];
+            if (a == b) {
+                continue;
+            }
+            if (!(a instanceof BinaryExpression binaryA)
+                    || !(b instanceof BinaryExpression binaryB)) {
+                if (a instanceof BinaryExpression || b instanceof BinaryExpression) {
+                    return false;
+                }
+                if (!a.toString().equals(b.toString())) {
+                    return false;
+                }
+                continue;
+            }
+            if (a.getClass() != b.getClass() || binaryA.omitsLeft() != binaryB.omitsLeft()) {
+                return false;
+            }
+            if (top + 4 > pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[top++] = binaryA.getRight();
+            pending[top++] = binaryB.getRight();
+            if (!binaryA.omitsLeft()) {
+                pending[top++] = binaryA.getLeft();
+                pending[top++] = binaryB.getLeft();
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.nsu.lavitskaya;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -8,6 +9,7 @@ import java.util.Map;
  */
 public class Variable extends Expression {
     private final String name;
+    private Slot slot;
 
     /**
      * Creates a new variable object with the specified name.
@@ -18,6 +20,10 @@ public class Variable extends Expression {
         this.name = name;
     }
 
+    public String getName() {
+        return name;
+    }
+
     /**
      * Returns a string representation of the variable.
      *
@@ -28,6 +34,17 @@ public class Variable extends Expression {
         return name;
     }
 
+    /**
+     * Writes the name of the variable.
+     *
+     * @param out The destination for the text.
+     * @throws IOException If the destination fails to accept the text.
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        out.append(name);
+    }
+
     /**
      * Evaluates the value of the variable using the provided set of variables.
      *
@@ -44,6 +61,45 @@ public class Variable extends Expression {
         }
     }
 
+    /**
+     * Evaluates the value of the variable using the provided bindings.
+     * The slot of the variable is looked up by name only when the bindings have a different
+     * layout than the previous ones; otherwise the value is read straight from the slot.
+     *
+     * @param bindings The values of the variables.
+     * @return The value of the variable.
+     * @throws IllegalArgumentException If the value of the variable is not set.
+     */
+    @Override
+    public double eval(Bindings bindings) {
+        Slot cached = slot;
+        if (cached == null || cached.layout != bindings.layout()) {
+            int index = bindings.slotOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("value not set for variable '" + name + "'.");
+            }
+            cached = new Slot(bindings.layout(), index);
+            slot = cached;
+        }
+        return bindings.get(cached.index);
+    }
+
+    /**
+     * Returns the interval of values of the variable in the given box.
+     *
+     * @param box The interval of values of every variable.
+     * @return The interval of the variable.
+     * @throws IllegalArgumentException If the variable has no interval in the box.
+     */
+    @Override
+    public Interval bounds(Map<String, Interval> box) {
+        Interval interval = box.get(name);
+        if (interval == null) {
+            throw new IllegalArgumentException("value not set for variable '" + name + "'.");
+        }
+        return interval;
+    }
+
     /**
      * Throws an exception, as the value of the variable must be set in a specific context.
      *
@@ -76,4 +132,18 @@ public class Variable extends Expression {
     public Expression simplify() {
         return new Variable(name);
     }
+
+    /**
+     * The slot of the variable in one bindings layout. Instances are immutable, so threads
+     * evaluating the same tree may replace the cached slot without synchronization.
+     */
+    private static final class Slot {
+        private final Object layout;
+        private final int index;
+
+        private Slot(Object layout, int index) {
+            this.layout = layout;
+            this.index = index;
+        }
+    }
 }
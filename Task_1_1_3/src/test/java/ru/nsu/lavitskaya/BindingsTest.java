@@ -0,0 +1,88 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link Bindings} class and evaluation of expressions with bindings.
+ */
+class BindingsTest {
+
+    @Test
+    void testOfAndGet() {
+        Map<String, Double> values = new HashMap<>();
+        values.put("x", 2.0);
+        values.put("y", null);
+        Bindings bindings = Bindings.of(values);
+        assertEquals(2.0, bindings.get("x"));
+        assertEquals(2.0, bindings.get(bindings.slotOf("x")));
+        assertFalse(bindings.contains("y"));
+        assertEquals(-1, bindings.slotOf("y"));
+        assertEquals(1, bindings.size());
+    }
+
+    @Test
+    void testWithDoesNotModifyOriginal() {
+        Bindings original = Bindings.empty().with("x", 1);
+        Bindings changed = original.with("x", 5).with("y", 3);
+        assertEquals(1.0, original.get("x"));
+        assertFalse(original.contains("y"));
+        assertEquals(5.0, changed.get("x"));
+        assertEquals(3.0, changed.get("y"));
+    }
+
+    @Test
+    void testUnboundVariable() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> Expression.create("x + y").eval(Bindings.empty().with("x", 1)));
+        assertTrue(exception.getMessage().contains("value not set for variable 'y'."));
+    }
+
+    @Test
+    void testSlotsFollowTheLayout() {
+        Expression expression = Expression.create("x - y * 10");
+        Bindings first = Bindings.empty().with("x", 1).with("y", 2);
+        Bindings second = Bindings.empty().with("y", 5).with("x", 7);
+        assertEquals(-19.0, expression.eval(first));
+        assertEquals(-43.0, expression.eval(second));
+        assertEquals(-10.0, expression.eval(first.with("x", 10)));
+        assertEquals(-19.0, expression.eval(first));
+        assertThrows(IllegalArgumentException.class,
+                () -> expression.eval(Bindings.empty().with("x", 1)));
+        assertEquals(-43.0, expression.eval(second));
+    }
+
+    @Test
+    void testExpressionVariables() {
+        Expression expression = Expression.create("x * (y + x) / 2");
+        assertEquals(Set.of("x", "y"), expression.getVariables());
+        assertEquals(Set.of(), Expression.create("2 + 3").getVariables());
+    }
+
+    @Test
+    void testVariablesAreNotShared() {
+        Expression.create("a + 1");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> Expression.create("b + 1").eval("a=2"));
+        assertTrue(exception.getMessage().contains("variable 'a' doesn't exist."));
+    }
+
+    @Test
+    void testParallelEvaluation() {
+        Expression expression = Expression.create("x * x + y");
+        double[] results = IntStream.range(0, 10_000).parallel()
+                .mapToDouble(i -> expression.eval(Bindings.empty().with("x", i).with("y", 1)))
+                .toArray();
+        for (int i = 0; i < results.length; i++) {
+            assertEquals((double) i * i + 1, results[i]);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link ExpressionCodec} class, checking that expressions survive a
+ * round trip through the binary format.
+ */
+class ExpressionCodecTest {
+
+    private static byte[] encode(Expression expression) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpressionCodec.writeTo(expression, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Expression expression = Expression.create("-(x + 2.5) * y / (3 - zeta)");
+        Expression read = ExpressionCodec.readFrom(ByteBuffer.wrap(encode(expression)));
+        assertEquals(expression.toString(), read.toString());
+        assertEquals(expression.eval("x=1; y=2; zeta=4"), read.eval("x=1; y=2; zeta=4"));
+    }
+
+    @Test
+    void testSingleNode() throws IOException {
+        assertEquals("42", ExpressionCodec.readFrom(ByteBuffer.wrap(encode(new Number(42))))
+                .toString());
+        assertEquals("x", ExpressionCodec.readFrom(ByteBuffer.wrap(encode(new Variable("x"))))
+                .toString());
+    }
+
+    @Test
+    void testSharingIsPreserved() throws IOException {
+        Expression shared = Expression.create("x + 1");
+        Mul square = new Mul(shared, shared);
+        Mul read = (Mul) ExpressionCodec.readFrom(ByteBuffer.wrap(encode(square)));
+        assertSame(read.getLeft(), read.getRight());
+    }
+
+    @Test
+    void testSharedSubtreesAreStoredOnce() throws IOException {
+        Expression expression = new Variable("x");
+        for (int i = 0; i < 40; i++) {
+            expression = new Add(expression, expression);
+        }
+        byte[] encoded = encode(expression);
+        assertTrue(encoded.length < 200);
+        Expression read = ExpressionCodec.readFrom(ByteBuffer.wrap(encoded));
+        assertEquals(41, read.tape().size);
+        assertEquals(Math.pow(2, 40), read.gradient(Bindings.empty().with("x", 1)).getValue());
+    }
+
+    @Test
+    void testDerivativeRoundTrip() throws IOException {
+        Expression expression = Expression.create("x * x * x * x * x * x");
+        for (int i = 0; i < 4; i++) {
+            expression = expression.derivative("x");
+        }
+        byte[] encoded = encode(expression);
+        assertTrue(encoded.length < expression.toString().length());
+        Expression read = ExpressionCodec.readFrom(ByteBuffer.wrap(encoded));
+        assertEquals(expression.eval("x=1.5"), read.eval("x=1.5"));
+    }
+
+    @Test
+    void testConsecutiveExpressions() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpressionCodec.writeTo(Expression.create("a + b"), out);
+        ExpressionCodec.writeTo(Expression.create("c * 2"), out);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        assertEquals("(a+b)", ExpressionCodec.readFrom(buffer).toString());
+        assertEquals("(c*2)", ExpressionCodec.readFrom(buffer).toString());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void testLittleEndianBuffer() throws IOException {
+        Expression expression = new Sub(new Add(new Mul(new Variable("x"), new Number(2.5)),
+                new Number(1e300)), new Number(0.1));
+        ByteBuffer buffer = ByteBuffer.wrap(encode(expression)).order(ByteOrder.LITTLE_ENDIAN);
+        Expression read = ExpressionCodec.readFrom(buffer);
+        assertEquals(expression.toString(), read.toString());
+        assertEquals(expression.eval("x=3"), read.eval("x=3"));
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void testDeepExpression() throws IOException {
+        Expression expression = new Variable("x");
+        for (int i = 0; i < 100_000; i++) {
+            expression = new Add(expression, new Number(i % 7));
+        }
+        Expression read = ExpressionCodec.readFrom(ByteBuffer.wrap(encode(expression)));
+        assertEquals(expression.eval("x=1"), read.eval("x=1"));
+    }
+
+    @Test
+    void testMappedFile() throws IOException {
+        Expression expression = Expression.create("(x - y) / (x + y)");
+        Path file = Files.createTempFile("expression", ".bin");
+        try {
+            Files.write(file, encode(expression));
+            assertEquals(expression.toString(), ExpressionCodec.readFrom(file).toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testMalformedData() throws IOException {
+        byte[] encoded = encode(Expression.create("x + 1"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ExpressionCodec.readFrom(ByteBuffer.wrap(encoded, 0, encoded.length - 1)));
+        assertTrue(exception.getMessage().contains("unexpected end of data"));
+
+        encoded[0] = 'X';
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> ExpressionCodec.readFrom(ByteBuffer.wrap(encoded)));
+        assertTrue(exception.getMessage().contains("bad magic number"));
+    }
+}
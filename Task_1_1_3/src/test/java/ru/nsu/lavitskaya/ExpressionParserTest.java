@@ -0,0 +1,131 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link ExpressionParser} class, checking operator associativity,
+ * error positions and the parse cache.
+ */
+class ExpressionParserTest {
+
+    @Test
+    void testLeftAssociativity() {
+        ExpressionParser parser = new ExpressionParser();
+        assertEquals(-4.0, parser.parse("1 - 2 - 3").eval());
+        assertEquals(1.0, parser.parse("8 / 4 / 2").eval());
+    }
+
+    @Test
+    void testUnarySign() {
+        ExpressionParser parser = new ExpressionParser();
+        assertEquals(1.0, parser.parse("-2 + 3").eval());
+        assertEquals(-6.0, parser.parse("-2 * 3").eval());
+        assertEquals("(-2)", parser.parse("-2").toString());
+    }
+
+    @Test
+    void testSignAfterMultiplicativeOperator() {
+        ExpressionParser parser = new ExpressionParser();
+        assertEquals(2.0 / -3 * 4, parser.parse("2/-3*4").eval(), 1e-12);
+        assertEquals(-2.0, parser.parse("8/-2/2").eval());
+        assertEquals(6.0, parser.parse("-2*-3").eval());
+        assertEquals(-2.0, parser.parse("8/-(2+2)").eval());
+    }
+
+    @Test
+    void testNumbersAndIdentifiers() {
+        ExpressionParser parser = new ExpressionParser();
+        assertEquals(3.75, parser.parse("1.25 + 2.5").eval());
+        assertEquals("(x_1*var2)", parser.parse("x_1 * var2").toString());
+    }
+
+    @Test
+    void testErrorPositions() {
+        ExpressionParser parser = new ExpressionParser();
+        ExpressionParseException exception = assertThrows(ExpressionParseException.class,
+                () -> parser.parse("(2 + 2"));
+        assertEquals(6, exception.getPosition());
+        assertTrue(exception.getMessage().contains("invalid expression."));
+
+        exception = assertThrows(ExpressionParseException.class, () -> parser.parse("2 + * 3"));
+        assertEquals(4, exception.getPosition());
+
+        exception = assertThrows(ExpressionParseException.class, () -> parser.parse("2 $ 3"));
+        assertEquals(2, exception.getPosition());
+
+        exception = assertThrows(ExpressionParseException.class, () -> parser.parse("1.2.3"));
+        assertEquals(0, exception.getPosition());
+
+        exception = assertThrows(ExpressionParseException.class, () -> parser.parse("2 3"));
+        assertEquals(2, exception.getPosition());
+    }
+
+    @Test
+    void testNonAsciiDigits() {
+        ExpressionParser parser = new ExpressionParser();
+        ExpressionParseException exception = assertThrows(ExpressionParseException.class,
+                () -> parser.parse("\u0661.\u0665"));
+        assertEquals(0, exception.getPosition());
+
+        exception = assertThrows(ExpressionParseException.class,
+                () -> parser.parse("2 + 1.\u0665"));
+        assertEquals(4, exception.getPosition());
+
+        exception = assertThrows(ExpressionParseException.class,
+                () -> parser.parse("2 * \uff13"));
+        assertEquals(4, exception.getPosition());
+    }
+
+    @Test
+    void testLongInput() {
+        int terms = 100_000;
+        StringBuilder builder = new StringBuilder("0");
+        for (int i = 0; i < terms; i++) {
+            builder.append("+1");
+        }
+        Expression expression = new ExpressionParser().parse(builder.toString());
+        assertEquals(terms, expression.eval());
+    }
+
+    @Test
+    void testDeeplyNestedParentheses() {
+        int depth = 100_000;
+        String source = "(".repeat(depth) + "x" + "+1)".repeat(depth);
+        Expression expression = new ExpressionParser().parse(source);
+        assertEquals(depth + 1.0, expression.eval("x=1"));
+        assertEquals(source, expression.toString());
+    }
+
+    @Test
+    void testCacheReturnsSameTree() {
+        ExpressionParser parser = new ExpressionParser(2);
+        Expression first = parser.parse("x + 1");
+        assertSame(first, parser.parse("x + 1"));
+        assertEquals(1, parser.cacheSize());
+    }
+
+    @Test
+    void testCacheEvictsLeastRecentlyUsed() {
+        ExpressionParser parser = new ExpressionParser(2);
+        Expression first = parser.parse("1");
+        Expression second = parser.parse("2");
+        parser.parse("1");
+        parser.parse("3");
+        assertEquals(2, parser.cacheSize());
+        assertSame(first, parser.parse("1"));
+        assertNotSame(second, parser.parse("2"));
+    }
+
+    @Test
+    void testNoCache() {
+        ExpressionParser parser = new ExpressionParser();
+        assertNotSame(parser.parse("x"), parser.parse("x"));
+        assertEquals(0, parser.cacheSize());
+    }
+}
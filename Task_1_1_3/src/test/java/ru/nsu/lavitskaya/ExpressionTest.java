@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -149,4 +152,74 @@ class ExpressionTest {
         assertEquals("0", expression.simplify().toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testWriteTo() throws IOException {
+        Expression expression = Expression.create("-(x + 2) * y / (3 - z)");
+        StringWriter writer = new StringWriter();
+        expression.writeTo(writer);
+        assertEquals("(((-(x+2))*y)/(3-z))", writer.toString());
+        assertEquals(writer.toString(), expression.toString());
+    }
+
+    @Test
+    void testToStringOfNestedAdds() {
+        Expression expression = new Number(1);
+        for (int i = 0; i < 2_000; i++) {
+            expression = new Add(expression, new Variable("x"));
+        }
+        String text = expression.toString();
+        assertEquals(2_000 * 4 + 1, text.length());
+        assertTrue(text.startsWith("(".repeat(2_000) + "1+x)+x)"));
+    }
+
+    @Test
+    void testDeepExpression() {
+        int depth = 100_000;
+        Expression expression = new Variable("x");
+        for (int i = 0; i < depth; i++) {
+            expression = new Sub(new Add(expression, new Variable("x")), new Number(1));
+        }
+        assertEquals(3.0 + 2.0 * depth, expression.eval("x=3"));
+        assertEquals(depth + 1.0, expression.derivative("x").eval());
+        assertEquals(expression.toString(), expression.simplify().toString());
+        assertEquals(expression.toString(), Expression.create(expression.toString()).toString());
+        assertEquals(Set.of("x"), expression.getVariables());
+    }
+
+    @Test
+    void testVisitor() {
+        Expression expression = Expression.create("(x + 2) * y / (3 - z)");
+        int nodes = expression.accept(new ExpressionVisitor<Integer>() {
+            @Override
+            public Integer visitNumber(Number number) {
+                return 1;
+            }
+
+            @Override
+            public Integer visitVariable(Variable variable) {
+                return 1;
+            }
+
+            @Override
+            public Integer visitAdd(Add add, Integer left, Integer right) {
+                return left + right + 1;
+            }
+
+            @Override
+            public Integer visitSub(Sub sub, Integer left, Integer right) {
+                return left + right + 1;
+            }
+
+            @Override
+            public Integer visitMul(Mul mul, Integer left, Integer right) {
+                return left + right + 1;
+            }
+
+            @Override
+            public Integer visitDiv(Div div, Integer left, Integer right) {
+                return left + right + 1;
+            }
+        });
+        assertEquals(9, nodes);
+    }
+}
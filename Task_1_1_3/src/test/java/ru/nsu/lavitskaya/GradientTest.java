@@ -0,0 +1,67 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Expression#gradient(Bindings)}, comparing reverse-mode
+ * differentiation with symbolic derivatives.
+ */
+class GradientTest {
+
+    @Test
+    void testValueAndPartials() {
+        Expression expression = Expression.create("x * y + x / y - 3");
+        Bindings bindings = Bindings.empty().with("x", 2).with("y", 4);
+        Gradient gradient = expression.gradient(bindings);
+        assertEquals(5.5, gradient.getValue(), 1e-12);
+        assertEquals(4.25, gradient.getPartial("x"), 1e-12);
+        assertEquals(1.875, gradient.getPartial("y"), 1e-12);
+        assertEquals(0.0, gradient.getPartial("z"));
+        assertEquals(2, gradient.getPartials().size());
+    }
+
+    @Test
+    void testMatchesSymbolicDerivative() {
+        Expression expression = Expression.create("(a - b) * (a + c) / (b * c + 1) - a * a");
+        Bindings bindings = Bindings.empty().with("a", 1.5).with("b", -2).with("c", 0.25);
+        Gradient gradient = expression.gradient(bindings);
+        for (String var : expression.getVariables()) {
+            assertEquals(expression.derivative(var).eval(bindings), gradient.getPartial(var),
+                    1e-12);
+        }
+    }
+
+    @Test
+    void testRepeatedVariable() {
+        Expression expression = Expression.create("x * x * x");
+        Gradient gradient = expression.gradient(Bindings.empty().with("x", 3));
+        assertEquals(27.0, gradient.getValue());
+        assertEquals(27.0, gradient.getPartial("x"));
+    }
+
+    @Test
+    void testManyVariables() {
+        StringBuilder source = new StringBuilder("0");
+        for (int i = 0; i < 300; i++) {
+            source.append(" + ").append(i).append(" * v").append(i).append(" * v").append(i);
+        }
+        Expression expression = Expression.create(source.toString());
+        Bindings bindings = Bindings.empty();
+        for (int i = 0; i < 300; i++) {
+            bindings = bindings.with("v" + i, 1);
+        }
+        Gradient gradient = expression.gradient(bindings);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(2.0 * i, gradient.getPartial("v" + i));
+        }
+    }
+
+    @Test
+    void testUnboundVariable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Expression.create("x + y").gradient(Bindings.empty().with("x", 1)));
+    }
+}
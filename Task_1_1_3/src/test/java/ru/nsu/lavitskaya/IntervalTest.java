@@ -0,0 +1,135 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link Interval} class and for the interval evaluation of expressions.
+ */
+class IntervalTest {
+
+    @Test
+    void testArithmetic() {
+        Interval a = Interval.of(1, 2);
+        Interval b = Interval.of(-3, 4);
+        Interval sum = a.add(b);
+        assertTrue(sum.getLow() <= -2 && sum.getLow() > -2.0001);
+        assertTrue(sum.getHigh() >= 6 && sum.getHigh() < 6.0001);
+        Interval difference = a.sub(b);
+        assertTrue(difference.contains(-3) && difference.contains(5));
+        assertFalse(difference.contains(5.001));
+        Interval product = a.mul(b);
+        assertTrue(product.contains(-6) && product.contains(8));
+        assertFalse(product.contains(-6.001) || product.contains(8.001));
+        Interval quotient = b.div(Interval.of(2, 4));
+        assertTrue(quotient.contains(-1.5) && quotient.contains(2));
+        assertFalse(quotient.contains(-1.501) || quotient.contains(2.001));
+    }
+
+    @Test
+    void testOutwardRounding() {
+        Interval sum = Interval.point(0.1).add(Interval.point(0.2));
+        assertTrue(sum.contains(0.1 + 0.2));
+        assertTrue(sum.getLow() < sum.getHigh());
+    }
+
+    @Test
+    void testDivisionByIntervalContainingZero() {
+        Interval quotient = Interval.of(1, 2).div(Interval.of(-1, 1));
+        assertEquals(Double.NEGATIVE_INFINITY, quotient.getLow());
+        assertEquals(Double.POSITIVE_INFINITY, quotient.getHigh());
+        assertEquals(Interval.whole(), Interval.of(-2, -1).div(Interval.of(-3, 4)));
+        assertEquals(Interval.whole(), Interval.of(0, 1).div(Interval.of(0, 1)));
+        assertEquals(Interval.whole(), Interval.of(-1, 1).div(Interval.of(-1, 0)));
+    }
+
+    @Test
+    void testDivisionByZeroBound() {
+        Interval quotient = Interval.of(1, 2).div(Interval.of(0, 3));
+        assertTrue(quotient.contains(1.0 / 3) && !quotient.contains(0.333));
+        assertEquals(Double.POSITIVE_INFINITY, quotient.getHigh());
+
+        quotient = Interval.of(1, 2).div(Interval.of(-4, 0));
+        assertEquals(Double.NEGATIVE_INFINITY, quotient.getLow());
+        assertTrue(quotient.contains(-0.25) && !quotient.contains(-0.249));
+
+        quotient = Interval.of(-2, -1).div(Interval.of(0, 4));
+        assertEquals(Double.NEGATIVE_INFINITY, quotient.getLow());
+        assertTrue(quotient.contains(-0.25) && !quotient.contains(-0.249));
+
+        quotient = Interval.of(-2, -1).div(Interval.of(-4, 0));
+        assertTrue(quotient.contains(0.25) && !quotient.contains(0.249));
+        assertEquals(Double.POSITIVE_INFINITY, quotient.getHigh());
+    }
+
+    @Test
+    void testDivisionByZero() {
+        Interval quotient = Interval.of(1, 2).div(Interval.point(0));
+        assertTrue(quotient.isEmpty());
+        assertFalse(quotient.contains(0) || quotient.contains(Double.POSITIVE_INFINITY));
+        assertFalse(quotient.intersects(Interval.whole()));
+        assertEquals("[]", quotient.toString());
+        assertTrue(Interval.point(0).div(Interval.point(0)).isEmpty());
+        assertTrue(quotient.add(Interval.point(1)).isEmpty());
+        assertTrue(Interval.point(0).mul(quotient).isEmpty());
+        assertTrue(quotient.div(Interval.of(1, 2)).isEmpty());
+        assertFalse(Interval.whole().isEmpty());
+        assertTrue(Expression.create("x + 1 / y")
+                .bounds(Map.of("x", Interval.of(-1, 1), "y", Interval.point(0))).isEmpty());
+    }
+
+    @Test
+    void testInfiniteBounds() {
+        Interval product = Interval.point(0).mul(Interval.whole());
+        assertEquals(0.0, product.width(), 1e-300);
+        Interval quotient = Interval.of(1, Double.POSITIVE_INFINITY)
+                .div(Interval.of(1, Double.POSITIVE_INFINITY));
+        assertTrue(quotient.contains(1e-300) && quotient.contains(1e300));
+    }
+
+    @Test
+    void testInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> Interval.of(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> Interval.of(Double.NaN, 1));
+    }
+
+    @Test
+    void testBoundsContainPointValues() {
+        Expression expression = Expression.create("(x * y - 3) / (y * y + 1) + x / (y + 5)");
+        Map<String, Interval> box = Map.of("x", Interval.of(-2, 3), "y", Interval.of(0.5, 2));
+        Interval bounds = expression.bounds(box);
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            double x = -2 + 5 * random.nextDouble();
+            double y = 0.5 + 1.5 * random.nextDouble();
+            assertTrue(bounds.contains(expression.eval(Map.of("x", x, "y", y))));
+        }
+    }
+
+    @Test
+    void testScreening() {
+        Expression expression = Expression.create("x * x + y * y - 1");
+        Interval far = expression.bounds(Map.of("x", Interval.of(2, 3),
+                "y", Interval.of(-1, 1)));
+        assertFalse(far.contains(0));
+        Interval near = expression.bounds(Map.of("x", Interval.of(0, 1),
+                "y", Interval.of(0, 1)));
+        assertTrue(near.contains(0));
+    }
+
+    @Test
+    void testDivisionInExpression() {
+        Expression expression = Expression.create("1 / x");
+        Interval bounds = expression.bounds(Map.of("x", Interval.of(-1, 1)));
+        assertEquals(Interval.whole(), bounds);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> expression.bounds(Map.of()));
+        assertTrue(exception.getMessage().contains("value not set for variable 'x'."));
+    }
+}
@@ -0,0 +1,90 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link LiveExpression} class, checking that incremental
+ * re-evaluation matches evaluation from scratch.
+ */
+class LiveExpressionTest {
+
+    @Test
+    void testGetAfterSet() {
+        LiveExpression live = new LiveExpression(Expression.create("x * y + x / 2"));
+        live.set("x", 4);
+        live.set("y", 3);
+        assertEquals(14.0, live.get());
+        live.set("y", 10);
+        assertEquals(42.0, live.get());
+        live.set("x", 2);
+        assertEquals(21.0, live.get());
+    }
+
+    @Test
+    void testInitialBindings() {
+        Expression expression = Expression.create("a - b");
+        LiveExpression live = new LiveExpression(expression,
+                Bindings.empty().with("a", 5).with("b", 1).with("c", 7));
+        assertEquals(4.0, live.get());
+        live.set("b", 6);
+        assertEquals(-1.0, live.get());
+    }
+
+    @Test
+    void testUnsetVariable() {
+        LiveExpression live = new LiveExpression(Expression.create("x + y"));
+        live.set("x", 1);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                live::get);
+        assertTrue(exception.getMessage().contains("value not set for variable 'y'."));
+        live.set("y", 2);
+        assertEquals(3.0, live.get());
+    }
+
+    @Test
+    void testUnknownVariable() {
+        LiveExpression live = new LiveExpression(Expression.create("x + 1"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> live.set("z", 1));
+        assertTrue(exception.getMessage().contains("variable 'z' doesn't exist."));
+    }
+
+    @Test
+    void testSharedSubtrees() {
+        Expression expression = Expression.create("x * x * y").derivative("x");
+        LiveExpression live = new LiveExpression(expression);
+        live.set("x", 3);
+        live.set("y", 2);
+        assertEquals(expression.eval(Bindings.empty().with("x", 3).with("y", 2)), live.get());
+        live.set("x", -1);
+        assertEquals(expression.eval(Bindings.empty().with("x", -1).with("y", 2)), live.get());
+    }
+
+    @Test
+    void testMatchesFullEvaluation() {
+        StringBuilder source = new StringBuilder("0");
+        for (int i = 0; i < 20; i++) {
+            source.append(" + v").append(i).append(" * (v").append((i + 1) % 20).append(" - 1)");
+        }
+        Expression expression = Expression.create(source.toString());
+        LiveExpression live = new LiveExpression(expression);
+        Bindings bindings = Bindings.empty();
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            bindings = bindings.with("v" + i, i);
+            live.set("v" + i, i);
+        }
+        for (int step = 0; step < 200; step++) {
+            String name = "v" + random.nextInt(20);
+            double value = random.nextInt(100) - 50;
+            bindings = bindings.with(name, value);
+            live.set(name, value);
+            assertEquals(expression.eval(bindings), live.get());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.nsu.lavitskaya;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link Solver} class, checking Newton, secant and bracketing solves.
+ */
+class SolverTest {
+
+    @Test
+    void testNewton() {
+        Solver solver = new Solver(Expression.create("x * x - 2"), "x");
+        assertEquals(Math.sqrt(2), solver.newton(1, Bindings.empty()), 1e-12);
+        assertEquals(-Math.sqrt(2), solver.newton(-5, Bindings.empty()), 1e-12);
+    }
+
+    @Test
+    void testParameters() {
+        Solver solver = new Solver(Expression.create("x * x * x - a"), "x");
+        assertEquals(3.0, solver.newton(1, Bindings.empty().with("a", 27)), 1e-12);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> solver.newton(1, Bindings.empty()));
+        assertTrue(exception.getMessage().contains("value not set for variable 'a'."));
+    }
+
+    @Test
+    void testDerivativeIsSimplified() {
+        Solver solver = new Solver(Expression.create("3 * x + 1"), "x");
+        assertEquals("3", solver.getDerivative().toString());
+        assertEquals(-1.0 / 3, solver.newton(10, Bindings.empty()), 1e-12);
+    }
+
+    @Test
+    void testSecantFallback() {
+        Solver solver = new Solver(Expression.create("x * x - 4"), "x");
+        assertEquals(2.0, Math.abs(solver.newton(0, Bindings.empty())), 1e-12);
+    }
+
+    @Test
+    void testNoRoot() {
+        Solver solver = new Solver(Expression.create("x * x + 1"), "x").withMaxIterations(50);
+        assertThrows(ArithmeticException.class, () -> solver.newton(0.5, Bindings.empty()));
+    }
+
+    @Test
+    void testBracket() {
+        Solver solver = new Solver(Expression.create("x * x * x - x - 2"), "x");
+        double root = solver.bracket(2, 1, Bindings.empty());
+        assertEquals(0.0, root * root * root - root - 2, 1e-12);
+        assertEquals(root, solver.bracket(1, 2, Bindings.empty()), 1e-12);
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.bracket(-1, 0, Bindings.empty()));
+    }
+
+    @Test
+    void testBracketWhereNewtonFails() {
+        Solver solver = new Solver(Expression.create("x / (x * x + 1) - 0.25"), "x");
+        double root = solver.bracket(0, 1, Bindings.empty());
+        assertEquals(2 - Math.sqrt(3), root, 1e-12);
+    }
+
+    @Test
+    void testBatches() {
+        Solver solver = new Solver(Expression.create("x * x - a"), "x");
+        double[] starts = new double[1_000];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = i % 2 == 0 ? i + 1 : -i;
+        }
+        double[] roots = solver.newton(starts, Bindings.empty().with("a", 16));
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(Math.signum(starts[i]) * 4, roots[i], 1e-12);
+        }
+
+        Bindings[] parameters = new Bindings[1_000];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = Bindings.empty().with("a", i);
+        }
+        roots = solver.newton(1, parameters);
+        for (int i = 0; i < parameters.length; i++) {
+            assertEquals(Math.sqrt(i), roots[i], 1e-9);
+        }
+    }
+
+    @Test
+    void testBatchMarksFailures() {
+        Solver solver = new Solver(Expression.create("x * x + a"), "x").withMaxIterations(20);
+        double[] roots = solver.newton(1, new Bindings[] {
+            Bindings.empty().with("a", -9), Bindings.empty().with("a", 9)
+        });
+        assertEquals(3.0, roots[0], 1e-12);
+        assertTrue(Double.isNaN(roots[1]));
+    }
+}
@@ -0,0 +1,260 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Throughput benchmarks for the basic operations of the three main graph representations on
+ * several graph shapes and sizes, where the size is the number of vertices. Every generated
+ * graph is acyclic, since all edges go from a smaller vertex to a larger one, so it can also
+ * be sorted topologically. Run with {@code ./gradlew jmh}; the gc profiler configured in the
+ * build reports the allocation per operation next to the throughput.
+ *
+ * <p>{@link #addEdge()} builds the whole graph from scratch, so its allocation per operation
+ * is the memory footprint of the representation plus the garbage left by growing it.
+ * {@link #removeVertex(Scratch)} gets a freshly built graph before every invocation, outside
+ * the measured time.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GraphBenchmark {
+
+    /**
+     * The graph representations under test.
+     */
+    public enum Representation {
+        ADJACENCY_LIST {
+            @Override
+            Graph<Integer> create() {
+                return new AdjacencyListGraph<>();
+            }
+        },
+        ADJACENCY_MATRIX {
+            @Override
+            Graph<Integer> create() {
+                return new AdjacencyMatrixGraph<>();
+            }
+        },
+        INCIDENCE_MATRIX {
+            @Override
+            Graph<Integer> create() {
+                return new IncidenceMatrixGraph<>();
+            }
+        };
+
+        abstract Graph<Integer> create();
+    }
+
+    /**
+     * The shapes of the generated graphs. Edges are returned as pairs of vertex numbers in
+     * one array: the source of edge {@code i} at {@code 2 * i} and its target at
+     * {@code 2 * i + 1}.
+     */
+    public enum Shape {
+        /**
+         * An Erdős–Rényi graph with four times as many edges as vertices, chosen uniformly.
+         */
+        RANDOM {
+            @Override
+            int[] edges(int size, Random random) {
+                int[] edges = new int[2 * 4 * size];
+                for (int i = 0; i < edges.length; i += 2) {
+                    int u = random.nextInt(size);
+                    int v = random.nextInt(size - 1);
+                    v = v < u ? v : v + 1;
+                    edges[i] = Math.min(u, v);
+                    edges[i + 1] = Math.max(u, v);
+                }
+                return edges;
+            }
+        },
+
+        /**
+         * A preferential attachment graph: every new vertex gets two edges from earlier
+         * vertices chosen in proportion to their degree, so a few hubs have most edges.
+         */
+        POWER_LAW {
+            @Override
+            int[] edges(int size, Random random) {
+                int[] edges = new int[2 * (2 * size - 3)];
+                edges[0] = 0;
+                edges[1] = 1;
+                int length = 2;
+                for (int v = 2; v < size; v++) {
+                    for (int k = 0; k < 2; k++) {
+                        edges[length] = edges[random.nextInt(2 * (2 * v - 3))];
+                        edges[length + 1] = v;
+                        length += 2;
+                    }
+                }
+                return edges;
+            }
+        },
+
+        /**
+         * A square grid with edges to the right and downwards.
+         */
+        GRID {
+            @Override
+            int[] edges(int size, Random random) {
+                int side = (int) Math.ceil(Math.sqrt(size));
+                List<Integer> edges = new ArrayList<>();
+                for (int v = 0; v < size; v++) {
+                    if ((v + 1) % side != 0 && v + 1 < size) {
+                        edges.add(v);
+                        edges.add(v + 1);
+                    }
+                    if (v + side < size) {
+                        edges.add(v);
+                        edges.add(v + side);
+                    }
+                }
+                return edges.stream().mapToInt(Integer::intValue).toArray();
+            }
+        },
+
+        /**
+         * A single path through all vertices.
+         */
+        CHAIN {
+            @Override
+            int[] edges(int size, Random random) {
+                int[] edges = new int[2 * (size - 1)];
+                for (int v = 0; v + 1 < size; v++) {
+                    edges[2 * v] = v;
+                    edges[2 * v + 1] = v + 1;
+                }
+                return edges;
+            }
+        };
+
+        abstract int[] edges(int size, Random random);
+    }
+
+    /**
+     * A graph that is rebuilt before every invocation, for benchmarks that modify it.
+     */
+    @State(Scope.Thread)
+    public static class Scratch {
+        private Graph<Integer> graph;
+
+        /**
+         * Builds a fresh copy of the graph of the benchmark.
+         *
+         * @param benchmark the benchmark state with the current parameters
+         */
+        @Setup(Level.Invocation)
+        public void setUp(GraphBenchmark benchmark) {
+            graph = benchmark.build();
+        }
+    }
+
+    @Param({"ADJACENCY_LIST", "ADJACENCY_MATRIX", "INCIDENCE_MATRIX"})
+    public Representation representation;
+
+    @Param({"RANDOM", "POWER_LAW", "GRID", "CHAIN"})
+    public Shape shape;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private List<Vertex<Integer>> vertices;
+    private int[] edges;
+    private Graph<Integer> graph;
+    private File file;
+
+    /**
+     * Generates the graph of the current shape and size, builds it in the current
+     * representation and writes it to a temporary file in the format of that representation.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        vertices = new ArrayList<>(size);
+        for (int v = 0; v < size; v++) {
+            vertices.add(new Vertex<>(v));
+        }
+        edges = shape.edges(size, new Random(42));
+        graph = build();
+        Path path = Files.createTempFile("graphBenchmark", ".txt");
+        Files.writeString(path, graph.toString());
+        file = path.toFile();
+    }
+
+    /**
+     * Deletes the temporary file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public Graph<Integer> addVertex() {
+        Graph<Integer> result = representation.create();
+        for (Vertex<Integer> vertex : vertices) {
+            result.addVertex(vertex);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Graph<Integer> addEdge() {
+        return build();
+    }
+
+    @Benchmark
+    public Graph<Integer> removeVertex(Scratch scratch) {
+        scratch.graph.removeVertex(vertices.get(size / 2));
+        return scratch.graph;
+    }
+
+    @Benchmark
+    public int getNeighbors() {
+        int total = 0;
+        for (Vertex<Integer> vertex : vertices) {
+            total += graph.getNeighbors(vertex).size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Graph<Integer> readFromFile() throws IOException {
+        Graph<Integer> result = representation.create();
+        result.readFromFile(file, Integer::parseInt);
+        return result;
+    }
+
+    @Benchmark
+    public List<Vertex<Integer>> topSort() {
+        return TopologicalSort.topSort(graph);
+    }
+
+    private Graph<Integer> build() {
+        Graph<Integer> result = addVertex();
+        for (int i = 0; i < edges.length; i += 2) {
+            result.addEdge(new Edge<>(vertices.get(edges[i]), vertices.get(edges[i + 1])));
+        }
+        return result;
+    }
+}
@@ -1,29 +1,44 @@
 package ru.nsu.lavitskaya.graph;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a graph using an adjacency list representation.
  *
+ * <p>Besides the lists, the graph keeps its vertices in insertion order together with their
+ * positions, which serve as vertex ids.</p>
+ *
+ * <p>The graph also keeps its edge count and a {@link GraphFingerprint} of its vertices and
+ * edges, updated on every change. {@link #equals} rejects most unequal graphs by comparing
+ * them, and {@link #hashCode} returns the fingerprint, so it takes O(1) time and does not
+ * depend on the order of the neighbors.</p>
+ *
  * @param <T> the type of the vertex values in the graph
  */
 public class AdjacencyListGraph<T> implements Graph<T> {
     private HashMap<Vertex<T>, List<Vertex<T>>> adjacencyList;
+    private List<Vertex<T>> vertices;
+    private Map<Vertex<T>, Integer> indices;
+    private int edgeCount;
+    private long fingerprint;
 
     /**
      * Constructs an empty AdjacencyListGraph.
      */
     public AdjacencyListGraph() {
         adjacencyList = new HashMap<>();
+        vertices = new ArrayList<>();
+        indices = new HashMap<>();
     }
 
     /**
@@ -33,19 +48,44 @@ public class AdjacencyListGraph<T> implements Graph<T> {
      */
     @Override
     public void addVertex(Vertex<T> vertex) {
-        adjacencyList.putIfAbsent(vertex, new ArrayList<>());
+        if (!adjacencyList.containsKey(vertex)) {
+            adjacencyList.put(vertex, new ArrayList<>());
+            indices.put(vertex, vertices.size());
+            vertices.add(vertex);
+            fingerprint += GraphFingerprint.vertex(vertex);
+        }
     }
 
     /**
-     * Removes a vertex from the graph.
+     * Removes a vertex from the graph together with all edges to and from it, including
+     * parallel ones.
      *
      * @param vertex the vertex to be removed
      */
     @Override
     public void removeVertex(Vertex<T> vertex) {
-        adjacencyList.remove(vertex);
-        for (List<Vertex<T>> neighbors : adjacencyList.values()) {
-            neighbors.remove(vertex);
+        List<Vertex<T>> removed = adjacencyList.remove(vertex);
+        if (removed == null) {
+            return;
+        }
+        for (Vertex<T> neighbor : removed) {
+            fingerprint -= GraphFingerprint.edge(vertex, neighbor);
+        }
+        edgeCount -= removed.size();
+        for (Map.Entry<Vertex<T>, List<Vertex<T>>> entry : adjacencyList.entrySet()) {
+            List<Vertex<T>> neighbors = entry.getValue();
+            int before = neighbors.size();
+            if (neighbors.removeIf(vertex::equals)) {
+                int removedEdges = before - neighbors.size();
+                fingerprint -= removedEdges * GraphFingerprint.edge(entry.getKey(), vertex);
+                edgeCount -= removedEdges;
+            }
+        }
+        fingerprint -= GraphFingerprint.vertex(vertex);
+        int index = indices.remove(vertex);
+        vertices.remove(index);
+        for (int i = index; i < vertices.size(); i++) {
+            indices.put(vertices.get(i), i);
         }
     }
 
@@ -56,9 +96,11 @@ public class AdjacencyListGraph<T> implements Graph<T> {
      */
     @Override
     public void addEdge(Edge<T> edge) {
-        adjacencyList.putIfAbsent(edge.getFrom(), new ArrayList<>());
-        adjacencyList.putIfAbsent(edge.getTo(), new ArrayList<>());
+        addVertex(edge.getFrom());
+        addVertex(edge.getTo());
         adjacencyList.get(edge.getFrom()).add(edge.getTo());
+        fingerprint += GraphFingerprint.edge(edge.getFrom(), edge.getTo());
+        edgeCount++;
     }
 
     /**
@@ -69,8 +111,9 @@ public class AdjacencyListGraph<T> implements Graph<T> {
     @Override
     public void removeEdge(Edge<T> edge) {
         List<Vertex<T>> neighbors = adjacencyList.get(edge.getFrom());
-        if (neighbors != null) {
-            neighbors.remove(edge.getTo());
+        if (neighbors != null && neighbors.remove(edge.getTo())) {
+            fingerprint -= GraphFingerprint.edge(edge.getFrom(), edge.getTo());
+            edgeCount--;
         }
     }
 
@@ -90,57 +133,96 @@ public class AdjacencyListGraph<T> implements Graph<T> {
     }
 
     /**
-     * Returns an unmodifiable list of all vertices in the graph.
+     * Returns an unmodifiable view of the adjacency list of a vertex.
+     *
+     * @param vertex the vertex whose neighbors are to be retrieved
+     * @return the neighbors of the vertex, or null if the vertex is not in the graph
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        List<Vertex<T>> neighbors = adjacencyList.get(vertex);
+        return neighbors == null ? null : Collections.unmodifiableList(neighbors);
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex, directly on its adjacency list.
+     *
+     * @param vertex the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        List<Vertex<T>> neighbors = adjacencyList.get(vertex);
+        if (neighbors != null) {
+            neighbors.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        for (Vertex<T> neighbor : adjacencyList.get(vertices.get(id))) {
+            action.accept(indices.get(neighbor));
+        }
+    }
+
+    /**
+     * Returns the id of a vertex, its position in the order in which vertices were added.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns an unmodifiable view of all vertices in the graph, in the order in which they
+     * were added.
      *
      * @return a list of vertices in the graph
      */
     public List<Vertex<T>> getVertices() {
-        return Collections.unmodifiableList(new ArrayList<>(adjacencyList.keySet()));
+        return Collections.unmodifiableList(vertices);
     }
 
     /**
-     * Reads a graph from a specified file.
+     * Reads a graph from a specified file, one vertex per line in the format
+     * {@code name:[neighbor, neighbor]}. The file is parsed by {@link GraphLoader}, which
+     * accepts what the earlier line-by-line reader accepted: names may contain colons, a line
+     * without a bracketed list adds its vertex only, and empty list entries, such as the one
+     * after a trailing comma, are ignored. An empty list entry between two commas used to add a
+     * vertex with an empty name and no longer does; a line without a colon or with an empty
+     * name is an error.
      *
      * @param file the file from which to read the graph
      * @throws IOException if an error occurs while reading the file
      */
     @Override
     public void readFromFile(File file, Function<String, T> converter) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                String[] parts = line.split(":");
-                if (parts.length != 2) {
-                    throw new IOException("Invalid line format: " + line);
-                }
-                String vertexName = parts[0].trim();
-                String neighborsPart = parts[1].trim();
-
-                Vertex<T> vertex = new Vertex<>(converter.apply(vertexName));
-                addVertex(vertex);
-
-                if (neighborsPart.startsWith("[") && neighborsPart.endsWith("]")) {
-                    String neighborsList = neighborsPart.substring(1, neighborsPart.length() - 1)
-                                    .trim();
-                    if (!neighborsList.isEmpty()) {
-                        String[] neighbors = neighborsList.split(",");
-                        for (String neighborName : neighbors) {
-                            neighborName = neighborName.trim();
-                            Vertex<T> neighbor = new Vertex<>(converter.apply(neighborName));
-                            addVertex(neighbor);
-                            addEdge(new Edge<>(vertex, neighbor));
-                        }
-                    }
-                }
-            }
+        try {
+            GraphLoader.loadInto(file.toPath(), converter, false, this);
         } catch (IOException e) {
             throw new IOException("Error reading the graph from file", e);
         }
     }
 
     /**
-     * Checks if this graph is equal to another object.
+     * Checks if this graph is equal to another object. Two graphs are equal if they have the
+     * same vertices and every vertex has the same neighbors, in any order.
+     *
+     * <p>Graphs with different numbers of vertices or edges or different fingerprints are
+     * rejected in O(1). Otherwise the adjacency lists are compared in canonical form: the
+     * neighbors of every vertex are translated to the ids of the other graph and sorted, which
+     * takes one pass over the edges and a sort of every list. The ids are sorted in two
+     * buffers shared by all vertices, so a comparison allocates nothing per vertex.</p>
      *
      * @param obj the object to compare with
      * @return true if the objects are equal, false otherwise
@@ -155,39 +237,58 @@ public class AdjacencyListGraph<T> implements Graph<T> {
             return false;
         }
         AdjacencyListGraph<T> that = (AdjacencyListGraph<T>) obj;
-        if (this.getVertices().size() != that.getVertices().size()) {
+        if (vertices.size() != that.vertices.size() || edgeCount != that.edgeCount
+                || fingerprint != that.fingerprint) {
             return false;
         }
-        for (Vertex<T> currVertex : this.getVertices()) {
-            List<Vertex<T>> thisNeighbors = getNeighbors(currVertex);
-            List<Vertex<T>> thatNeighbors = that.getNeighbors(currVertex);
+        int[] thisIds = new int[0];
+        int[] thatIds = new int[0];
+        for (Vertex<T> vertex : vertices) {
+            List<Vertex<T>> thisNeighbors = adjacencyList.get(vertex);
+            List<Vertex<T>> thatNeighbors = that.adjacencyList.get(vertex);
             if (thatNeighbors == null || thatNeighbors.size() != thisNeighbors.size()) {
                 return false;
             }
-            for (int i = 0; i < thisNeighbors.size(); i++) {
-                for (int j = 0; j < thatNeighbors.size(); j++) {
-                    if (thisNeighbors.get(i).equals(thatNeighbors.get(j))) {
-                        thatNeighbors.remove(j);
-                        break;
-                    }
-                }
+            int size = thisNeighbors.size();
+            if (size > thisIds.length) {
+                thisIds = new int[Math.max(size, 2 * thisIds.length)];
+                thatIds = new int[thisIds.length];
             }
-            if (!thatNeighbors.isEmpty()) {
+            if (!that.canonicalIds(thisNeighbors, thisIds)
+                    || !that.canonicalIds(thatNeighbors, thatIds)
+                    || !Arrays.equals(thisIds, 0, size, thatIds, 0, size)) {
                 return false;
             }
-
         }
         return true;
     }
 
     /**
-     * Generates a hash code for this graph.
+     * Returns the fingerprint of the graph folded to an int. Equal graphs have equal
+     * fingerprints whatever the order in which they were built.
      *
      * @return a hash code value for this graph
      */
     @Override
     public int hashCode() {
-        return Objects.hash(adjacencyList);
+        return Long.hashCode(fingerprint);
+    }
+
+    /**
+     * Writes the sorted ids of the given vertices in this graph to the start of the buffer.
+     * Returns false if one of them is not in this graph.
+     */
+    private boolean canonicalIds(List<Vertex<T>> neighbors, int[] buffer) {
+        int size = neighbors.size();
+        for (int i = 0; i < size; i++) {
+            Integer id = indices.get(neighbors.get(i));
+            if (id == null) {
+                return false;
+            }
+            buffer[i] = id;
+        }
+        Arrays.sort(buffer, 0, size);
+        return true;
     }
 
     /**
@@ -199,7 +300,7 @@ public class AdjacencyListGraph<T> implements Graph<T> {
     public String toString() {
         StringBuilder builder = new StringBuilder();
 
-        for (Vertex<T> vertex : adjacencyList.keySet()) {
+        for (Vertex<T> vertex : vertices) {
             builder.append(vertex.toString()).append(": ");
             List<Vertex<T>> neighbors = adjacencyList.get(vertex);
             if (neighbors.isEmpty()) {
@@ -5,89 +5,97 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a directed graph using an adjacency matrix to store edges.
  *
+ * <p>The rows of the matrix are allocated separately and each of them only as long as its
+ * last edge needs, so a cell past the end of a row holds zero. The array of rows and every row
+ * grow by half of their length when they are too short. Adding V vertices therefore copies
+ * O(V) row references, and a row never takes more than about 1.5 V cells, so the matrix takes
+ * at most about 1.5 V² cells however the graph was built, and much less if it is sparse. The
+ * cells of a row past {@code vertices.size()} are zero.</p>
+ *
  * @param <T> The type of the values stored in the vertices.
  */
 public class AdjacencyMatrixGraph<T> implements Graph<T> {
+    private static final int[] EMPTY_ROW = new int[0];
+
     private List<Vertex<T>> vertices;
-    private List<Edge<T>> edges;
+    private Map<Vertex<T>, Integer> indices;
     private int[][] adjacencyMatrix;
+    private int edgeCount;
 
     /**
      * Constructs a new empty graph.
      */
     public AdjacencyMatrixGraph() {
         vertices = new ArrayList<>();
-        edges = new ArrayList<>();
+        indices = new HashMap<>();
         adjacencyMatrix = new int[0][0];
     }
 
     /**
-     * Adds a new vertex to the graph.
+     * Adds a new vertex to the graph with an empty row.
      *
      * @param vertex The vertex to be added.
      */
     @Override
     public void addVertex(Vertex<T> vertex) {
-        int index = vertices.indexOf(vertex);
-        if (index == -1) {
-            vertices.add(vertex);
-            int newSize = vertices.size();
-            int[][] newMatrix = new int[newSize][newSize];
-
-            for (int i = 0; i < newSize - 1; i++) {
-                newMatrix[i] = Arrays.copyOf(adjacencyMatrix[i], newSize);
-            }
-            adjacencyMatrix = newMatrix;
+        if (indexOf(vertex) != -1) {
+            return;
         }
-
-
+        int size = vertices.size();
+        if (size == adjacencyMatrix.length) {
+            adjacencyMatrix = Arrays.copyOf(adjacencyMatrix, grown(size, size + 1));
+        }
+        adjacencyMatrix[size] = EMPTY_ROW;
+        indices.put(vertex, size);
+        vertices.add(vertex);
     }
 
     /**
-     * Removes a vertex from the graph and all edges associated with it.
+     * Removes a vertex from the graph and all edges associated with it. The rows and columns
+     * after it are shifted in place.
      *
      * @param vertex The vertex to be removed.
      */
     @Override
     public void removeVertex(Vertex<T> vertex) {
-        int index = vertices.indexOf(vertex);
-        if (index != -1) {
-            List<Edge<T>> edgesToRemove = new ArrayList<>();
-            for (Edge<T> edge : edges) {
-                if (edge.getFrom().equals(vertex) || edge.getTo().equals(vertex)) {
-                    edgesToRemove.add(edge);
-                }
-            }
-            for (Edge<T> edge : edgesToRemove) {
-                removeEdge(edge);
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return;
+        }
+        int size = vertices.size();
+        for (int count : adjacencyMatrix[index]) {
+            edgeCount -= count;
+        }
+        System.arraycopy(adjacencyMatrix, index + 1, adjacencyMatrix, index, size - index - 1);
+        adjacencyMatrix[size - 1] = null;
+        for (int i = 0; i < size - 1; i++) {
+            int[] row = adjacencyMatrix[i];
+            if (index < row.length) {
+                edgeCount -= row[index];
+                System.arraycopy(row, index + 1, row, index, row.length - index - 1);
+                row[row.length - 1] = 0;
             }
+        }
 
-            vertices.remove(index);
-            int newSize = vertices.size();
-            int[][] newMatrix = new int[newSize][newSize];
-
-            for (int i = 0, newRow = 0; i < adjacencyMatrix.length; i++) {
-                if (i != index) {
-                    for (int j = 0, newCol = 0; j < adjacencyMatrix[i].length; j++) {
-                        if (j != index) {
-                            newMatrix[newRow][newCol] = adjacencyMatrix[i][j];
-                            newCol++;
-                        }
-                    }
-                    newRow++;
-                }
-            }
-            adjacencyMatrix = newMatrix;
+        vertices.remove(index);
+        indices.remove(vertex);
+        for (int i = index; i < vertices.size(); i++) {
+            indices.put(vertices.get(i), i);
         }
     }
 
@@ -99,20 +107,17 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
      */
     @Override
     public void addEdge(Edge<T> edge) {
-        int fromIndex = vertices.indexOf(edge.getFrom());
-        int toIndex = vertices.indexOf(edge.getTo());
-        if (fromIndex == -1) {
-            addVertex(edge.getFrom());
-            fromIndex = vertices.indexOf(edge.getFrom());
-        }
-        if (toIndex == -1) {
-            addVertex(edge.getTo());
-            toIndex = vertices.indexOf(edge.getTo());
+        addVertex(edge.getFrom());
+        addVertex(edge.getTo());
+        int from = indexOf(edge.getFrom());
+        int to = indexOf(edge.getTo());
+        int[] row = adjacencyMatrix[from];
+        if (to >= row.length) {
+            row = Arrays.copyOf(row, grown(row.length, to + 1));
+            adjacencyMatrix[from] = row;
         }
-
-        edges.add(new Edge<>(edge.getFrom(), edge.getTo()));
-        adjacencyMatrix[fromIndex][toIndex] += 1;
-
+        row[to] += 1;
+        edgeCount++;
     }
 
     /**
@@ -122,11 +127,11 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
      */
     @Override
     public void removeEdge(Edge<T> edge) {
-        int fromIndex = vertices.indexOf(edge.getFrom());
-        int toIndex = vertices.indexOf(edge.getTo());
-        if (fromIndex != -1 && toIndex != -1 && adjacencyMatrix[fromIndex][toIndex] > 0) {
-            edges.remove(edge);
+        int fromIndex = indexOf(edge.getFrom());
+        int toIndex = indexOf(edge.getTo());
+        if (fromIndex != -1 && toIndex != -1 && count(fromIndex, toIndex) > 0) {
             adjacencyMatrix[fromIndex][toIndex] -= 1;
+            edgeCount--;
         }
     }
 
@@ -139,17 +144,101 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
      */
     @Override
     public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
-        int index = vertices.indexOf(vertex);
+        int index = indexOf(vertex);
         if (index == -1) {
             return null;
         }
         List<Vertex<T>> neighbors = new ArrayList<>();
-        for (int i = 0; i < vertices.size(); i++) {
-            for (int j = 0; j < adjacencyMatrix[index][i]; j++) {
-                neighbors.add(vertices.get(i));
+        forEachNeighbor(index, i -> neighbors.add(vertices.get(i)));
+        return neighbors;
+    }
+
+    /**
+     * Returns an unmodifiable view of the neighbors of a vertex, read from its matrix row.
+     * A neighbor appears as many times as there are edges to it. Iterating over the view
+     * scans the row once.
+     *
+     * @param vertex The vertex whose neighbors are to be retrieved.
+     * @return The neighbors of the vertex, or null if the vertex is not in the graph.
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public Vertex<T> get(int position) {
+                int[] row = adjacencyMatrix[index];
+                int remaining = position;
+                for (int i = 0; i < row.length && remaining >= 0; i++) {
+                    if (remaining < row[i]) {
+                        return vertices.get(i);
+                    }
+                    remaining -= row[i];
+                }
+                throw new IndexOutOfBoundsException("Index " + position + " out of range");
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int count : adjacencyMatrix[index]) {
+                    size += count;
+                }
+                return size;
+            }
+
+            @Override
+            public void forEach(Consumer<? super Vertex<T>> action) {
+                forEachNeighbor(index, i -> action.accept(vertices.get(i)));
+            }
+        };
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex, once per edge, by scanning its
+     * matrix row.
+     *
+     * @param vertex The vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        int index = indexOf(vertex);
+        if (index != -1) {
+            forEachNeighbor(index, i -> action.accept(vertices.get(i)));
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id, once
+     * per edge, by scanning its matrix row.
+     *
+     * @param id     The id of the vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertices.size());
+        int[] row = adjacencyMatrix[id];
+        for (int i = 0; i < row.length; i++) {
+            for (int j = 0; j < row[i]; j++) {
+                action.accept(i);
             }
         }
-        return neighbors;
+    }
+
+    /**
+     * Returns the id of a vertex, which is the index of its matrix row.
+     *
+     * @param vertex The vertex.
+     * @return The id of the vertex, or -1 if the vertex is not in the graph.
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        return indexOf(vertex);
     }
 
     /**
@@ -215,7 +304,7 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
             return false;
         }
         AdjacencyMatrixGraph<T> that = (AdjacencyMatrixGraph<T>) obj;
-        if (this.vertices.size() != that.vertices.size()) {
+        if (this.vertices.size() != that.vertices.size() || this.edgeCount != that.edgeCount) {
             return false;
         }
         for (Vertex<T> currVertex : this.vertices) {
@@ -240,12 +329,24 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
     }
 
     /**
-     * Returns the hash code for this graph.
+     * Returns the hash code for this graph, which does not depend on the order of vertices.
      *
      * @return The hash code for this graph based on its vertices and edges.
      */
+    @Override
     public int hashCode() {
-        return Objects.hash(vertices, edges);
+        int hash = 0;
+        for (int i = 0; i < vertices.size(); i++) {
+            int[] row = adjacencyMatrix[i];
+            int neighbors = 0;
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] != 0) {
+                    neighbors += row[j] * vertices.get(j).hashCode();
+                }
+            }
+            hash += 31 * vertices.get(i).hashCode() + neighbors;
+        }
+        return hash;
     }
 
     /**
@@ -263,10 +364,10 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
         }
         builder.append("\n");
 
-        for (int i = 0; i < adjacencyMatrix.length; i++) {
+        for (int i = 0; i < vertices.size(); i++) {
             builder.append(vertices.get(i).toString()).append(" ");
-            for (int j = 0; j < adjacencyMatrix[i].length; j++) {
-                builder.append(adjacencyMatrix[i][j]).append(" ");
+            for (int j = 0; j < vertices.size(); j++) {
+                builder.append(count(i, j)).append(" ");
             }
             builder.append("\n");
         }
@@ -274,4 +375,46 @@ public class AdjacencyMatrixGraph<T> implements Graph<T> {
         return builder.toString();
     }
 
+    /**
+     * Returns the number of rows the matrix has room for.
+     *
+     * @return the length of the array of rows
+     */
+    int rowCapacity() {
+        return adjacencyMatrix.length;
+    }
+
+    /**
+     * Returns the number of cells allocated for the row of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the length of the row
+     */
+    int columnCapacity(int id) {
+        return adjacencyMatrix[Objects.checkIndex(id, vertices.size())].length;
+    }
+
+    private int count(int from, int to) {
+        int[] row = adjacencyMatrix[from];
+        return to < row.length ? row[to] : 0;
+    }
+
+    /**
+     * Returns the new length of an array that must hold at least the given number of elements,
+     * growing it by half of its current length.
+     */
+    private static int grown(int length, int needed) {
+        return Math.max(Math.max(4, needed), length + (length >> 1));
+    }
+
+    /**
+     * Finds the row of the specified vertex in the matrix using the vertex index.
+     *
+     * @param vertex the vertex to look up
+     * @return the index of the vertex, or -1 if the vertex is not in the graph
+     */
+    private int indexOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
 }
@@ -0,0 +1,529 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a directed graph using an adjacency matrix packed into bits.
+ *
+ * <p>Row {@code i} of the matrix is a {@code long[]} in which bit {@code j} is set if there
+ * is an edge from vertex {@code i} to vertex {@code j}. A cell only records whether an edge
+ * exists, so parallel edges collapse into one, and the matrix takes V²/8 bytes, 32 times
+ * less than an {@code int} matrix. Rows grow geometrically as vertices are added.</p>
+ *
+ * <p>Algorithms on top of the matrix work on whole words at a time: degrees are popcounts,
+ * breadth-first search advances a bitset frontier by OR-ing rows, and the transitive closure
+ * is Warshall's algorithm with row-OR.</p>
+ *
+ * @param <T> The type of the values stored in the vertices.
+ */
+public class BitMatrixGraph<T> implements Graph<T> {
+    private List<Vertex<T>> vertices;
+    private Map<Vertex<T>, Integer> indices;
+    private long[][] rows;
+    private int words;
+
+    /**
+     * Constructs a new empty graph.
+     */
+    public BitMatrixGraph() {
+        vertices = new ArrayList<>();
+        indices = new HashMap<>();
+        rows = new long[0][];
+        words = 0;
+    }
+
+    /**
+     * Adds a new vertex to the graph.
+     *
+     * @param vertex The vertex to be added.
+     */
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        if (indices.containsKey(vertex)) {
+            return;
+        }
+        int index = vertices.size();
+        if (index == words * Long.SIZE) {
+            words = Math.max(1, words * 2);
+            for (int i = 0; i < index; i++) {
+                rows[i] = Arrays.copyOf(rows[i], words);
+            }
+        }
+        if (index == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(4, rows.length * 2));
+        }
+        rows[index] = new long[words];
+        indices.put(vertex, index);
+        vertices.add(vertex);
+    }
+
+    /**
+     * Removes a vertex from the graph and all edges associated with it. The column of the
+     * vertex is removed from every row by shifting the higher bits down by one.
+     *
+     * @param vertex The vertex to be removed.
+     */
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return;
+        }
+        int size = vertices.size();
+        System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+        rows[size - 1] = null;
+        for (int i = 0; i < size - 1; i++) {
+            removeBit(rows[i], index);
+        }
+        vertices.remove(index);
+        indices.remove(vertex);
+        for (int i = index; i < vertices.size(); i++) {
+            indices.put(vertices.get(i), i);
+        }
+    }
+
+    /**
+     * Adds a directed edge between two vertices in the graph.
+     * If either vertex does not exist, it will be added to the graph.
+     *
+     * @param edge The edge to be added.
+     */
+    @Override
+    public void addEdge(Edge<T> edge) {
+        addVertex(edge.getFrom());
+        addVertex(edge.getTo());
+        int to = indexOf(edge.getTo());
+        rows[indexOf(edge.getFrom())][to >>> 6] |= 1L << to;
+    }
+
+    /**
+     * Removes a directed edge between two vertices in the graph.
+     *
+     * @param edge The edge to be removed.
+     */
+    @Override
+    public void removeEdge(Edge<T> edge) {
+        int from = indexOf(edge.getFrom());
+        int to = indexOf(edge.getTo());
+        if (from != -1 && to != -1) {
+            rows[from][to >>> 6] &= ~(1L << to);
+        }
+    }
+
+    /**
+     * Checks whether there is an edge between two vertices.
+     *
+     * @param from The source vertex.
+     * @param to   The target vertex.
+     * @return {@code true} if the edge exists; {@code false} otherwise.
+     */
+    public boolean hasEdge(Vertex<T> from, Vertex<T> to) {
+        int fromIndex = indexOf(from);
+        int toIndex = indexOf(to);
+        return fromIndex != -1 && toIndex != -1 && get(rows[fromIndex], toIndex);
+    }
+
+    /**
+     * Retrieves the list of neighbors for the specified vertex in the graph.
+     *
+     * @param vertex The vertex whose neighbors are to be retrieved.
+     * @return A list of neighboring vertices, or null if the specified vertex is not present
+     *     in the graph.
+     */
+    @Override
+    public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return null;
+        }
+        return toVertices(rows[index]);
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex, walking the set bits of its row.
+     *
+     * @param vertex The vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        int index = indexOf(vertex);
+        if (index != -1) {
+            forEachNeighbor(index, i -> action.accept(vertices.get(i)));
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id,
+     * walking the set bits of its row.
+     *
+     * @param id     The id of the vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertices.size());
+        long[] row = rows[id];
+        for (int w = 0; w < words; w++) {
+            long word = row[w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of a vertex, which is the index of its matrix row.
+     *
+     * @param vertex The vertex.
+     * @return The id of the vertex, or -1 if the vertex is not in the graph.
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        return indexOf(vertex);
+    }
+
+    /**
+     * Returns the number of edges leaving the specified vertex, counted with popcounts.
+     *
+     * @param vertex The vertex.
+     * @return The out-degree of the vertex, or -1 if it is not in the graph.
+     */
+    public int outDegree(Vertex<T> vertex) {
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return -1;
+        }
+        int degree = 0;
+        for (long word : rows[index]) {
+            degree += Long.bitCount(word);
+        }
+        return degree;
+    }
+
+    /**
+     * Performs a breadth-first search from the specified vertex. Every layer is computed from
+     * the previous one as a bitset: the OR of the rows of the frontier vertices, minus the
+     * vertices already visited.
+     *
+     * @param source The vertex to start from.
+     * @return The layers of the search; layer {@code d} holds the vertices at distance
+     *     {@code d} from the source, and the first layer holds only the source.
+     * @throws IllegalArgumentException If the source is not in the graph.
+     */
+    public List<List<Vertex<T>>> bfsLayers(Vertex<T> source) {
+        int start = indexOf(source);
+        if (start == -1) {
+            throw new IllegalArgumentException("Vertex is not in the graph");
+        }
+        long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        frontier[start >>> 6] |= 1L << start;
+        visited[start >>> 6] |= 1L << start;
+        List<List<Vertex<T>>> layers = new ArrayList<>();
+
+        boolean nonEmpty = true;
+        while (nonEmpty) {
+            layers.add(toVertices(frontier));
+            Arrays.fill(next, 0);
+            for (int w = 0; w < words; w++) {
+                long bits = frontier[w];
+                while (bits != 0) {
+                    int vertex = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    long[] row = rows[vertex];
+                    for (int k = 0; k < words; k++) {
+                        next[k] |= row[k];
+                    }
+                }
+            }
+            nonEmpty = false;
+            for (int w = 0; w < words; w++) {
+                next[w] &= ~visited[w];
+                visited[w] |= next[w];
+                nonEmpty |= next[w] != 0;
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return layers;
+    }
+
+    /**
+     * Checks whether the target vertex can be reached from the source vertex by a path of
+     * one or more edges.
+     *
+     * @param from The source vertex.
+     * @param to   The target vertex.
+     * @return {@code true} if there is a path; {@code false} otherwise.
+     */
+    public boolean isReachable(Vertex<T> from, Vertex<T> to) {
+        int fromIndex = indexOf(from);
+        int toIndex = indexOf(to);
+        if (fromIndex == -1 || toIndex == -1) {
+            return false;
+        }
+        long[] visited = new long[words];
+        long[] frontier = rows[fromIndex].clone();
+        long[] next = new long[words];
+        boolean nonEmpty = true;
+        while (nonEmpty) {
+            if (get(frontier, toIndex)) {
+                return true;
+            }
+            nonEmpty = false;
+            for (int w = 0; w < words; w++) {
+                visited[w] |= frontier[w];
+            }
+            Arrays.fill(next, 0);
+            for (int w = 0; w < words; w++) {
+                long bits = frontier[w];
+                while (bits != 0) {
+                    long[] row = rows[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                    for (int k = 0; k < words; k++) {
+                        next[k] |= row[k];
+                    }
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                next[w] &= ~visited[w];
+                nonEmpty |= next[w] != 0;
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return false;
+    }
+
+    /**
+     * Computes the transitive closure of the graph with Warshall's algorithm: for every
+     * intermediate vertex {@code k}, every row that has bit {@code k} set is OR-ed with row
+     * {@code k}. This takes V³/64 word operations.
+     *
+     * @return A new graph with the same vertices and an edge from {@code u} to {@code v}
+     *     whenever {@code v} is reachable from {@code u} by a path of one or more edges.
+     */
+    public BitMatrixGraph<T> transitiveClosure() {
+        BitMatrixGraph<T> closure = new BitMatrixGraph<>();
+        closure.vertices = new ArrayList<>(vertices);
+        closure.indices = new HashMap<>(indices);
+        closure.words = words;
+        closure.rows = new long[rows.length][];
+        int size = vertices.size();
+        for (int i = 0; i < size; i++) {
+            closure.rows[i] = rows[i].clone();
+        }
+        long[][] matrix = closure.rows;
+        for (int k = 0; k < size; k++) {
+            long[] rowK = matrix[k];
+            int word = k >>> 6;
+            long bit = 1L << k;
+            for (int i = 0; i < size; i++) {
+                long[] rowI = matrix[i];
+                if ((rowI[word] & bit) != 0) {
+                    for (int w = 0; w < words; w++) {
+                        rowI[w] |= rowK[w];
+                    }
+                }
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Retrieves the list of all vertices in the graph.
+     *
+     * @return An unmodifiable list of all vertices in the graph.
+     */
+    @Override
+    public List<Vertex<T>> getVertices() {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Reads a graph in the format of {@link AdjacencyMatrixGraph}: a line of vertex names
+     * followed by one row of edge counts per vertex. Any positive count creates an edge.
+     *
+     * @param file The file from which to read the graph data.
+     * @throws IOException If an error occurs while reading the file or parsing the numbers.
+     */
+    @Override
+    public void readFromFile(File file, Function<String, T> converter) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            if (line != null) {
+                for (String name : line.trim().split("\\s+")) {
+                    addVertex(new Vertex<>(converter.apply(name)));
+                }
+            }
+            int vertexCount = vertices.size();
+
+            for (int i = 0; i < vertexCount; i++) {
+                line = reader.readLine();
+                if (line != null) {
+                    String[] values = line.trim().split("\\s+");
+                    for (int j = 1; j < values.length; j++) {
+                        if (Integer.parseInt(values[j]) > 0) {
+                            addEdge(new Edge<>(vertices.get(i), vertices.get(j - 1)));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IOException("Error reading the graph from file", e);
+        } catch (NumberFormatException e) {
+            throw new IOException("Error parsing number from file", e);
+        }
+    }
+
+    /**
+     * Compares this graph to the specified object for equality. Graphs are equal if they have
+     * the same vertices and the same edges, regardless of the order of the vertices.
+     *
+     * @param obj The object to be compared with this graph.
+     * @return {@code true} if the specified object is equal to this graph; {@code false} otherwise.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        BitMatrixGraph<T> that = (BitMatrixGraph<T>) obj;
+        if (this.vertices.size() != that.vertices.size()) {
+            return false;
+        }
+        int[] mapping = new int[vertices.size()];
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = that.indexOf(vertices.get(i));
+            if (mapping[i] == -1) {
+                return false;
+            }
+        }
+        for (int i = 0; i < mapping.length; i++) {
+            long[] row = rows[i];
+            long[] other = that.rows[mapping[i]];
+            int degree = 0;
+            for (int w = 0; w < words; w++) {
+                long bits = row[w];
+                degree += Long.bitCount(bits);
+                while (bits != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (!get(other, mapping[j])) {
+                        return false;
+                    }
+                }
+            }
+            int otherDegree = 0;
+            for (long word : other) {
+                otherDegree += Long.bitCount(word);
+            }
+            if (degree != otherDegree) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code for this graph, which does not depend on the order of vertices.
+     *
+     * @return The hash code for this graph based on its vertices and edges.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < vertices.size(); i++) {
+            int neighbors = 0;
+            for (Vertex<T> neighbor : toVertices(rows[i])) {
+                neighbors += neighbor.hashCode();
+            }
+            hash += 31 * vertices.get(i).hashCode() + neighbors;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a string representation of the graph in the format of
+     * {@link AdjacencyMatrixGraph}, with 1 for every edge.
+     *
+     * @return A string representing the graph in a human-readable format.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("  ");
+        for (Vertex<T> vertex : vertices) {
+            builder.append(vertex.toString()).append(" ");
+        }
+        builder.append("\n");
+
+        for (int i = 0; i < vertices.size(); i++) {
+            builder.append(vertices.get(i).toString()).append(" ");
+            for (int j = 0; j < vertices.size(); j++) {
+                builder.append(get(rows[i], j) ? 1 : 0).append(" ");
+            }
+            builder.append("\n");
+        }
+
+        return builder.toString();
+    }
+
+    private List<Vertex<T>> toVertices(long[] bits) {
+        List<Vertex<T>> result = new ArrayList<>();
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                result.add(vertices.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Removes bit {@code index} from a bitset, moving every higher bit down by one position.
+     */
+    private static void removeBit(long[] bits, int index) {
+        int word = index >>> 6;
+        long low = bits[word] & ((1L << index) - 1);
+        long high = (bits[word] >>> 1) & ~((1L << index) - 1);
+        bits[word] = low | high;
+        for (int w = word + 1; w < bits.length; w++) {
+            bits[w - 1] |= bits[w] << 63;
+            bits[w] >>>= 1;
+        }
+    }
+
+    private int indexOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+}
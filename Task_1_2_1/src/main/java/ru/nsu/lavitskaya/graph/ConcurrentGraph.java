@@ -0,0 +1,556 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a thread-safe directed graph that many threads can update and read at once.
+ *
+ * <p>Every vertex owns its adjacency list, and writers lock only the source vertex of the edge
+ * they change, so writers that touch different vertices do not wait for each other. An
+ * adjacency list is published to readers as an immutable segment: an array and the number of
+ * elements of it that are in use. Appending an edge fills the next free slot and publishes a
+ * new segment over the same array, so it copies nothing; removing an edge publishes a new
+ * array. Readers never lock: they read the current segment of a vertex and see its neighbors
+ * exactly as they were when the segment was published.</p>
+ *
+ * <p>Vertices are numbered in the order they were added, and {@link #getVertices()},
+ * {@link #idOf} and {@link #forEachNeighbor(int, IntConsumer)} read the live graph without
+ * locking or copying it. Ids stay the same until a vertex is removed, which renumbers the
+ * vertices after it; removing a vertex locks out all other updates, since it rewrites the
+ * lists of the vertex's predecessors.</p>
+ *
+ * <p>{@link #snapshot()} returns an immutable {@link CsrGraph} that reflects one point in the
+ * sequence of updates and uses the ids the vertices had at that point. Snapshots are built
+ * incrementally. Every vertex keeps the ids of its neighbors as of the last snapshot, and
+ * writers queue the vertices they change. Taking a snapshot stops writers only while the
+ * current segments of the queued vertices are copied; only those vertices have their
+ * neighbors translated to ids again, and the CSR arrays are then assembled from the kept ids
+ * of all vertices without blocking writers. The snapshot shares the vertex table and the
+ * dictionary of the graph instead of copying them. Only one thread rebuilds the snapshot at a
+ * time, threads that ask for one meanwhile wait for that rebuild, and the snapshot is cached
+ * until the next update.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public class ConcurrentGraph<T> implements Graph<T> {
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final ReadWriteLock epoch = new ReentrantReadWriteLock();
+    private final AtomicLong version = new AtomicLong();
+    private final Object vertexLock = new Object();
+    private final Object rebuild = new Object();
+    private final Queue<Node<T>> dirty = new ConcurrentLinkedQueue<>();
+    private volatile Index<T> index = new Index<>(new ConcurrentHashMap<>(), 4);
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * Constructs an empty ConcurrentGraph.
+     */
+    public ConcurrentGraph() {
+        snapshot = new Snapshot<>(0, CsrGraph.<T>builder().build());
+    }
+
+    /**
+     * Adds a vertex to the graph if it is not in the graph yet.
+     *
+     * @param vertex the vertex to be added
+     */
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        epoch.readLock().lock();
+        try {
+            nodeOf(vertex);
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a vertex and all edges to and from it, and renumbers the vertices after it. This
+     * blocks all other updates and snapshots while the lists of the other vertices are
+     * rewritten.
+     *
+     * @param vertex the vertex to be removed
+     */
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        epoch.writeLock().lock();
+        try {
+            Index<T> current = index;
+            if (!current.nodes.containsKey(vertex)) {
+                return;
+            }
+            Index<T> next = new Index<>(new ConcurrentHashMap<>(), current.table.length);
+            dirty.clear();
+            for (int id = 0; id < current.count; id++) {
+                Node<T> node = current.table[id];
+                if (!node.vertex.equals(vertex)) {
+                    Node<T> copy = new Node<>(node.vertex, next.count, node.segment, vertex);
+                    next.add(copy);
+                    copy.queued = true;
+                    dirty.add(copy);
+                }
+            }
+            index = next;
+            version.incrementAndGet();
+        } finally {
+            epoch.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a directed edge, adding missing vertices first. Only the source vertex is locked.
+     *
+     * @param edge the edge to be added
+     */
+    @Override
+    public void addEdge(Edge<T> edge) {
+        epoch.readLock().lock();
+        try {
+            Node<T> from = nodeOf(edge.getFrom());
+            nodeOf(edge.getTo());
+            from.append(edge.getTo());
+            changed(from);
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes one directed edge between two vertices. Only the source vertex is locked.
+     *
+     * @param edge the edge to be removed
+     */
+    @Override
+    public void removeEdge(Edge<T> edge) {
+        epoch.readLock().lock();
+        try {
+            Node<T> from = index.nodes.get(edge.getFrom());
+            if (from != null && from.remove(edge.getTo())) {
+                changed(from);
+            }
+        } finally {
+            epoch.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a copy of the current neighbors of a vertex without locking.
+     *
+     * @param vertex the vertex for which neighboring vertices are to be retrieved
+     * @return a list of neighboring vertices, or null if the specified vertex is not present
+     *     in the graph
+     */
+    @Override
+    public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        List<Vertex<T>> view = neighborsView(vertex);
+        return view == null ? null : new ArrayList<>(view);
+    }
+
+    /**
+     * Returns the current segment of the adjacency list of a vertex as an unmodifiable list.
+     * Unlike views of the other graphs, it stays valid and unchanged when the graph is
+     * modified later.
+     *
+     * @param vertex the vertex whose neighbors are to be retrieved
+     * @return the neighbors of the vertex, or null if the vertex is not in the graph
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        Node<T> node = index.nodes.get(vertex);
+        return node == null ? null : node.segment;
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex in its current segment, without
+     * locking.
+     *
+     * @param vertex the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        Node<T> node = index.nodes.get(vertex);
+        if (node != null) {
+            node.segment.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id in its
+     * current segment, without locking.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Index<T> current = index;
+        Objects.checkIndex(id, current.count);
+        for (Vertex<T> neighbor : current.table[id].segment) {
+            action.accept(current.nodes.get(neighbor).id);
+        }
+    }
+
+    /**
+     * Returns the vertices that are in the graph at the time of the call, ordered by id. The
+     * list does not change when vertices are added or removed later.
+     *
+     * @return an unmodifiable list of vertices
+     */
+    @Override
+    public List<Vertex<T>> getVertices() {
+        return index.vertices();
+    }
+
+    /**
+     * Returns the id of a vertex, which stays the same until a vertex is removed.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        Node<T> node = index.nodes.get(vertex);
+        return node == null ? -1 : node.id;
+    }
+
+    /**
+     * Returns an immutable copy of the graph that reflects all updates that completed before
+     * the call. The copy is cached until the next update, and if another thread is already
+     * rebuilding it, this call waits for that rebuild and returns its result when it is
+     * recent enough.
+     *
+     * @return the snapshot of the graph
+     */
+    public CsrGraph<T> snapshot() {
+        long requested = version.get();
+        Snapshot<T> cached = snapshot;
+        if (cached.version >= requested) {
+            return cached.graph;
+        }
+        synchronized (rebuild) {
+            cached = snapshot;
+            if (cached.version >= requested) {
+                return cached.graph;
+            }
+            List<Captured<T>> captured = new ArrayList<>();
+            long capturedVersion;
+            Index<T> current;
+            int count;
+            Node<T>[] table;
+            epoch.writeLock().lock();
+            try {
+                capturedVersion = version.get();
+                current = index;
+                count = current.count;
+                table = current.table;
+                for (Node<T> node = dirty.poll(); node != null; node = dirty.poll()) {
+                    node.queued = false;
+                    captured.add(new Captured<>(node, node.segment));
+                }
+            } finally {
+                epoch.writeLock().unlock();
+            }
+
+            Map<Vertex<T>, Node<T>> nodes = current.nodes;
+            for (Captured<T> entry : captured) {
+                Segment<T> segment = entry.segment();
+                int[] ids = new int[segment.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = nodes.get(segment.get(i)).id;
+                }
+                entry.node().targets = ids;
+            }
+            int[] offsets = new int[count + 1];
+            for (int id = 0; id < count; id++) {
+                offsets[id + 1] = offsets[id] + table[id].targets.length;
+            }
+            int[] targets = new int[offsets[count]];
+            for (int id = 0; id < count; id++) {
+                int[] ids = table[id].targets;
+                System.arraycopy(ids, 0, targets, offsets[id], ids.length);
+            }
+            CsrGraph<T> graph = CsrGraph.of(current.vertices(count), vertex -> {
+                Node<T> node = nodes.get(vertex);
+                return node != null && node.id < count ? node.id : -1;
+            }, offsets, targets);
+            snapshot = new Snapshot<>(capturedVersion, graph);
+            return graph;
+        }
+    }
+
+    /**
+     * Reads a graph in the adjacency list format with {@link GraphLoader} and adds its
+     * vertices and edges to this graph.
+     *
+     * @param file      the file from which to read the graph
+     * @param converter converts vertex names to vertex values
+     * @throws IOException if an error occurs while reading the file
+     */
+    @Override
+    public void readFromFile(File file, Function<String, T> converter) throws IOException {
+        try {
+            GraphLoader.loadInto(file.toPath(), converter, false, this);
+        } catch (IOException e) {
+            throw new IOException("Error reading the graph from file", e);
+        }
+    }
+
+    /**
+     * Checks if this graph is equal to another object. Two concurrent graphs are equal if
+     * their snapshots are equal.
+     *
+     * @param obj the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return snapshot().equals(((ConcurrentGraph<?>) obj).snapshot());
+    }
+
+    /**
+     * Generates a hash code for this graph from the current segments of its vertices, without
+     * taking a snapshot. It is the hash code of a snapshot taken at the same time, and does
+     * not depend on vertex ids or edge order.
+     *
+     * @return a hash code value for this graph
+     */
+    @Override
+    public int hashCode() {
+        Index<T> current = index;
+        int hash = 0;
+        for (int id = 0; id < current.count; id++) {
+            Node<T> node = current.table[id];
+            int neighbors = 0;
+            for (Vertex<T> neighbor : node.segment) {
+                neighbors += neighbor.hashCode();
+            }
+            hash += 31 * node.vertex.hashCode() + neighbors;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a string representation of the current segments of the vertices in the format
+     * of {@link CsrGraph}, without taking a snapshot.
+     *
+     * @return a string representation of the graph
+     */
+    @Override
+    public String toString() {
+        Index<T> current = index;
+        StringBuilder builder = new StringBuilder();
+        for (int id = 0; id < current.count; id++) {
+            Node<T> node = current.table[id];
+            builder.append(node.vertex).append(": ").append(node.segment).append("\n");
+        }
+        return builder.toString();
+    }
+
+    private void changed(Node<T> node) {
+        if (node.enqueue()) {
+            dirty.add(node);
+        }
+        version.incrementAndGet();
+    }
+
+    private Node<T> nodeOf(Vertex<T> vertex) {
+        Index<T> current = index;
+        Node<T> node = current.nodes.get(vertex);
+        if (node != null) {
+            return node;
+        }
+        synchronized (vertexLock) {
+            node = current.nodes.get(vertex);
+            if (node == null) {
+                node = new Node<>(vertex, current.count);
+                current.add(node);
+                version.incrementAndGet();
+            }
+            return node;
+        }
+    }
+
+    private record Snapshot<T>(long version, CsrGraph<T> graph) {
+    }
+
+    private record Captured<T>(Node<T> node, Segment<T> segment) {
+    }
+
+    /**
+     * The dictionary of the vertices and the table of their nodes by id. Vertices are only
+     * appended; removing a vertex replaces the whole index. The table is published before the
+     * count that covers it, so a reader that reads the count first sees every node below it,
+     * and a node is put in the dictionary last, so its id is always below the count.
+     */
+    private static final class Index<T> {
+        private final Map<Vertex<T>, Node<T>> nodes;
+        private volatile Node<T>[] table;
+        private volatile int count;
+
+        @SuppressWarnings("unchecked")
+        Index(Map<Vertex<T>, Node<T>> nodes, int capacity) {
+            this.nodes = nodes;
+            this.table = (Node<T>[]) new Node<?>[Math.max(4, capacity)];
+        }
+
+        /**
+         * Appends a node; called under the vertex lock or the write lock.
+         */
+        void add(Node<T> node) {
+            Node<T>[] current = table;
+            int size = count;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size + (size >> 1));
+            }
+            current[size] = node;
+            table = current;
+            count = size + 1;
+            nodes.put(node.vertex, node);
+        }
+
+        List<Vertex<T>> vertices() {
+            return vertices(count);
+        }
+
+        /**
+         * Returns the first vertices of the table as a list. Slots below the count are never
+         * written again, so the list never changes.
+         */
+        List<Vertex<T>> vertices(int size) {
+            Node<T>[] nodes = table;
+            return new AbstractList<>() {
+                @Override
+                public Vertex<T> get(int index) {
+                    Objects.checkIndex(index, size);
+                    return nodes[index].vertex;
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * A vertex with its id and adjacency list. Writers synchronize on the node; readers only
+     * read the volatile segment. The ids of the neighbors as of the last snapshot belong to
+     * the thread that rebuilds snapshots.
+     */
+    private static final class Node<T> {
+        private final Vertex<T> vertex;
+        private final int id;
+        private Vertex<T>[] array;
+        private volatile Segment<T> segment;
+        private boolean queued;
+        private int[] targets = NO_TARGETS;
+
+        @SuppressWarnings("unchecked")
+        Node(Vertex<T> vertex, int id) {
+            this.vertex = vertex;
+            this.id = id;
+            this.array = (Vertex<T>[]) new Vertex<?>[4];
+            this.segment = new Segment<>(array, 0);
+        }
+
+        /**
+         * Creates a node with a new id and the given neighbors except the removed vertex.
+         */
+        @SuppressWarnings("unchecked")
+        Node(Vertex<T> vertex, int id, Segment<T> neighbors, Vertex<T> removed) {
+            this.vertex = vertex;
+            this.id = id;
+            this.array = (Vertex<T>[]) new Vertex<?>[Math.max(4, neighbors.size())];
+            int size = 0;
+            for (Vertex<T> target : neighbors) {
+                if (!target.equals(removed)) {
+                    array[size++] = target;
+                }
+            }
+            this.segment = new Segment<>(array, size);
+        }
+
+        synchronized void append(Vertex<T> neighbor) {
+            int size = segment.size();
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size] = neighbor;
+            segment = new Segment<>(array, size + 1);
+        }
+
+        synchronized boolean remove(Vertex<T> neighbor) {
+            Segment<T> current = segment;
+            int index = current.indexOf(neighbor);
+            if (index == -1) {
+                return false;
+            }
+            Vertex<T>[] copy = Arrays.copyOf(array, Math.max(4, array.length));
+            System.arraycopy(array, index + 1, copy, index, current.size() - index - 1);
+            array = copy;
+            segment = new Segment<>(array, current.size() - 1);
+            return true;
+        }
+
+        /**
+         * Marks the node as changed since the last snapshot and returns true if it was not
+         * marked yet, in which case the caller queues it.
+         */
+        synchronized boolean enqueue() {
+            if (queued) {
+                return false;
+            }
+            queued = true;
+            return true;
+        }
+    }
+
+    /**
+     * The first {@code size} elements of an array, which are never modified once published.
+     */
+    private static final class Segment<T> extends AbstractList<Vertex<T>> {
+        private final Vertex<T>[] array;
+        private final int size;
+
+        Segment(Vertex<T>[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        @Override
+        public Vertex<T> get(int index) {
+            Objects.checkIndex(index, size);
+            return array[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Represents an immutable directed graph in compressed sparse row (CSR) form.
+ *
+ * <p>Vertices are numbered from 0 in the order they were added. The targets of all edges are
+ * stored in one {@code int} array, grouped by source, and {@code offsets[v]} is the index of
+ * the first edge of vertex {@code v}, so the neighbors of a vertex are a contiguous slice of
+ * the array. The graph takes about 4 bytes per edge plus 4 bytes and one dictionary entry per
+ * vertex. Edges may carry {@code double} weights, which are kept in a separate array parallel
+ * to the targets; edges of an unweighted graph have weight 1. Graphs are created with a
+ * {@link Builder} or copied from another graph; the mutating methods of {@link Graph} throw
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public final class CsrGraph<T> implements Graph<T> {
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+    private final List<Vertex<T>> vertices;
+    private final ToIntFunction<Vertex<T>> ids;
+
+    private CsrGraph(List<Vertex<T>> vertices, ToIntFunction<Vertex<T>> ids, int[] offsets,
+                     int[] targets, double[] weights) {
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates a builder for a new graph.
+     *
+     * @param <T> the type of the vertex values in the graph
+     * @return an empty builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates a CSR copy of the given graph. Vertices keep the order of
+     * {@link Graph#getVertices()} and neighbors keep the order of {@link Graph#getNeighbors}.
+     *
+     * @param graph the graph to copy
+     * @param <T>   the type of the vertex values in the graph
+     * @return an immutable copy of the graph
+     */
+    public static <T> CsrGraph<T> copyOf(Graph<T> graph) {
+        if (graph instanceof CsrGraph<T> csr) {
+            return csr;
+        }
+        if (graph instanceof MappedGraph<T> mapped) {
+            return mapped.toCsrGraph();
+        }
+        Builder<T> builder = new Builder<>();
+        List<Vertex<T>> vertices = graph.getVertices();
+        for (Vertex<T> vertex : vertices) {
+            builder.addVertex(vertex);
+        }
+        for (Vertex<T> vertex : vertices) {
+            graph.forEachNeighbor(vertex, neighbor -> builder.addEdge(vertex, neighbor));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a graph from arrays that are already in CSR form. The arrays are not copied.
+     *
+     * @param vertices the distinct vertices, ordered by id
+     * @param offsets  the index of the first edge of every vertex, followed by the number of
+     *                 edges
+     * @param targets  the ids of the targets of all edges, grouped by source
+     * @param weights  the weights of the edges, parallel to the targets, or null
+     * @param <T>      the type of the vertex values in the graph
+     * @return the graph
+     */
+    static <T> CsrGraph<T> of(List<Vertex<T>> vertices, int[] offsets, int[] targets,
+                              double[] weights) {
+        Map<Vertex<T>, Integer> ids = new HashMap<>();
+        for (int id = 0; id < vertices.size(); id++) {
+            ids.put(vertices.get(id), id);
+        }
+        return new CsrGraph<>(Collections.unmodifiableList(new ArrayList<>(vertices)),
+                lookup(ids), offsets, targets, weights);
+    }
+
+    /**
+     * Creates an unweighted graph from arrays that are already in CSR form and from a lookup
+     * of vertex ids that the caller already maintains, so that no dictionary is built. Nothing
+     * is copied, so the list must not change.
+     *
+     * @param vertices the distinct vertices, ordered by id
+     * @param ids      returns the id of a vertex, or -1 if it is not one of the vertices
+     * @param offsets  the index of the first edge of every vertex, followed by the number of
+     *                 edges
+     * @param targets  the ids of the targets of all edges, grouped by source
+     * @param <T>      the type of the vertex values in the graph
+     * @return the graph
+     */
+    static <T> CsrGraph<T> of(List<Vertex<T>> vertices, ToIntFunction<Vertex<T>> ids,
+                              int[] offsets, int[] targets) {
+        return new CsrGraph<>(vertices, ids, offsets, targets, null);
+    }
+
+    /**
+     * Reads a graph in the adjacency list format used by {@link AdjacencyListGraph}, one vertex
+     * per line: {@code name:[neighbor, neighbor]}, with {@link GraphLoader}.
+     *
+     * @param file      the file from which to read the graph
+     * @param converter converts vertex names to vertex values
+     * @param <T>       the type of the vertex values in the graph
+     * @return the graph read from the file
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static <T> CsrGraph<T> readFrom(File file, Function<String, T> converter)
+            throws IOException {
+        try {
+            return GraphLoader.load(file.toPath(), converter, false);
+        } catch (IOException e) {
+            throw new IOException("Error reading the graph from file", e);
+        }
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the id of the given vertex.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        return ids.applyAsInt(vertex);
+    }
+
+    /**
+     * Returns the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the vertex
+     * @throws IndexOutOfBoundsException if there is no vertex with this id
+     */
+    public Vertex<T> vertexOf(int id) {
+        return vertices.get(id);
+    }
+
+    /**
+     * Returns the number of edges leaving the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the out-degree of the vertex
+     */
+    public int outDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Returns the id of the target of an edge leaving the given vertex.
+     *
+     * @param id    the id of the source vertex
+     * @param index the index of the edge among the edges of the vertex, from 0 to its
+     *              out-degree
+     * @return the id of the target vertex
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int neighborId(int id, int index) {
+        if (index < 0 || index >= outDegree(id)) {
+            throw new IndexOutOfBoundsException("Edge index " + index + " out of range");
+        }
+        return targets[offsets[id] + index];
+    }
+
+    /**
+     * Checks whether the edges of the graph have weights.
+     *
+     * @return true if at least one edge was added with a weight, false otherwise
+     */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Returns the weight of an edge leaving the given vertex.
+     *
+     * @param id    the id of the source vertex
+     * @param index the index of the edge among the edges of the vertex, from 0 to its
+     *              out-degree
+     * @return the weight of the edge, or 1 if the graph is unweighted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double weight(int id, int index) {
+        if (index < 0 || index >= outDegree(id)) {
+            throw new IndexOutOfBoundsException("Edge index " + index + " out of range");
+        }
+        return weights == null ? 1 : weights[offsets[id] + index];
+    }
+
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        throw immutable();
+    }
+
+    @Override
+    public void addEdge(Edge<T> edge) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeEdge(Edge<T> edge) {
+        throw immutable();
+    }
+
+    /**
+     * Retrieves the neighbors of a specified vertex in a new list that the caller may modify.
+     *
+     * @param vertex the vertex for which neighboring vertices are to be retrieved
+     * @return a list of neighboring vertices, or null if the specified vertex is not present
+     *     in the graph
+     */
+    @Override
+    public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        List<Vertex<T>> neighbors = neighborsView(vertex);
+        return neighbors == null ? null : new ArrayList<>(neighbors);
+    }
+
+    /**
+     * Returns a read-only view of the slice of the target array that holds the neighbors of a
+     * vertex, so no copy is made.
+     *
+     * @param vertex the vertex whose neighbors are to be retrieved
+     * @return the neighbors of the vertex, or null if the vertex is not in the graph
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        int id = idOf(vertex);
+        if (id == -1) {
+            return null;
+        }
+        int start = offsets[id];
+        int size = offsets[id + 1] - start;
+        return new AbstractList<>() {
+            @Override
+            public Vertex<T> get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of range");
+                }
+                return vertices.get(targets[start + index]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id,
+     * directly on the target array.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+            action.accept(targets[e]);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable list of all vertices in the graph, ordered by id.
+     *
+     * @return a list of vertices in the graph
+     */
+    @Override
+    public List<Vertex<T>> getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Always fails, since the graph is immutable; use {@link #readFrom(File, Function)}.
+     *
+     * @param file      the file from which to read the graph
+     * @param converter converts vertex names to vertex values
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void readFromFile(File file, Function<String, T> converter) {
+        throw immutable();
+    }
+
+    /**
+     * Checks if this graph is equal to another object. Two CSR graphs are equal if they have
+     * the same vertices and every vertex has the same neighbors with the same multiplicities,
+     * regardless of vertex ids and edge order. Like the other graphs, equality is structural
+     * and does not compare edge weights.
+     *
+     * @param obj the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        CsrGraph<T> that = (CsrGraph<T>) obj;
+        if (vertexCount() != that.vertexCount() || edgeCount() != that.edgeCount()) {
+            return false;
+        }
+        int[] mapping = new int[vertexCount()];
+        for (int id = 0; id < mapping.length; id++) {
+            mapping[id] = that.idOf(vertices.get(id));
+            if (mapping[id] == -1) {
+                return false;
+            }
+        }
+        for (int id = 0; id < mapping.length; id++) {
+            int other = mapping[id];
+            if (outDegree(id) != that.outDegree(other)) {
+                return false;
+            }
+            int[] mine = new int[outDegree(id)];
+            for (int k = 0; k < mine.length; k++) {
+                mine[k] = mapping[targets[offsets[id] + k]];
+            }
+            int[] theirs = Arrays.copyOfRange(that.targets, that.offsets[other],
+                    that.offsets[other + 1]);
+            Arrays.sort(mine);
+            Arrays.sort(theirs);
+            if (!Arrays.equals(mine, theirs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a hash code for this graph that does not depend on vertex ids or edge order.
+     *
+     * @return a hash code value for this graph
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int id = 0; id < vertexCount(); id++) {
+            int neighbors = 0;
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                neighbors += vertices.get(targets[i]).hashCode();
+            }
+            hash += 31 * vertices.get(id).hashCode() + neighbors;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a string representation of the graph, one vertex per line in the format
+     * {@code vertex: [neighbor, neighbor]}.
+     *
+     * @return a string representation of the graph
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int id = 0; id < vertexCount(); id++) {
+            builder.append(vertices.get(id)).append(": [");
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (i > offsets[id]) {
+                    builder.append(", ");
+                }
+                builder.append(vertices.get(targets[i]));
+            }
+            builder.append("]\n");
+        }
+        return builder.toString();
+    }
+
+    private static <T> ToIntFunction<Vertex<T>> lookup(Map<Vertex<T>, Integer> ids) {
+        return vertex -> ids.getOrDefault(vertex, -1);
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Collects vertices and edges and freezes them into a {@link CsrGraph}. Edges are kept
+     * as two growable arrays of vertex ids, plus an array of weights once the first weighted
+     * edge is added, and grouped by source with a counting sort when
+     * the graph is built, so building takes time linear in the size of the graph.
+     *
+     * @param <T> the type of the vertex values in the graph
+     */
+    public static final class Builder<T> {
+        private final List<Vertex<T>> vertices = new ArrayList<>();
+        private final Map<Vertex<T>, Integer> ids = new HashMap<>();
+        private int[] sources = new int[16];
+        private int[] destinations = new int[16];
+        private double[] edgeWeights;
+        private int edgeCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a vertex if it is not in the graph yet.
+         *
+         * @param vertex the vertex to be added
+         * @return this builder
+         */
+        public Builder<T> addVertex(Vertex<T> vertex) {
+            idOf(vertex);
+            return this;
+        }
+
+        /**
+         * Adds a directed edge. Missing vertices are added first.
+         *
+         * @param edge the edge to be added
+         * @return this builder
+         */
+        public Builder<T> addEdge(Edge<T> edge) {
+            return addEdge(edge.getFrom(), edge.getTo());
+        }
+
+        /**
+         * Adds a directed edge between two vertices. Missing vertices are added first.
+         *
+         * @param from the source vertex
+         * @param to   the target vertex
+         * @return this builder
+         */
+        public Builder<T> addEdge(Vertex<T> from, Vertex<T> to) {
+            return addEdge(idOf(from), idOf(to));
+        }
+
+        /**
+         * Adds a directed edge between two vertices given by their ids, which must have been
+         * returned by {@link #idOf(Vertex)}.
+         *
+         * @param source      the id of the source vertex
+         * @param destination the id of the target vertex
+         * @return this builder
+         */
+        Builder<T> addEdge(int source, int destination) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                destinations = Arrays.copyOf(destinations, edgeCount * 2);
+                if (edgeWeights != null) {
+                    edgeWeights = Arrays.copyOf(edgeWeights, edgeCount * 2);
+                }
+            }
+            sources[edgeCount] = source;
+            destinations[edgeCount] = destination;
+            if (edgeWeights != null) {
+                edgeWeights[edgeCount] = 1;
+            }
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Adds a weighted directed edge between two vertices. Missing vertices are added first.
+         * Edges added without a weight have weight 1.
+         *
+         * @param from   the source vertex
+         * @param to     the target vertex
+         * @param weight the weight of the edge
+         * @return this builder
+         * @throws IllegalArgumentException if the weight is NaN
+         */
+        public Builder<T> addEdge(Vertex<T> from, Vertex<T> to, double weight) {
+            if (Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Edge weight is NaN");
+            }
+            if (edgeWeights == null) {
+                edgeWeights = new double[sources.length];
+                Arrays.fill(edgeWeights, 1);
+            }
+            addEdge(from, to);
+            edgeWeights[edgeCount - 1] = weight;
+            return this;
+        }
+
+        /**
+         * Builds the graph. Edges of every vertex keep the order in which they were added.
+         *
+         * @return the immutable graph
+         */
+        public CsrGraph<T> build() {
+            int vertexCount = vertices.size();
+            int[] offsets = new int[vertexCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, vertexCount);
+            int[] targets = new int[edgeCount];
+            double[] weights = edgeWeights == null ? null : new double[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                int position = next[sources[i]]++;
+                targets[position] = destinations[i];
+                if (weights != null) {
+                    weights[position] = edgeWeights[i];
+                }
+            }
+            return new CsrGraph<>(Collections.unmodifiableList(new ArrayList<>(vertices)),
+                    lookup(new HashMap<>(ids)), offsets, targets, weights);
+        }
+
+        /**
+         * Returns the id of a vertex, adding the vertex first if it is not in the graph yet.
+         *
+         * @param vertex the vertex
+         * @return the id of the vertex
+         */
+        int idOf(Vertex<T> vertex) {
+            Integer id = ids.get(vertex);
+            if (id == null) {
+                id = vertices.size();
+                ids.put(vertex, id);
+                vertices.add(vertex);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.List;
+
+/**
+ * Thrown when an operation that needs a directed acyclic graph is given a graph with a cycle.
+ * The exception carries one of the cycles of the graph as a witness.
+ */
+public class CyclicGraphException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<Vertex<?>> cycle;
+
+    /**
+     * Constructs a new exception with the given cycle.
+     *
+     * @param cycle the vertices of the cycle in the order of its edges; there is an edge from
+     *              every vertex to the next one and from the last vertex to the first one
+     */
+    public CyclicGraphException(List<? extends Vertex<?>> cycle) {
+        super("Graph is cyclic");
+        this.cycle = List.copyOf(cycle);
+    }
+
+    /**
+     * Returns the cycle found in the graph. The first vertex is not repeated at the end, so a
+     * self-loop is a cycle of one vertex.
+     *
+     * @return an unmodifiable list of the vertices of the cycle
+     */
+    public List<Vertex<?>> getCycle() {
+        return cycle;
+    }
+}
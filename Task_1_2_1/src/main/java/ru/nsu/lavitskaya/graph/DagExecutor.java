@@ -0,0 +1,115 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Runs a directed acyclic graph of tasks on a {@link ForkJoinPool}.
+ *
+ * <p>Every vertex is a task, and an edge from {@code u} to {@code v} means that {@code v} may
+ * only start after {@code u} has finished. Each vertex keeps an atomic counter of unfinished
+ * predecessors; the task that brings the counter of a successor to zero forks it, so a task
+ * starts as soon as its last predecessor finishes and idle workers steal ready tasks from
+ * busy ones. Unlike running {@link TopologicalSort#layers} one layer at a time, no worker
+ * waits for the slowest task of a layer.</p>
+ */
+public final class DagExecutor {
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an executor that runs tasks on the common pool.
+     */
+    public DagExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an executor that runs tasks on the given pool.
+     *
+     * @param pool the pool to run tasks on
+     */
+    public DagExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the action on every vertex of the graph, starting each vertex after all of its
+     * predecessors, and waits until all actions finish.
+     *
+     * <p>If an action throws an exception, no further actions are started and the exception
+     * is rethrown, possibly as a copy made by the pool with the original as its cause; actions
+     * already running are not interrupted.</p>
+     *
+     * @param graph  the graph of tasks
+     * @param action the action to run on every vertex
+     * @param <T>    the type of the vertex values in the graph
+     * @throws CyclicGraphException if the graph is cyclic; no action is run in this case
+     */
+    public <T> void execute(Graph<T> graph, Consumer<? super Vertex<T>> action) {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        TopologicalSort.order(csr);
+        int[] counts = new int[csr.vertexCount()];
+        for (int target : csr.targets) {
+            counts[target]++;
+        }
+        pool.invoke(new Root<>(csr, counts, action));
+    }
+
+    private static final class Root<T> extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CsrGraph<T> graph;
+        private final int[] inDegree;
+        private final AtomicIntegerArray waiting;
+        private final transient Consumer<? super Vertex<T>> action;
+
+        Root(CsrGraph<T> graph, int[] inDegree, Consumer<? super Vertex<T>> action) {
+            this.graph = graph;
+            this.inDegree = inDegree;
+            this.waiting = new AtomicIntegerArray(inDegree);
+            this.action = action;
+        }
+
+        @Override
+        public void compute() {
+            for (int v = 0; v < inDegree.length; v++) {
+                if (inDegree[v] == 0) {
+                    addToPendingCount(1);
+                    new Task<>(this, this, v).fork();
+                }
+            }
+            tryComplete();
+        }
+    }
+
+    private static final class Task<T> extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final Root<T> root;
+        private final int vertex;
+
+        Task(CountedCompleter<?> parent, Root<T> root, int vertex) {
+            super(parent);
+            this.root = root;
+            this.vertex = vertex;
+        }
+
+        @Override
+        public void compute() {
+            if (!root.isCompletedAbnormally()) {
+                CsrGraph<T> graph = root.graph;
+                root.action.accept(graph.vertexOf(vertex));
+                for (int e = graph.offsets[vertex]; e < graph.offsets[vertex + 1]; e++) {
+                    int target = graph.targets[e];
+                    if (root.waiting.decrementAndGet(target) == 0) {
+                        addToPendingCount(1);
+                        new Task<>(this, root, target).fork();
+                    }
+                }
+            }
+            tryComplete();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains a topological order of a directed acyclic graph while edges are added to it.
+ *
+ * <p>The order is repaired with the algorithm of Pearce and Kelly. An edge that already goes
+ * forward in the order changes nothing. For an edge {@code from -> to} that goes backward,
+ * only the vertices between {@code to} and {@code from} in the order can be affected: a
+ * forward search from {@code to} collects the successors that precede {@code from}, and a
+ * backward search from {@code from} collects the predecessors that follow {@code to}. The
+ * two sets are then placed, predecessors first, into the positions they occupied together,
+ * keeping their relative order. If the forward search reaches {@code from}, the edge would
+ * close a cycle; it is rejected and the graph is left unchanged. An insertion therefore costs
+ * time proportional to the affected region and its edges, not to the whole graph.</p>
+ *
+ * <p>Vertices get int ids in the order in which they are added, and the graph, the order
+ * and the search buffers are kept in primitive arrays indexed by those ids.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public final class DynamicTopologicalOrder<T> {
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Vertex<T>, Integer> ids = new HashMap<>();
+    private final List<Vertex<T>> vertices = new ArrayList<>();
+    private int[][] out = new int[0][];
+    private int[][] in = new int[0][];
+    private int[] outSize = EMPTY;
+    private int[] inSize = EMPTY;
+    private int[] position = EMPTY;
+    private int[] vertexAt = EMPTY;
+    private int[] mark = EMPTY;
+    private int[] parent = EMPTY;
+    private int[] stack = EMPTY;
+    private int[] forward = EMPTY;
+    private int[] backward = EMPTY;
+    private int stamp;
+    private int edgeCount;
+
+    /**
+     * Constructs an empty graph with an empty order.
+     */
+    public DynamicTopologicalOrder() {
+    }
+
+    /**
+     * Constructs a dynamic order that starts with a copy of the given graph, sorted once with
+     * {@link TopologicalSort}.
+     *
+     * @param graph the directed acyclic graph to copy
+     * @param <T>   the type of the vertex values in the graph
+     * @return the dynamic order of the graph
+     * @throws CyclicGraphException if the graph is cyclic
+     */
+    public static <T> DynamicTopologicalOrder<T> of(Graph<T> graph) throws CyclicGraphException {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        DynamicTopologicalOrder<T> result = new DynamicTopologicalOrder<>();
+        for (int v : TopologicalSort.order(csr)) {
+            result.addVertex(csr.vertexOf(v));
+        }
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            int from = result.ids.get(csr.vertexOf(v));
+            for (int index = 0; index < csr.outDegree(v); index++) {
+                result.link(from, result.ids.get(csr.vertexOf(csr.neighborId(v, index))));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Adds a vertex at the end of the order if it is not in the graph yet.
+     *
+     * @param vertex the vertex to be added
+     */
+    public void addVertex(Vertex<T> vertex) {
+        idOf(vertex);
+    }
+
+    /**
+     * Adds a directed edge, adding missing vertices first, and repairs the order.
+     *
+     * @param edge the edge to be added
+     * @throws CyclicGraphException if the edge would create a cycle; the exception holds the
+     *     cycle, which starts with the target of the edge and ends with its source, and the
+     *     edge is not added
+     */
+    public void addEdge(Edge<T> edge) throws CyclicGraphException {
+        int from = idOf(edge.getFrom());
+        int to = idOf(edge.getTo());
+        if (from == to) {
+            throw new CyclicGraphException(List.of(edge.getFrom()));
+        }
+        if (position[from] > position[to]) {
+            reorder(from, to);
+        }
+        link(from, to);
+    }
+
+    /**
+     * Removes one directed edge between two vertices. The order stays valid, so it is not
+     * changed.
+     *
+     * @param edge the edge to be removed
+     */
+    public void removeEdge(Edge<T> edge) {
+        Integer from = ids.get(edge.getFrom());
+        Integer to = ids.get(edge.getTo());
+        if (from == null || to == null || !remove(out, outSize, from, to)) {
+            return;
+        }
+        remove(in, inSize, to, from);
+        edgeCount--;
+    }
+
+    /**
+     * Returns the position of a vertex in the current order.
+     *
+     * @param vertex the vertex
+     * @return the position of the vertex, or -1 if the vertex is not in the graph
+     */
+    public int positionOf(Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : position[id];
+    }
+
+    /**
+     * Returns the vertices in the current topological order.
+     *
+     * @return a new list of all vertices in which every edge goes forward
+     */
+    public List<Vertex<T>> getOrder() {
+        List<Vertex<T>> order = new ArrayList<>(vertices.size());
+        for (int i = 0; i < vertices.size(); i++) {
+            order.add(vertices.get(vertexAt[i]));
+        }
+        return order;
+    }
+
+    /**
+     * Moves the vertices affected by the backward edge {@code from -> to}. Nothing is changed
+     * if the edge would close a cycle.
+     */
+    private void reorder(int from, int to) {
+        int lower = position[to];
+        int upper = position[from];
+        nextStamp();
+
+        int forwardSize = 0;
+        int top = 0;
+        stack[top++] = to;
+        mark[to] = stamp;
+        while (top > 0) {
+            int v = stack[--top];
+            forward[forwardSize++] = v;
+            for (int e = 0; e < outSize[v]; e++) {
+                int w = out[v][e];
+                if (w == from) {
+                    throw new CyclicGraphException(cycle(to, v, from));
+                }
+                if (mark[w] != stamp && position[w] < upper) {
+                    mark[w] = stamp;
+                    parent[w] = v;
+                    stack[top++] = w;
+                }
+            }
+        }
+
+        int backwardSize = 0;
+        stack[top++] = from;
+        mark[from] = stamp;
+        while (top > 0) {
+            int v = stack[--top];
+            backward[backwardSize++] = v;
+            for (int e = 0; e < inSize[v]; e++) {
+                int w = in[v][e];
+                if (mark[w] != stamp && position[w] > lower) {
+                    mark[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+        }
+
+        sortByPosition(forward, forwardSize);
+        sortByPosition(backward, backwardSize);
+        int[] slots = stack;
+        int i = 0;
+        int j = 0;
+        while (i < backwardSize || j < forwardSize) {
+            if (j == forwardSize
+                    || i < backwardSize && position[backward[i]] < position[forward[j]]) {
+                slots[i + j] = position[backward[i++]];
+            } else {
+                slots[i + j] = position[forward[j++]];
+            }
+        }
+        for (int k = 0; k < backwardSize; k++) {
+            place(backward[k], slots[k]);
+        }
+        for (int k = 0; k < forwardSize; k++) {
+            place(forward[k], slots[backwardSize + k]);
+        }
+    }
+
+    private void place(int v, int slot) {
+        position[v] = slot;
+        vertexAt[slot] = v;
+    }
+
+    /**
+     * Sorts the first {@code size} ids by their positions. The positions are distinct, so the
+     * ids are replaced by their positions, sorted as plain ints and mapped back.
+     */
+    private void sortByPosition(int[] buffer, int size) {
+        for (int k = 0; k < size; k++) {
+            buffer[k] = position[buffer[k]];
+        }
+        Arrays.sort(buffer, 0, size);
+        for (int k = 0; k < size; k++) {
+            buffer[k] = vertexAt[buffer[k]];
+        }
+    }
+
+    /**
+     * Builds the cycle {@code to -> ... -> last -> from} from the parent links of the forward
+     * search.
+     */
+    private List<Vertex<T>> cycle(int to, int last, int from) {
+        List<Vertex<T>> cycle = new ArrayList<>();
+        cycle.add(vertices.get(from));
+        for (int v = last; v != to; v = parent[v]) {
+            cycle.add(vertices.get(v));
+        }
+        cycle.add(vertices.get(to));
+        return cycle.reversed();
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+    }
+
+    private void link(int from, int to) {
+        append(out, outSize, from, to);
+        append(in, inSize, to, from);
+        edgeCount++;
+    }
+
+    private static void append(int[][] lists, int[] sizes, int v, int w) {
+        if (sizes[v] == lists[v].length) {
+            lists[v] = Arrays.copyOf(lists[v], Math.max(4, sizes[v] * 2));
+        }
+        lists[v][sizes[v]++] = w;
+    }
+
+    private static boolean remove(int[][] lists, int[] sizes, int v, int w) {
+        int[] list = lists[v];
+        for (int e = 0; e < sizes[v]; e++) {
+            if (list[e] == w) {
+                System.arraycopy(list, e + 1, list, e, sizes[v] - e - 1);
+                sizes[v]--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int idOf(Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        if (id != null) {
+            return id;
+        }
+        int v = vertices.size();
+        if (v == position.length) {
+            grow(Math.max(16, v * 2));
+        }
+        ids.put(vertex, v);
+        vertices.add(vertex);
+        out[v] = EMPTY;
+        in[v] = EMPTY;
+        place(v, v);
+        return v;
+    }
+
+    private void grow(int capacity) {
+        out = Arrays.copyOf(out, capacity);
+        in = Arrays.copyOf(in, capacity);
+        outSize = Arrays.copyOf(outSize, capacity);
+        inSize = Arrays.copyOf(inSize, capacity);
+        position = Arrays.copyOf(position, capacity);
+        vertexAt = Arrays.copyOf(vertexAt, capacity);
+        mark = Arrays.copyOf(mark, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        stack = new int[capacity];
+        forward = new int[capacity];
+        backward = new int[capacity];
+    }
+}
@@ -2,8 +2,13 @@ package ru.nsu.lavitskaya.graph;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a generic graph interface.
@@ -12,6 +17,11 @@ import java.util.function.Function;
  * including adding and removing vertices and edges, retrieving neighbors,
  * reading a graph from a file, and checking for equality and hash codes.</p>
  *
+ * <p>{@link #getNeighbors} returns a list the caller owns. Traversals that only read the
+ * neighbors should use {@link #neighborsView} or {@link #forEachNeighbor}, which
+ * implementations provide without copying. Vertices also have int ids, their positions in
+ * {@link #getVertices()}, for algorithms that keep per-vertex state in arrays.</p>
+ *
  * @param <T> the type of the vertex values in the graph
  */
 public interface Graph<T> {
@@ -21,12 +31,75 @@ public interface Graph<T> {
 
     void addEdge(Edge<T> edge);
 
+    /**
+     * Adds several edges to the graph. Implementations that store edges in arrays may
+     * override this method to resize them only once.
+     *
+     * @param edges the edges to be added
+     */
+    default void addEdges(Collection<Edge<T>> edges) {
+        for (Edge<T> edge : edges) {
+            addEdge(edge);
+        }
+    }
+
     void removeEdge(Edge<T> edge);
 
     List<Vertex<T>> getNeighbors(Vertex<T> vertex);
 
     List<Vertex<T>> getVertices();
 
+    /**
+     * Returns an unmodifiable view of the neighbors of a vertex. The view may reflect later
+     * changes of the graph and must not be used after the graph is modified.
+     *
+     * @param vertex the vertex whose neighbors are to be retrieved
+     * @return the neighbors of the vertex, or null if the vertex is not in the graph
+     */
+    default List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        List<Vertex<T>> neighbors = getNeighbors(vertex);
+        return neighbors == null ? null : Collections.unmodifiableList(neighbors);
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex, once per edge. Does nothing if the
+     * vertex is not in the graph.
+     *
+     * @param vertex the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    default void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        List<Vertex<T>> neighbors = neighborsView(vertex);
+        if (neighbors != null) {
+            neighbors.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id, once
+     * per edge.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     * @throws IndexOutOfBoundsException if there is no vertex with this id
+     */
+    default void forEachNeighbor(int id, IntConsumer action) {
+        List<Vertex<T>> vertices = getVertices();
+        Objects.checkIndex(id, vertices.size());
+        forEachNeighbor(vertices.get(id), neighbor -> action.accept(idOf(neighbor)));
+    }
+
+    /**
+     * Returns the id of a vertex, which is its position in {@link #getVertices()}. Ids change
+     * when vertices are removed.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    default int idOf(Vertex<T> vertex) {
+        return getVertices().indexOf(vertex);
+    }
+
     void readFromFile(File file, Function<String, T> converter) throws IOException;
 
     @Override
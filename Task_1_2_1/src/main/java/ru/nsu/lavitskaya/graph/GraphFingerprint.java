@@ -0,0 +1,45 @@
+package ru.nsu.lavitskaya.graph;
+
+/**
+ * Hashes for order-independent fingerprints of graphs.
+ *
+ * <p>The fingerprint of a graph is the sum, modulo 2^64, of the hashes of its vertices and of
+ * its edges. Addition is commutative and can be undone by subtraction, so a graph can keep its
+ * fingerprint up to date in O(1) per change, and two graphs with the same vertices and the
+ * same multiset of edges have the same fingerprint whatever the order of their updates. The
+ * hashes are passed through the SplitMix64 finalizer, so a difference in any bit of a vertex
+ * hash changes about half of the bits of the fingerprint.</p>
+ */
+final class GraphFingerprint {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private GraphFingerprint() {
+    }
+
+    /**
+     * Returns the hash of a vertex.
+     *
+     * @param vertex the vertex
+     * @return the hash to add to the fingerprint
+     */
+    static long vertex(Vertex<?> vertex) {
+        return mix(vertex.hashCode());
+    }
+
+    /**
+     * Returns the hash of a directed edge. It depends on the direction of the edge.
+     *
+     * @param from the source vertex
+     * @param to   the target vertex
+     * @return the hash to add to the fingerprint
+     */
+    static long edge(Vertex<?> from, Vertex<?> to) {
+        return mix(from.hashCode() * GOLDEN_GAMMA + mix(to.hashCode() + GOLDEN_GAMMA));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,441 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Loads graphs from files in the adjacency list format of {@link AdjacencyListGraph}, one vertex
+ * per line: {@code name:[neighbor, neighbor]}.
+ *
+ * <p>The file is memory-mapped and parsed as bytes, without creating a string per line or per
+ * token. It is split at line boundaries into chunks that can be parsed in parallel; every
+ * chunk interns the names it meets in a hash table over the mapped bytes and records its edges
+ * as pairs of local name ids in {@code int} arrays. The chunks are then merged in file order:
+ * each distinct name is decoded, passed to the converter and turned into a {@link Vertex}
+ * once, and the edges go straight from the chunks into a {@link CsrGraph.Builder} by vertex id
+ * or into the target graph. Vertices and edges come out in the same order as when the file is
+ * read line by line.</p>
+ *
+ * <p>The format is read as leniently as the line-by-line reader that {@link GraphLoader}
+ * replaced:</p>
+ * <ul>
+ *     <li>The name ends at the last colon before the first {@code [} of the line, so names
+ *     may contain colons; neighbor names may contain them too.</li>
+ *     <li>A line whose text after the colon is not a bracketed list adds the vertex without
+ *     edges.</li>
+ *     <li>Empty entries in the list, such as the one after a trailing comma in
+ *     {@code A:[B,]}, are ignored.</li>
+ *     <li>Blank lines are skipped.</li>
+ * </ul>
+ *
+ * <p>A line without a colon, or with an empty name, is an error. Unlike the old reader, an
+ * empty neighbor name between two commas does not create a vertex with an empty name.</p>
+ */
+public final class GraphLoader {
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+
+    private GraphLoader() {
+    }
+
+    /**
+     * Loads a graph from a file into a {@link CsrGraph}.
+     *
+     * @param file      the file to load
+     * @param converter converts vertex names to vertex values; it is called once per
+     *                  distinct name, from the calling thread
+     * @param parallel  whether to parse chunks of the file in parallel
+     * @param <T>       the type of the vertex values in the graph
+     * @return the graph read from the file
+     * @throws IOException if an error occurs while reading the file or a line is malformed
+     */
+    public static <T> CsrGraph<T> load(Path file, Function<String, T> converter,
+                                       boolean parallel) throws IOException {
+        return load(file, converter, parallel, 0);
+    }
+
+    /**
+     * Loads a graph from a file with the given chunk size; a chunk size of 0 picks one from
+     * the size of the file.
+     */
+    static <T> CsrGraph<T> load(Path file, Function<String, T> converter, boolean parallel,
+                                long chunkSize) throws IOException {
+        List<Chunk> chunks = parse(file, parallel, chunkSize);
+        List<Vertex<T>> vertices = vertices(chunks, converter);
+        CsrGraph.Builder<T> builder = CsrGraph.builder();
+        for (Vertex<T> vertex : vertices) {
+            builder.addVertex(vertex);
+        }
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.edgeCount; i++) {
+                builder.addEdge(chunk.ids[chunk.sources[i]], chunk.ids[chunk.targets[i]]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads a graph from a file and adds its vertices and edges to the given graph. The edges
+     * are added with a single call to {@link Graph#addEdges}, in the order of the file; the
+     * collection passed to it creates every {@link Edge} only when it is iterated, straight
+     * from the parsed chunks, so no copy of the graph is built on the way.
+     *
+     * @param file      the file to load
+     * @param converter converts vertex names to vertex values; it is called once per
+     *                  distinct name, from the calling thread
+     * @param parallel  whether to parse chunks of the file in parallel
+     * @param graph     the graph to fill
+     * @param <T>       the type of the vertex values in the graph
+     * @param <G>       the type of the graph
+     * @return the given graph
+     * @throws IOException if an error occurs while reading the file or a line is malformed
+     */
+    public static <T, G extends Graph<T>> G loadInto(Path file, Function<String, T> converter,
+                                                     boolean parallel, G graph)
+            throws IOException {
+        List<Chunk> chunks = parse(file, parallel, 0);
+        List<Vertex<T>> vertices = vertices(chunks, converter);
+        for (Vertex<T> vertex : vertices) {
+            graph.addVertex(vertex);
+        }
+        int edgeCount = 0;
+        for (Chunk chunk : chunks) {
+            edgeCount += chunk.edgeCount;
+        }
+        int size = edgeCount;
+        graph.addEdges(new AbstractCollection<>() {
+            @Override
+            public Iterator<Edge<T>> iterator() {
+                return new Iterator<>() {
+                    private int chunk;
+                    private int edge;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (chunk < chunks.size() && edge == chunks.get(chunk).edgeCount) {
+                            chunk++;
+                            edge = 0;
+                        }
+                        return chunk < chunks.size();
+                    }
+
+                    @Override
+                    public Edge<T> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Chunk current = chunks.get(chunk);
+                        int from = current.ids[current.sources[edge]];
+                        int to = current.ids[current.targets[edge]];
+                        edge++;
+                        return new Edge<>(vertices.get(from), vertices.get(to));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        });
+        return graph;
+    }
+
+    private static List<Chunk> parse(Path file, boolean parallel, long chunkSize)
+            throws IOException {
+        List<Chunk> chunks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (chunkSize == 0) {
+                int parts = parallel ? 4 * Runtime.getRuntime().availableProcessors() : 1;
+                chunkSize = Math.clamp(size / parts, MIN_CHUNK_SIZE, MAX_CHUNK_SIZE);
+            }
+            long[] bounds = split(channel, size, chunkSize);
+            IntStream indices = IntStream.range(0, bounds.length - 1);
+            if (parallel) {
+                indices = indices.parallel();
+            }
+            chunks = indices.mapToObj(i -> parse(channel, bounds[i], bounds[i + 1])).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return chunks;
+    }
+
+    /**
+     * Splits the file into ranges of about the given size that end right after a line break.
+     */
+    private static long[] split(FileChannel channel, long size, long chunkSize)
+            throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long start = 0;
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        while (size - start > chunkSize) {
+            long end = start + chunkSize;
+            boolean found = false;
+            while (!found && end < size) {
+                window.clear();
+                int read = channel.read(window, end);
+                for (int i = 0; i < read && !found; i++) {
+                    if (window.get(i) == '\n') {
+                        end += i + 1;
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    end += read;
+                }
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at offset " + start);
+            }
+            bounds.add(end);
+            start = end;
+        }
+        if (start < size) {
+            bounds.add(size);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    end - start);
+            Chunk chunk = new Chunk(buffer);
+            chunk.parse();
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Merges the names of the chunks in file order: decodes and converts each distinct name
+     * once, stores the global vertex id of every local name in {@link Chunk#ids}, and returns
+     * the vertices by id. Names that convert to equal vertices share an id.
+     */
+    private static <T> List<Vertex<T>> vertices(List<Chunk> chunks,
+                                                Function<String, T> converter) {
+        List<Vertex<T>> vertices = new ArrayList<>();
+        Map<String, Integer> names = new HashMap<>();
+        Map<Vertex<T>, Integer> ids = new HashMap<>();
+        for (Chunk chunk : chunks) {
+            String[] local = chunk.names();
+            chunk.ids = new int[local.length];
+            for (int i = 0; i < local.length; i++) {
+                Integer id = names.get(local[i]);
+                if (id == null) {
+                    Vertex<T> vertex = new Vertex<>(converter.apply(local[i]));
+                    id = ids.get(vertex);
+                    if (id == null) {
+                        id = vertices.size();
+                        vertices.add(vertex);
+                        ids.put(vertex, id);
+                    }
+                    names.put(local[i], id);
+                }
+                chunk.ids[i] = id;
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * The names and edges of one chunk of the file. Names are identified by local ids in the
+     * order of their first appearance in the chunk.
+     */
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private int[] slots = new int[1024];
+        private int[] nameStarts = new int[256];
+        private int[] nameLengths = new int[256];
+        private int[] nameHashes = new int[256];
+        private int nameCount;
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int edgeCount;
+        private int[] ids;
+
+        Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void parse() throws IOException {
+            int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                parseLine(lineStart, lineEnd);
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        private void parseLine(int start, int end) throws IOException {
+            start = skipSpaces(start, end);
+            end = trimSpaces(start, end);
+            if (start == end) {
+                return;
+            }
+            int bracket = start;
+            while (bracket < end && buffer.get(bracket) != '[') {
+                bracket++;
+            }
+            int colon = bracket - 1;
+            while (colon >= start && buffer.get(colon) != ':') {
+                colon--;
+            }
+            if (colon < start) {
+                colon = bracket;
+                while (colon < end && buffer.get(colon) != ':') {
+                    colon++;
+                }
+                if (colon == end) {
+                    throw invalidLine(start, end);
+                }
+            }
+            int source = intern(start, trimSpaces(start, colon), start, end);
+
+            int listStart = skipSpaces(colon + 1, end);
+            if (end - listStart < 2 || buffer.get(listStart) != '['
+                    || buffer.get(end - 1) != ']') {
+                return;
+            }
+            int tokenStart = listStart + 1;
+            for (int i = tokenStart; i <= end - 1; i++) {
+                if (i == end - 1 || buffer.get(i) == ',') {
+                    int from = skipSpaces(tokenStart, i);
+                    int to = trimSpaces(from, i);
+                    if (from < to) {
+                        addEdge(source, intern(from, to, start, end));
+                    }
+                    tokenStart = i + 1;
+                }
+            }
+        }
+
+        private int intern(int from, int to, int lineStart, int lineEnd) throws IOException {
+            if (from == to) {
+                throw invalidLine(lineStart, lineEnd);
+            }
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int mask = slots.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (slots[slot] != 0) {
+                int id = slots[slot] - 1;
+                if (nameHashes[id] == hash && sameBytes(nameStarts[id], nameLengths[id], from,
+                        to - from)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int id = nameCount++;
+            if (id == nameStarts.length) {
+                nameStarts = Arrays.copyOf(nameStarts, id * 2);
+                nameLengths = Arrays.copyOf(nameLengths, id * 2);
+                nameHashes = Arrays.copyOf(nameHashes, id * 2);
+            }
+            nameStarts[id] = from;
+            nameLengths[id] = to - from;
+            nameHashes[id] = hash;
+            slots[slot] = id + 1;
+            if (2 * nameCount > slots.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < nameCount; id++) {
+                int slot = (nameHashes[id] ^ (nameHashes[id] >>> 16)) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+
+        private boolean sameBytes(int first, int firstLength, int second, int secondLength) {
+            if (firstLength != secondLength) {
+                return false;
+            }
+            for (int i = 0; i < firstLength; i++) {
+                if (buffer.get(first + i) != buffer.get(second + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void addEdge(int source, int target) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            edgeCount++;
+        }
+
+        String[] names() {
+            String[] names = new String[nameCount];
+            for (int id = 0; id < nameCount; id++) {
+                names[id] = decode(nameStarts[id], nameStarts[id] + nameLengths[id]);
+            }
+            return names;
+        }
+
+        private IOException invalidLine(int start, int end) {
+            return new IOException("Invalid line format: " + decode(start, end));
+        }
+
+        private String decode(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int skipSpaces(int from, int to) {
+            while (from < to && isSpace(buffer.get(from))) {
+                from++;
+            }
+            return from;
+        }
+
+        private int trimSpaces(int from, int to) {
+            while (to > from && isSpace(buffer.get(to - 1))) {
+                to--;
+            }
+            return to;
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+}
@@ -4,24 +4,35 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a graph using an incidence matrix representation.
  *
+ * <p>Both dimensions of the matrix have room to spare and grow geometrically: the array of
+ * rows when a vertex is added to a full one, and every row when an edge column is added past
+ * the capacity. Only the first {@code vertices.size()} rows and {@code edges.size()} columns
+ * are in use.</p>
+ *
  * @param <T> the type of the vertex values in the graph
  */
 public class IncidenceMatrixGraph<T> implements Graph<T> {
     private List<Vertex<T>> vertices;
     private List<Edge<T>> edges;
+    private Map<Vertex<T>, Integer> indices;
     private int[][] incidenceMatrix;
+    private int capacity;
 
     /**
      * Constructs an empty IncidenceMatrixGraph.
@@ -29,7 +40,9 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
     public IncidenceMatrixGraph() {
         vertices = new ArrayList<>();
         edges = new ArrayList<>();
+        indices = new HashMap<>();
         incidenceMatrix = new int[0][0];
+        capacity = 0;
     }
 
     /**
@@ -39,85 +52,94 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
      */
     @Override
     public void addVertex(Vertex<T> vertex) {
-        int index = vertices.indexOf(vertex);
+        int index = indexOf(vertex);
         if (index == -1) {
-            vertices.add(vertex);
-            int newSize = vertices.size();
-            int[][] newMatrix = new int[newSize][edges.size()];
-
-            for (int i = 0; i < newSize - 1; i++) {
-                newMatrix[i] = Arrays.copyOf(incidenceMatrix[i], edges.size());
+            int size = vertices.size();
+            if (size == incidenceMatrix.length) {
+                incidenceMatrix = Arrays.copyOf(incidenceMatrix, Math.max(4, size * 2));
             }
-            incidenceMatrix = newMatrix;
+            incidenceMatrix[size] = new int[capacity];
+            indices.put(vertex, size);
+            vertices.add(vertex);
         }
-
     }
 
     /**
-     * Removes a vertex from the graph.
+     * Removes a vertex from the graph together with all edges incident to it. The remaining
+     * edge columns are compacted in a single pass over the matrix.
      *
      * @param vertex the vertex to be removed
      */
     @Override
     public void removeVertex(Vertex<T> vertex) {
-        int index = vertices.indexOf(vertex);
+        int index = indexOf(vertex);
         if (index != -1) {
-            List<Edge<T>> edgesToRemove = new ArrayList<>();
-            for (Edge<T> edge : edges) {
-                if (edge.getFrom().equals(vertex) || edge.getTo().equals(vertex)) {
-                    edgesToRemove.add(edge);
+            int[] row = incidenceMatrix[index];
+            int kept = 0;
+            for (int j = 0; j < edges.size(); j++) {
+                if (row[j] != 0) {
+                    continue;
                 }
+                if (kept != j) {
+                    for (int i = 0; i < vertices.size(); i++) {
+                        incidenceMatrix[i][kept] = incidenceMatrix[i][j];
+                    }
+                    edges.set(kept, edges.get(j));
+                }
+                kept++;
             }
-            for (Edge<T> edge : edgesToRemove) {
-                removeEdge(edge);
+            for (int i = 0; i < vertices.size(); i++) {
+                Arrays.fill(incidenceMatrix[i], kept, edges.size(), 0);
             }
-            vertices.remove(index);
-            int newSize = vertices.size();
-            int[][] newMatrix = new int[newSize][edges.size()];
+            edges.subList(kept, edges.size()).clear();
 
-            for (int i = 0, newRow = 0; i < incidenceMatrix.length; i++) {
-                if (i != index) {
-                    for (int j = 0; j < edges.size(); j++) {
-                        newMatrix[newRow][j] = incidenceMatrix[i][j];
-                    }
-                    newRow++;
-                }
+            vertices.remove(index);
+            indices.remove(vertex);
+            for (int i = index; i < vertices.size(); i++) {
+                indices.put(vertices.get(i), i);
             }
-            incidenceMatrix = newMatrix;
+            System.arraycopy(incidenceMatrix, index + 1, incidenceMatrix, index,
+                    vertices.size() - index);
+            incidenceMatrix[vertices.size()] = null;
         }
     }
 
     /**
-     * Adds an edge to the graph.
+     * Adds an edge to the graph. The edge dimension of the matrix grows geometrically, so
+     * adding an edge takes amortized O(V) time.
      *
      * @param edge the edge to be added
      */
     @Override
     public void addEdge(Edge<T> edge) {
-        int fromIndex = vertices.indexOf(edge.getFrom());
-        int toIndex = vertices.indexOf(edge.getTo());
-        if (fromIndex == -1) {
+        addVertex(edge.getFrom());
+        addVertex(edge.getTo());
+        ensureCapacity(edges.size() + 1);
+        setColumn(edges.size(), edge);
+        edges.add(edge);
+    }
+
+    /**
+     * Adds several edges to the graph at once. Missing vertices are added first and the
+     * matrix is resized at most once.
+     *
+     * @param newEdges the edges to be added
+     */
+    @Override
+    public void addEdges(Collection<Edge<T>> newEdges) {
+        for (Edge<T> edge : newEdges) {
             addVertex(edge.getFrom());
-            fromIndex = vertices.indexOf(edge.getFrom());
-        }
-        if (toIndex == -1) {
             addVertex(edge.getTo());
-            toIndex = vertices.indexOf(edge.getTo());
         }
-        edges.add(edge);
-        int newSize = edges.size();
-        int[][] newMatrix = new int[vertices.size()][newSize];
-        for (int i = 0; i < vertices.size(); i++) {
-            newMatrix[i] = Arrays.copyOf(incidenceMatrix[i], newSize);
+        ensureCapacity(edges.size() + newEdges.size());
+        for (Edge<T> edge : newEdges) {
+            setColumn(edges.size(), edge);
+            edges.add(edge);
         }
-        incidenceMatrix = newMatrix;
-        incidenceMatrix[fromIndex][newSize - 1] = 1;
-        incidenceMatrix[toIndex][newSize - 1] = -1;
-
     }
 
     /**
-     * Removes an edge from the graph.
+     * Removes an edge from the graph. The columns after it are shifted left in place.
      *
      * @param edge the edge to be removed
      */
@@ -127,16 +149,11 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
         if (edgeIndex != -1) {
             edges.remove(edgeIndex);
             int newSize = edges.size();
-            int[][] newMatrix = new int[vertices.size()][newSize];
-            for (int i = 0; i < incidenceMatrix.length; i++) {
-                for (int j = 0, newCol = 0; j < incidenceMatrix[i].length; j++) {
-                    if (j != edgeIndex) {
-                        newMatrix[i][newCol] = incidenceMatrix[i][j];
-                        newCol++;
-                    }
-                }
+            for (int i = 0; i < vertices.size(); i++) {
+                int[] row = incidenceMatrix[i];
+                System.arraycopy(row, edgeIndex + 1, row, edgeIndex, newSize - edgeIndex);
+                row[newSize] = 0;
             }
-            incidenceMatrix = newMatrix;
         }
     }
 
@@ -149,7 +166,7 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
      */
     @Override
     public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
-        int vertexIndex = vertices.indexOf(vertex);
+        int vertexIndex = indexOf(vertex);
         if (vertexIndex == -1) {
             return null;
         }
@@ -163,6 +180,99 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
         return neighbors;
     }
 
+    /**
+     * Returns an unmodifiable view of the neighbors of a vertex: the targets of the edges
+     * whose column has 1 in the row of the vertex. Iterating over the view scans the row once.
+     *
+     * @param vertex The vertex whose neighbors are to be retrieved.
+     * @return The neighbors of the vertex, or null if the vertex is not in the graph.
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        int vertexIndex = indexOf(vertex);
+        if (vertexIndex == -1) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public Vertex<T> get(int position) {
+                int[] row = incidenceMatrix[vertexIndex];
+                int remaining = position;
+                for (int j = 0; j < edges.size() && remaining >= 0; j++) {
+                    if (row[j] == 1 && remaining-- == 0) {
+                        return edges.get(j).getTo();
+                    }
+                }
+                throw new IndexOutOfBoundsException("Index " + position + " out of range");
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int j = 0; j < edges.size(); j++) {
+                    if (incidenceMatrix[vertexIndex][j] == 1) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+
+            @Override
+            public void forEach(Consumer<? super Vertex<T>> action) {
+                forEachNeighbor(vertex, action);
+            }
+        };
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex by scanning its matrix row.
+     *
+     * @param vertex The vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        int vertexIndex = indexOf(vertex);
+        if (vertexIndex == -1) {
+            return;
+        }
+        int[] row = incidenceMatrix[vertexIndex];
+        for (int j = 0; j < edges.size(); j++) {
+            if (row[j] == 1) {
+                action.accept(edges.get(j).getTo());
+            }
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id by
+     * scanning its matrix row.
+     *
+     * @param id     The id of the vertex whose neighbors are to be visited.
+     * @param action The action to perform.
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertices.size());
+        int[] row = incidenceMatrix[id];
+        for (int j = 0; j < edges.size(); j++) {
+            if (row[j] == 1) {
+                action.accept(indexOf(edges.get(j).getTo()));
+            }
+        }
+    }
+
+    /**
+     * Returns the id of a vertex, which is the index of its matrix row.
+     *
+     * @param vertex The vertex.
+     * @return The id of the vertex, or -1 if the vertex is not in the graph.
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        return indexOf(vertex);
+    }
+
     /**
      * Returns an unmodifiable list of all vertices in the graph.
      *
@@ -210,6 +320,7 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
             for (Vertex<T> v : vertexList) {
                 addVertex(v);
             }
+            List<Edge<T>> edgeList = new ArrayList<>();
             for (int edgeIndex = 0; edgeIndex < countOfEdges; edgeIndex++) {
                 Vertex<T> fromVertex = null;
                 Vertex<T> toVertex = null;
@@ -222,9 +333,10 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
                     }
                 }
                 if (fromVertex != null && toVertex != null) {
-                    addEdge(new Edge<>(fromVertex, toVertex));
+                    edgeList.add(new Edge<>(fromVertex, toVertex));
                 }
             }
+            addEdges(edgeList);
 
         } catch (IOException e) {
             throw new IOException("Error reading the graph from file", e);
@@ -277,12 +389,21 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
     }
 
     /**
-     * Generates a hash code for this graph.
+     * Generates a hash code for this graph that does not depend on the order of vertices or
+     * edges, like the one of {@link SparseIncidenceMatrixGraph}.
      *
      * @return a hash code value for this graph
      */
+    @Override
     public int hashCode() {
-        return Objects.hash(edges, vertices);
+        int hash = 0;
+        for (Vertex<T> vertex : vertices) {
+            hash += 31 * vertex.hashCode();
+        }
+        for (Edge<T> edge : edges) {
+            hash += edge.getTo().hashCode();
+        }
+        return hash;
     }
 
     /**
@@ -304,4 +425,41 @@ public class IncidenceMatrixGraph<T> implements Graph<T> {
 
         return builder.toString();
     }
+
+    /**
+     * Makes room for at least the given number of edge columns, at least doubling the
+     * capacity when the matrix has to grow.
+     *
+     * @param required the number of columns needed
+     */
+    private void ensureCapacity(int required) {
+        if (required > capacity) {
+            capacity = Math.max(required, Math.max(4, capacity * 2));
+            for (int i = 0; i < vertices.size(); i++) {
+                incidenceMatrix[i] = Arrays.copyOf(incidenceMatrix[i], capacity);
+            }
+        }
+    }
+
+    /**
+     * Fills the column of an edge: 1 in the row of its source and -1 in the row of its target.
+     *
+     * @param column the index of the column
+     * @param edge   the edge
+     */
+    private void setColumn(int column, Edge<T> edge) {
+        incidenceMatrix[indexOf(edge.getFrom())][column] = 1;
+        incidenceMatrix[indexOf(edge.getTo())][column] = -1;
+    }
+
+    /**
+     * Finds the row of the specified vertex in the matrix using the vertex index.
+     *
+     * @param vertex the vertex to look up
+     * @return the index of the vertex, or -1 if the vertex is not in the graph
+     */
+    private int indexOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
 }
@@ -0,0 +1,177 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of the ints {@code 0..capacity-1} ordered by {@code double} keys.
+ *
+ * <p>The heap, the keys and the position of every id in the heap are kept in primitive
+ * arrays, so the heap allocates nothing after construction. The position array makes it
+ * possible to lower the key of an id that is already in the heap in O(log n), which is the
+ * operation Dijkstra's algorithm needs instead of inserting duplicates.</p>
+ */
+final class IndexedDoubleHeap {
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Constructs an empty heap for the ids from 0 to {@code capacity - 1}.
+     *
+     * @param capacity the number of ids
+     */
+    IndexedDoubleHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     *
+     * @return true if the heap has no ids, false otherwise
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the id is in the heap.
+     *
+     * @param id the id
+     * @return true if the id is in the heap, false otherwise
+     */
+    boolean contains(int id) {
+        return positions[id] != -1;
+    }
+
+    /**
+     * Returns the key of an id in the heap.
+     *
+     * @param id the id
+     * @return the key of the id
+     * @throws NoSuchElementException if the id is not in the heap
+     */
+    double key(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id " + id + " is not in the heap");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Inserts the id with the given key, or lowers its key if the id is already in the heap
+     * with a greater key.
+     *
+     * @param id  the id
+     * @param key the key
+     * @return true if the id was inserted or its key was lowered, false otherwise
+     */
+    boolean offer(int id, double key) {
+        int position = positions[id];
+        if (position == -1) {
+            position = size++;
+            heap[position] = id;
+            positions[id] = position;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(position);
+        return true;
+    }
+
+    /**
+     * Returns the id with the smallest key without removing it.
+     *
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    int poll() {
+        int top = peek();
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes all ids from the heap. This takes time proportional to the size of the heap,
+     * not to its capacity, so the heap can be reused cheaply for many small queries.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        double key = keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (key <= keys[childId]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
@@ -0,0 +1,631 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents an immutable directed graph stored in a memory-mapped binary file.
+ *
+ * <p>The file holds the graph in the same compressed sparse row form as {@link CsrGraph}, so
+ * opening it only maps the file and checks the header; nothing is parsed or copied, the pages
+ * are loaded by the operating system on first access, and processes that open the same file
+ * share them in the page cache. The file is little-endian and consists of:</p>
+ * <ul>
+ *   <li>a 32-byte header: the magic {@code GRPH}, the format version, flags (bit 0 is set if
+ *   the graph is weighted), the numbers of vertices and edges, the size of the name table,
+ *   the length of the name bytes and a reserved int;</li>
+ *   <li>the {@code V + 1} edge offsets and the {@code E} edge targets as ints;</li>
+ *   <li>the {@code V + 1} offsets of the vertex names in the name bytes as ints;</li>
+ *   <li>an open-addressing hash table that maps the hash of a name to the vertex id plus 1;</li>
+ *   <li>the {@code E} edge weights as doubles, aligned to 8 bytes, if the graph is weighted;</li>
+ *   <li>the vertex names in UTF-8.</li>
+ * </ul>
+ *
+ * <p>Vertex values are stored as names: a namer turns values into names when the file is
+ * written and when a vertex is looked up, and a converter turns names back into values when
+ * a vertex is read. The names of all vertices are decoded and converted once, the first time
+ * any vertex is read, and kept in an array. The file must be smaller than 2 GiB.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public final class MappedGraph<T> implements Graph<T> {
+    private static final int MAGIC = 0x48505247;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int WEIGHTED = 1;
+
+    private final ByteBuffer buffer;
+    private final Function<String, T> converter;
+    private final Function<? super T, String> namer;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int tableSize;
+    private final int offsetsStart;
+    private final int targetsStart;
+    private final int nameOffsetsStart;
+    private final int tableStart;
+    private final int weightsStart;
+    private final int namesStart;
+    private volatile List<Vertex<T>> vertices;
+    private volatile int hash;
+
+    private MappedGraph(ByteBuffer buffer, Function<String, T> converter,
+                        Function<? super T, String> namer) throws IOException {
+        this.buffer = buffer;
+        this.converter = converter;
+        this.namer = namer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Invalid graph file: bad magic");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Invalid graph file: unsupported version " + buffer.getInt(4));
+        }
+        boolean weighted = (buffer.getInt(8) & WEIGHTED) != 0;
+        vertexCount = buffer.getInt(12);
+        edgeCount = buffer.getInt(16);
+        tableSize = buffer.getInt(20);
+        int nameBytes = buffer.getInt(24);
+        if (vertexCount < 0 || edgeCount < 0 || nameBytes < 0 || Integer.bitCount(tableSize) != 1
+                || tableSize <= vertexCount) {
+            throw new IOException("Invalid graph file: bad header");
+        }
+        long[] layout = layout(vertexCount, edgeCount, tableSize, weighted, nameBytes);
+        if (layout[6] != buffer.capacity()) {
+            throw new IOException("Invalid graph file: expected " + layout[6] + " bytes, found "
+                    + buffer.capacity());
+        }
+        offsetsStart = (int) layout[0];
+        targetsStart = (int) layout[1];
+        nameOffsetsStart = (int) layout[2];
+        tableStart = (int) layout[3];
+        weightsStart = weighted ? (int) layout[4] : -1;
+        namesStart = (int) layout[5];
+    }
+
+    /**
+     * Writes a graph to a file, naming every vertex by the string value of its value.
+     *
+     * @param graph the graph to write
+     * @param file  the file to write to; it is replaced if it exists
+     * @param <T>   the type of the vertex values in the graph
+     * @throws IOException if an error occurs while writing the file
+     */
+    public static <T> void write(Graph<T> graph, Path file) throws IOException {
+        write(graph, file, String::valueOf);
+    }
+
+    /**
+     * Writes a graph to a file. Weights are written if the graph is a weighted
+     * {@link CsrGraph}.
+     *
+     * @param graph the graph to write
+     * @param file  the file to write to; it is replaced if it exists
+     * @param namer turns vertex values into distinct names
+     * @param <T>   the type of the vertex values in the graph
+     * @throws IOException              if an error occurs while writing the file or the graph
+     *                                  does not fit into 2 GiB
+     * @throws IllegalArgumentException if two vertices have the same name
+     */
+    public static <T> void write(Graph<T> graph, Path file, Function<? super T, String> namer)
+            throws IOException {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        int vertices = csr.vertexCount();
+        int edges = csr.edgeCount();
+        byte[][] names = new byte[vertices][];
+        long nameBytes = 0;
+        for (int id = 0; id < vertices; id++) {
+            names[id] = namer.apply(csr.vertexOf(id).getValue()).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[id].length;
+        }
+        int tableSize = 2;
+        while (tableSize < 2L * vertices) {
+            tableSize <<= 1;
+        }
+        int[] table = new int[tableSize];
+        for (int id = 0; id < vertices; id++) {
+            int slot = hash(names[id]) & (tableSize - 1);
+            while (table[slot] != 0) {
+                if (Arrays.equals(names[table[slot] - 1], names[id])) {
+                    throw new IllegalArgumentException("Duplicate vertex name: "
+                            + new String(names[id], StandardCharsets.UTF_8));
+                }
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            table[slot] = id + 1;
+        }
+
+        boolean weighted = csr.isWeighted();
+        long[] layout = layout(vertices, edges, tableSize, weighted, nameBytes);
+        if (layout[6] > Integer.MAX_VALUE) {
+            throw new IOException("Graph is too large for the mapped format");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout[6])
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(weighted ? WEIGHTED : 0).putInt(vertices)
+                    .putInt(edges).putInt(tableSize).putInt((int) nameBytes).putInt(0);
+            for (int offset : csr.offsets) {
+                out.putInt(offset);
+            }
+            for (int target : csr.targets) {
+                out.putInt(target);
+            }
+            int nameOffset = 0;
+            for (byte[] name : names) {
+                out.putInt(nameOffset);
+                nameOffset += name.length;
+            }
+            out.putInt(nameOffset);
+
+            for (int entry : table) {
+                out.putInt(entry);
+            }
+            if (weighted) {
+                out.position((int) layout[4]);
+                for (double weight : csr.weights) {
+                    out.putDouble(weight);
+                }
+            }
+            out.position((int) layout[5]);
+            for (byte[] name : names) {
+                out.put(name);
+            }
+        }
+    }
+
+    /**
+     * Opens a graph file written with {@link #write(Graph, Path)}; vertex names are converted
+     * to values with the converter and values back to names with {@link String#valueOf}.
+     *
+     * @param file      the file to open
+     * @param converter converts vertex names to vertex values
+     * @param <T>       the type of the vertex values in the graph
+     * @return the graph backed by the file
+     * @throws IOException if an error occurs while mapping the file or the file is not a
+     *                     valid graph file
+     */
+    public static <T> MappedGraph<T> open(Path file, Function<String, T> converter)
+            throws IOException {
+        return open(file, converter, String::valueOf);
+    }
+
+    /**
+     * Opens a graph file written with {@link #write(Graph, Path, Function)}. The file is
+     * mapped read-only and stays mapped as long as the graph is reachable.
+     *
+     * @param file      the file to open
+     * @param converter converts vertex names to vertex values
+     * @param namer     converts vertex values to names; it must be the one the file was
+     *                  written with
+     * @param <T>       the type of the vertex values in the graph
+     * @return the graph backed by the file
+     * @throws IOException if an error occurs while mapping the file or the file is not a
+     *                     valid graph file
+     */
+    public static <T> MappedGraph<T> open(Path file, Function<String, T> converter,
+                                          Function<? super T, String> namer)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid graph file: file is larger than 2 GiB");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return new MappedGraph<>(buffer, converter, namer);
+        }
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the id of the given vertex, found through the name table of the file.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        byte[] name = namer.apply(vertex.getValue()).getBytes(StandardCharsets.UTF_8);
+        int slot = hash(name) & (tableSize - 1);
+        int entry;
+        while ((entry = buffer.getInt(tableStart + 4 * slot)) != 0) {
+            int id = entry - 1;
+            if (hasName(id, name)) {
+                return id;
+            }
+            slot = (slot + 1) & (tableSize - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the vertex
+     * @throws IndexOutOfBoundsException if there is no vertex with this id
+     */
+    public Vertex<T> vertexOf(int id) {
+        return vertices().get(id);
+    }
+
+    /**
+     * Returns the number of edges leaving the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the out-degree of the vertex
+     */
+    public int outDegree(int id) {
+        Objects.checkIndex(id, vertexCount);
+        return offset(id + 1) - offset(id);
+    }
+
+    /**
+     * Returns the id of the target of an edge leaving the given vertex.
+     *
+     * @param id    the id of the source vertex
+     * @param index the index of the edge among the edges of the vertex, from 0 to its
+     *              out-degree
+     * @return the id of the target vertex
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int neighborId(int id, int index) {
+        Objects.checkIndex(index, outDegree(id));
+        return buffer.getInt(targetsStart + 4 * (offset(id) + index));
+    }
+
+    /**
+     * Checks whether the edges of the graph have weights.
+     *
+     * @return true if the file holds edge weights, false otherwise
+     */
+    public boolean isWeighted() {
+        return weightsStart != -1;
+    }
+
+    /**
+     * Returns the weight of an edge leaving the given vertex.
+     *
+     * @param id    the id of the source vertex
+     * @param index the index of the edge among the edges of the vertex, from 0 to its
+     *              out-degree
+     * @return the weight of the edge, or 1 if the graph is unweighted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double weight(int id, int index) {
+        Objects.checkIndex(index, outDegree(id));
+        if (weightsStart == -1) {
+            return 1;
+        }
+        return buffer.getDouble(weightsStart + 8 * (offset(id) + index));
+    }
+
+    /**
+     * Copies the graph into a {@link CsrGraph}, reading the edge arrays in bulk and every
+     * vertex name once.
+     *
+     * @return the graph in memory
+     */
+    public CsrGraph<T> toCsrGraph() {
+        int[] offsets = new int[vertexCount + 1];
+        buffer.slice(offsetsStart, 4 * offsets.length).order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer().get(offsets);
+        int[] targets = new int[edgeCount];
+        buffer.slice(targetsStart, 4 * edgeCount).order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer().get(targets);
+        double[] weights = null;
+        if (weightsStart != -1) {
+            weights = new double[edgeCount];
+            buffer.slice(weightsStart, 8 * edgeCount).order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer().get(weights);
+        }
+        return CsrGraph.of(vertices(), offsets, targets, weights);
+    }
+
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        throw immutable();
+    }
+
+    @Override
+    public void addEdge(Edge<T> edge) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeEdge(Edge<T> edge) {
+        throw immutable();
+    }
+
+    /**
+     * Retrieves the neighbors of a specified vertex in a new list that the caller may modify.
+     *
+     * @param vertex the vertex for which neighboring vertices are to be retrieved
+     * @return a list of neighboring vertices, or null if the specified vertex is not present
+     *     in the graph
+     */
+    @Override
+    public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        List<Vertex<T>> neighbors = neighborsView(vertex);
+        return neighbors == null ? null : new ArrayList<>(neighbors);
+    }
+
+    /**
+     * Returns a read-only view of the part of the mapped target array that holds the neighbors
+     * of a vertex, so no copy is made.
+     *
+     * @param vertex the vertex whose neighbors are to be retrieved
+     * @return the neighbors of the vertex, or null if the vertex is not in the graph
+     */
+    @Override
+    public List<Vertex<T>> neighborsView(Vertex<T> vertex) {
+        int id = idOf(vertex);
+        if (id == -1) {
+            return null;
+        }
+        int degree = outDegree(id);
+        return new AbstractList<>() {
+            @Override
+            public Vertex<T> get(int index) {
+                return vertices().get(neighborId(id, index));
+            }
+
+            @Override
+            public int size() {
+                return degree;
+            }
+        };
+    }
+
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id,
+     * directly on the mapped target array.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertexCount);
+        int end = offset(id + 1);
+        for (int e = offset(id); e < end; e++) {
+            action.accept(buffer.getInt(targetsStart + 4 * e));
+        }
+    }
+
+    /**
+     * Returns an unmodifiable list of all vertices in the graph, ordered by id.
+     *
+     * @return a list of vertices in the graph
+     */
+    @Override
+    public List<Vertex<T>> getVertices() {
+        return vertices();
+    }
+
+    /**
+     * Always fails, since the graph is immutable; use {@link #open(Path, Function)}.
+     *
+     * @param file      the file from which to read the graph
+     * @param converter converts vertex names to vertex values
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void readFromFile(File file, Function<String, T> converter) {
+        throw immutable();
+    }
+
+    /**
+     * Checks if this graph is equal to another object. Two mapped graphs are equal if they
+     * have the same vertices and every vertex has the same neighbors with the same
+     * multiplicities, regardless of vertex ids and edge order, like {@link CsrGraph}. The
+     * graphs are compared on the mapped arrays without copying them.
+     *
+     * @param obj the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        MappedGraph<T> that = (MappedGraph<T>) obj;
+        if (vertexCount != that.vertexCount || edgeCount != that.edgeCount
+                || hashCode() != that.hashCode()) {
+            return false;
+        }
+        List<Vertex<T>> vertices = vertices();
+        int[] mapping = new int[vertexCount];
+        for (int id = 0; id < vertexCount; id++) {
+            mapping[id] = that.idOf(vertices.get(id));
+            if (mapping[id] == -1) {
+                return false;
+            }
+        }
+        int[] mine = new int[0];
+        int[] theirs = new int[0];
+        for (int id = 0; id < vertexCount; id++) {
+            int other = mapping[id];
+            int degree = outDegree(id);
+            if (degree != that.outDegree(other)) {
+                return false;
+            }
+            if (degree > mine.length) {
+                mine = new int[degree];
+                theirs = new int[degree];
+            }
+            int start = offset(id);
+            int otherStart = that.offset(other);
+            for (int k = 0; k < degree; k++) {
+                mine[k] = mapping[buffer.getInt(targetsStart + 4 * (start + k))];
+                theirs[k] = that.buffer.getInt(that.targetsStart + 4 * (otherStart + k));
+            }
+            Arrays.sort(mine, 0, degree);
+            Arrays.sort(theirs, 0, degree);
+            if (!Arrays.equals(mine, 0, degree, theirs, 0, degree)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a hash code for this graph from the mapped arrays, equal to the hash code of
+     * its {@link CsrGraph} copy. The hash code is computed once.
+     *
+     * @return a hash code value for this graph
+     */
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            List<Vertex<T>> vertices = vertices();
+            for (int id = 0; id < vertexCount; id++) {
+                result += 31 * vertices.get(id).hashCode();
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                result += vertices.get(buffer.getInt(targetsStart + 4 * e)).hashCode();
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the graph in the format of {@link CsrGraph}.
+     *
+     * @return a string representation of the graph
+     */
+    @Override
+    public String toString() {
+        List<Vertex<T>> vertices = vertices();
+        StringBuilder builder = new StringBuilder();
+        for (int id = 0; id < vertexCount; id++) {
+            builder.append(vertices.get(id)).append(": [");
+            int start = offset(id);
+            int end = offset(id + 1);
+            for (int e = start; e < end; e++) {
+                if (e > start) {
+                    builder.append(", ");
+                }
+                builder.append(vertices.get(buffer.getInt(targetsStart + 4 * e)));
+            }
+            builder.append("]\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the vertices by id, decoding and converting all names the first time. Threads
+     * that race on the first call may each decode the names, but they all see a complete
+     * list.
+     */
+    private List<Vertex<T>> vertices() {
+        List<Vertex<T>> result = vertices;
+        if (result == null) {
+            @SuppressWarnings("unchecked")
+            Vertex<T>[] array = (Vertex<T>[]) new Vertex<?>[vertexCount];
+            for (int id = 0; id < vertexCount; id++) {
+                int start = nameStart(id);
+                byte[] name = new byte[nameStart(id + 1) - start];
+                buffer.get(namesStart + start, name);
+                array[id] = new Vertex<>(converter.apply(new String(name,
+                        StandardCharsets.UTF_8)));
+            }
+            result = Collections.unmodifiableList(Arrays.asList(array));
+            vertices = result;
+        }
+        return result;
+    }
+
+    private int offset(int id) {
+        return buffer.getInt(offsetsStart + 4 * id);
+    }
+
+    private int nameStart(int id) {
+        return buffer.getInt(nameOffsetsStart + 4 * id);
+    }
+
+    private boolean hasName(int id, byte[] name) {
+        int start = namesStart + nameStart(id);
+        if (namesStart + nameStart(id + 1) - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = 0;
+        for (byte b : bytes) {
+            hash = 31 * hash + b;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Computes the start of every section of the file and, last, the size of the file.
+     */
+    private static long[] layout(int vertices, int edges, int tableSize, boolean weighted,
+                                 long nameBytes) {
+        long offsets = HEADER_SIZE;
+        long targets = offsets + 4L * (vertices + 1);
+        long nameOffsets = targets + 4L * edges;
+        long table = nameOffsets + 4L * (vertices + 1);
+        long weights = (table + 4L * tableSize + 7) & ~7L;
+        long names = weighted ? weights + 8L * edges : weights;
+        return new long[] {offsets, targets, nameOffsets, table, weights, names,
+                names + nameBytes};
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("MappedGraph is immutable");
+    }
+}
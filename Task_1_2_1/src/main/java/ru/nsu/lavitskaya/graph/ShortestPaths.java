@@ -0,0 +1,367 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Shortest paths from one source vertex of a weighted directed graph.
+ *
+ * <p>The paths are computed on a {@link CsrGraph}; other graphs are copied into one first,
+ * with every edge weighing 1. Distances and the predecessor of every vertex on its shortest
+ * path are kept in primitive arrays indexed by vertex id, and the priority queue of Dijkstra's
+ * algorithm and A* is an {@link IndexedDoubleHeap}, so a query allocates a fixed number of
+ * arrays and nothing per edge.</p>
+ *
+ * <p>The factory methods allocate and fill arrays of the size of the graph, which is the right
+ * cost for paths to all vertices but dominates point-to-point searches on large graphs. For
+ * many such searches on one graph, {@link #query(Graph)} creates a {@link Query} that keeps
+ * its arrays between searches and resets only the vertices a search touched.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public final class ShortestPaths<T> {
+    private final CsrGraph<T> graph;
+    private final int source;
+    private final double[] distances;
+    private final int[] parents;
+
+    private ShortestPaths(CsrGraph<T> graph, int source) {
+        this(graph, source, new double[graph.vertexCount()], new int[graph.vertexCount()]);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        distances[source] = 0;
+    }
+
+    private ShortestPaths(CsrGraph<T> graph, int source, double[] distances, int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * Computes the shortest paths from the source with Dijkstra's algorithm in
+     * O((V + E) log V) time.
+     *
+     * @param graph  the graph
+     * @param source the source vertex
+     * @param <T>    the type of the vertex values in the graph
+     * @return the shortest paths from the source to all vertices
+     * @throws IllegalArgumentException if the source is not in the graph or a reachable edge
+     *                                  has a negative weight
+     */
+    public static <T> ShortestPaths<T> dijkstra(Graph<T> graph, Vertex<T> source) {
+        Query<T> query = new Query<>(CsrGraph.copyOf(graph));
+        query.search(idOf(query.graph, source), -1, null);
+        return query.toPaths();
+    }
+
+    /**
+     * Computes a shortest path from the source to the target with the A* algorithm. The
+     * heuristic estimates the distance from a vertex to the target; it must never
+     * overestimate it, and the search settles fewer vertices the closer the estimate is. A
+     * heuristic that is always 0 turns A* into Dijkstra's algorithm stopped at the target.
+     *
+     * <p>Only the distance and the path to the target are guaranteed to be the shortest ones;
+     * the search stops as soon as the target is reached.</p>
+     *
+     * @param graph     the graph
+     * @param source    the source vertex
+     * @param target    the target vertex
+     * @param heuristic the estimate of the distance from a vertex to the target
+     * @param <T>       the type of the vertex values in the graph
+     * @return the shortest path from the source to the target
+     * @throws IllegalArgumentException if the source or the target is not in the graph or a
+     *                                  visited edge has a negative weight
+     */
+    public static <T> ShortestPaths<T> aStar(Graph<T> graph, Vertex<T> source, Vertex<T> target,
+                                             ToDoubleFunction<? super Vertex<T>> heuristic) {
+        Query<T> query = new Query<>(CsrGraph.copyOf(graph));
+        query.search(idOf(query.graph, source), idOf(query.graph, target), heuristic);
+        return query.toPaths();
+    }
+
+    /**
+     * Computes the shortest paths from the source in a directed acyclic graph by relaxing the
+     * edges of every vertex in topological order, in O(V + E) time. Negative weights are
+     * allowed.
+     *
+     * @param graph  the graph
+     * @param source the source vertex
+     * @param <T>    the type of the vertex values in the graph
+     * @return the shortest paths from the source to all vertices
+     * @throws IllegalArgumentException if the source is not in the graph
+     * @throws CyclicGraphException     if the graph is cyclic
+     */
+    public static <T> ShortestPaths<T> acyclic(Graph<T> graph, Vertex<T> source) {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        ShortestPaths<T> paths = new ShortestPaths<>(csr, idOf(csr, source));
+        double[] distances = paths.distances;
+        for (int u : TopologicalSort.order(csr)) {
+            if (distances[u] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            for (int e = csr.offsets[u]; e < csr.offsets[u + 1]; e++) {
+                double distance = distances[u] + weightOf(csr, e);
+                int v = csr.targets[e];
+                if (distance < distances[v]) {
+                    distances[v] = distance;
+                    paths.parents[v] = u;
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Creates a reusable object for point-to-point searches on a graph. The graph is copied
+     * into a {@link CsrGraph} once, and the arrays of the query are allocated once.
+     *
+     * @param graph the graph
+     * @param <T>   the type of the vertex values in the graph
+     * @return the query
+     */
+    public static <T> Query<T> query(Graph<T> graph) {
+        return new Query<>(CsrGraph.copyOf(graph));
+    }
+
+    /**
+     * Returns the source vertex of the paths.
+     *
+     * @return the source vertex
+     */
+    public Vertex<T> getSource() {
+        return graph.vertexOf(source);
+    }
+
+    /**
+     * Checks whether there is a path from the source to the given vertex.
+     *
+     * @param vertex the vertex
+     * @return true if the vertex is reachable from the source, false otherwise
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public boolean hasPathTo(Vertex<T> vertex) {
+        return distances[idOf(graph, vertex)] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to the given vertex.
+     *
+     * @param vertex the vertex
+     * @return the length of the path, or positive infinity if there is no path
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public double distanceTo(Vertex<T> vertex) {
+        return distances[idOf(graph, vertex)];
+    }
+
+    /**
+     * Returns the shortest path from the source to the given vertex.
+     *
+     * @param vertex the vertex
+     * @return the vertices of the path, starting with the source and ending with the given
+     *     vertex, or an empty list if there is no path
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public List<Vertex<T>> pathTo(Vertex<T> vertex) {
+        int id = idOf(graph, vertex);
+        if (distances[id] == Double.POSITIVE_INFINITY) {
+            return new ArrayList<>();
+        }
+        return path(graph, parents, id);
+    }
+
+    private static <T> List<Vertex<T>> path(CsrGraph<T> graph, int[] parents, int id) {
+        List<Vertex<T>> path = new ArrayList<>();
+        for (int v = id; v != -1; v = parents[v]) {
+            path.add(graph.vertexOf(v));
+        }
+        return path.reversed();
+    }
+
+    private static double weightOf(CsrGraph<?> graph, int edge) {
+        return graph.weights == null ? 1 : graph.weights[edge];
+    }
+
+    private static <T> int idOf(CsrGraph<T> graph, Vertex<T> vertex) {
+        int id = graph.idOf(vertex);
+        if (id == -1) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the graph");
+        }
+        return id;
+    }
+
+    /**
+     * Point-to-point shortest path searches on one graph that reuse their memory.
+     *
+     * <p>The distances, predecessors and heuristic estimates are kept in arrays of the size of
+     * the graph that are allocated once. Every search gets a new stamp, and a vertex's entries
+     * are valid only if its stamp is the current one; the entries are reset the first time a
+     * search touches the vertex. A search therefore takes time proportional to the vertices and
+     * edges it touches, not to the size of the graph. The results of a search are valid until
+     * the next search. A query is not thread-safe; use one query per thread.</p>
+     *
+     * @param <T> the type of the vertex values in the graph
+     */
+    public static final class Query<T> {
+        private final CsrGraph<T> graph;
+        private final double[] distances;
+        private final int[] parents;
+        private final double[] estimates;
+        private final int[] stamps;
+        private final IndexedDoubleHeap heap;
+        private int stamp;
+        private int source = -1;
+
+        private Query(CsrGraph<T> graph) {
+            this.graph = graph;
+            int vertexCount = graph.vertexCount();
+            distances = new double[vertexCount];
+            parents = new int[vertexCount];
+            estimates = new double[vertexCount];
+            stamps = new int[vertexCount];
+            heap = new IndexedDoubleHeap(vertexCount);
+        }
+
+        /**
+         * Finds a shortest path from the source to the target with Dijkstra's algorithm,
+         * stopping as soon as the target is settled.
+         *
+         * @param source the source vertex
+         * @param target the target vertex
+         * @return the length of the path, or positive infinity if there is no path
+         * @throws IllegalArgumentException if the source or the target is not in the graph or
+         *                                  a visited edge has a negative weight
+         */
+        public double dijkstra(Vertex<T> source, Vertex<T> target) {
+            int to = idOf(graph, target);
+            search(idOf(graph, source), to, null);
+            return distance(to);
+        }
+
+        /**
+         * Finds a shortest path from the source to the target with the A* algorithm. The
+         * heuristic must never overestimate the distance to the target, as for
+         * {@link ShortestPaths#aStar}.
+         *
+         * @param source    the source vertex
+         * @param target    the target vertex
+         * @param heuristic the estimate of the distance from a vertex to the target
+         * @return the length of the path, or positive infinity if there is no path
+         * @throws IllegalArgumentException if the source or the target is not in the graph or
+         *                                  a visited edge has a negative weight
+         */
+        public double aStar(Vertex<T> source, Vertex<T> target,
+                            ToDoubleFunction<? super Vertex<T>> heuristic) {
+            int to = idOf(graph, target);
+            search(idOf(graph, source), to, heuristic);
+            return distance(to);
+        }
+
+        /**
+         * Returns the length of the path to a vertex found by the last search. It is the
+         * shortest one for the target and for every vertex settled before it.
+         *
+         * @param vertex the vertex
+         * @return the length of the path, or positive infinity if the last search did not
+         *     reach the vertex
+         * @throws IllegalArgumentException if the vertex is not in the graph
+         */
+        public double distanceTo(Vertex<T> vertex) {
+            return distance(idOf(graph, vertex));
+        }
+
+        /**
+         * Returns the path to a vertex found by the last search.
+         *
+         * @param vertex the vertex
+         * @return the vertices of the path, starting with the source and ending with the given
+         *     vertex, or an empty list if the last search did not reach the vertex
+         * @throws IllegalArgumentException if the vertex is not in the graph
+         */
+        public List<Vertex<T>> pathTo(Vertex<T> vertex) {
+            int id = idOf(graph, vertex);
+            if (distance(id) == Double.POSITIVE_INFINITY) {
+                return new ArrayList<>();
+            }
+            return path(graph, parents, id);
+        }
+
+        private double distance(int id) {
+            return stamps[id] == stamp ? distances[id] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Runs Dijkstra's algorithm, or A* if a heuristic is given, until the target is
+         * settled or, if the target is -1, until all reachable vertices are settled.
+         */
+        private void search(int from, int target, ToDoubleFunction<? super Vertex<T>> heuristic) {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            heap.clear();
+            source = from;
+            touch(from);
+            distances[from] = 0;
+            heap.offer(from, 0);
+
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                if (u == target) {
+                    return;
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    double weight = weightOf(graph, e);
+                    if (weight < 0) {
+                        throw new IllegalArgumentException("Negative edge weight " + weight
+                                + " from " + graph.vertexOf(u));
+                    }
+                    int v = targets[e];
+                    if (stamps[v] != stamp) {
+                        touch(v);
+                    }
+                    double distance = distances[u] + weight;
+                    if (distance < distances[v]) {
+                        distances[v] = distance;
+                        parents[v] = u;
+                        if (heuristic == null) {
+                            heap.offer(v, distance);
+                        } else {
+                            if (Double.isNaN(estimates[v])) {
+                                estimates[v] = heuristic.applyAsDouble(graph.vertexOf(v));
+                            }
+                            heap.offer(v, distance + estimates[v]);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void touch(int v) {
+            stamps[v] = stamp;
+            distances[v] = Double.POSITIVE_INFINITY;
+            parents[v] = -1;
+            estimates[v] = Double.NaN;
+        }
+
+        /**
+         * Hands the arrays of the last search over to a result for all vertices. The query
+         * must not be used afterwards.
+         */
+        private ShortestPaths<T> toPaths() {
+            for (int v = 0; v < stamps.length; v++) {
+                if (stamps[v] != stamp) {
+                    distances[v] = Double.POSITIVE_INFINITY;
+                    parents[v] = -1;
+                }
+            }
+            return new ShortestPaths<>(graph, source, distances, parents);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a graph using a sparse incidence matrix representation.
+ *
+ * <p>Every column of an incidence matrix has exactly two nonzero entries: 1 in the row of
+ * the source of the edge and -1 in the row of its target. This class stores only these two
+ * row indices per column, in two {@code int} arrays that grow geometrically, so the graph
+ * takes 8 bytes per edge instead of 4·V bytes. It reads and prints the same format as
+ * {@link IncidenceMatrixGraph}.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public class SparseIncidenceMatrixGraph<T> implements Graph<T> {
+    private List<Vertex<T>> vertices;
+    private Map<Vertex<T>, Integer> indices;
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int edgeCount;
+
+    /**
+     * Constructs an empty SparseIncidenceMatrixGraph.
+     */
+    public SparseIncidenceMatrixGraph() {
+        vertices = new ArrayList<>();
+        indices = new HashMap<>();
+        edgeFrom = new int[0];
+        edgeTo = new int[0];
+        edgeCount = 0;
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param vertex the vertex to be added
+     */
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        if (!indices.containsKey(vertex)) {
+            indices.put(vertex, vertices.size());
+            vertices.add(vertex);
+        }
+    }
+
+    /**
+     * Removes a vertex from the graph together with all edges incident to it.
+     *
+     * @param vertex the vertex to be removed
+     */
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        int index = indexOf(vertex);
+        if (index == -1) {
+            return;
+        }
+        int kept = 0;
+        for (int j = 0; j < edgeCount; j++) {
+            if (edgeFrom[j] == index || edgeTo[j] == index) {
+                continue;
+            }
+            edgeFrom[kept] = edgeFrom[j] > index ? edgeFrom[j] - 1 : edgeFrom[j];
+            edgeTo[kept] = edgeTo[j] > index ? edgeTo[j] - 1 : edgeTo[j];
+            kept++;
+        }
+        edgeCount = kept;
+
+        vertices.remove(index);
+        indices.remove(vertex);
+        for (int i = index; i < vertices.size(); i++) {
+            indices.put(vertices.get(i), i);
+        }
+    }
+
+    /**
+     * Adds an edge to the graph in amortized constant time.
+     *
+     * @param edge the edge to be added
+     */
+    @Override
+    public void addEdge(Edge<T> edge) {
+        addVertex(edge.getFrom());
+        addVertex(edge.getTo());
+        ensureCapacity(edgeCount + 1);
+        edgeFrom[edgeCount] = indexOf(edge.getFrom());
+        edgeTo[edgeCount] = indexOf(edge.getTo());
+        edgeCount++;
+    }
+
+    /**
+     * Adds several edges to the graph at once, resizing the edge arrays at most once.
+     *
+     * @param newEdges the edges to be added
+     */
+    @Override
+    public void addEdges(Collection<Edge<T>> newEdges) {
+        ensureCapacity(edgeCount + newEdges.size());
+        for (Edge<T> edge : newEdges) {
+            addEdge(edge);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * @param edge the edge to be removed
+     */
+    @Override
+    public void removeEdge(Edge<T> edge) {
+        int from = indexOf(edge.getFrom());
+        int to = indexOf(edge.getTo());
+        if (from == -1 || to == -1) {
+            return;
+        }
+        for (int j = 0; j < edgeCount; j++) {
+            if (edgeFrom[j] == from && edgeTo[j] == to) {
+                System.arraycopy(edgeFrom, j + 1, edgeFrom, j, edgeCount - j - 1);
+                System.arraycopy(edgeTo, j + 1, edgeTo, j, edgeCount - j - 1);
+                edgeCount--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retrieves a list of neighboring vertices for the specified vertex in the graph.
+     *
+     * @param vertex The vertex whose neighbors are to be retrieved.
+     * @return A list of neighboring vertices, or null if the specified vertex is not present
+     *     in the graph.
+     */
+    @Override
+    public List<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        int vertexIndex = indexOf(vertex);
+        if (vertexIndex == -1) {
+            return null;
+        }
+        List<Vertex<T>> neighbors = new ArrayList<>();
+        for (int j = 0; j < edgeCount; j++) {
+            if (edgeFrom[j] == vertexIndex) {
+                neighbors.add(vertices.get(edgeTo[j]));
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Performs the action for every neighbor of a vertex by scanning the edge arrays.
+     *
+     * @param vertex the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(Vertex<T> vertex, Consumer<? super Vertex<T>> action) {
+        int index = indexOf(vertex);
+        if (index != -1) {
+            forEachNeighbor(index, j -> action.accept(vertices.get(j)));
+        }
+    }
+
+    /**
+     * Performs the action for the id of every neighbor of the vertex with the given id by
+     * scanning the edge arrays.
+     *
+     * @param id     the id of the vertex whose neighbors are to be visited
+     * @param action the action to perform
+     */
+    @Override
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertices.size());
+        for (int j = 0; j < edgeCount; j++) {
+            if (edgeFrom[j] == id) {
+                action.accept(edgeTo[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns the id of a vertex, which is its row in the incidence matrix.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in the graph
+     */
+    @Override
+    public int idOf(Vertex<T> vertex) {
+        return indexOf(vertex);
+    }
+
+    /**
+     * Returns an unmodifiable list of all vertices in the graph.
+     *
+     * @return a list of vertices in the graph
+     */
+    @Override
+    public List<Vertex<T>> getVertices() {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Reads a graph structure in the incidence matrix format from a specified file. Only the
+     * nonzero entries of every column are kept.
+     *
+     * @param file the file from which to read the graph structure
+     * @throws IOException if an error occurs while reading the file
+     */
+    @Override
+    public void readFromFile(File file, Function<String, T> converter) throws IOException {
+        List<Vertex<T>> vertexList = new ArrayList<>();
+        int[] sources = new int[0];
+        int[] destinations = new int[0];
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                String[] parts = line.split("\\|");
+
+                if (parts.length != 2) {
+                    throw new IOException("Invalid line format: " + line);
+                }
+                Vertex<T> vertex = new Vertex<>(converter.apply(parts[0].trim()));
+                String[] incidenceStrings = parts[1].trim().split("\\s+");
+                if (vertexList.isEmpty()) {
+                    sources = new int[incidenceStrings.length];
+                    destinations = new int[incidenceStrings.length];
+                    Arrays.fill(sources, -1);
+                    Arrays.fill(destinations, -1);
+                }
+                int row = vertexList.size();
+                for (int j = 0; j < incidenceStrings.length && j < sources.length; j++) {
+                    int incidence = Integer.parseInt(incidenceStrings[j].trim());
+                    if (incidence == 1) {
+                        sources[j] = row;
+                    } else if (incidence == -1) {
+                        destinations[j] = row;
+                    }
+                }
+                vertexList.add(vertex);
+            }
+        } catch (IOException e) {
+            throw new IOException("Error reading the graph from file", e);
+        } catch (NumberFormatException e) {
+            throw new IOException("Error parsing number from file", e);
+        }
+
+        for (Vertex<T> v : vertexList) {
+            addVertex(v);
+        }
+        List<Edge<T>> edgeList = new ArrayList<>();
+        for (int j = 0; j < sources.length; j++) {
+            if (sources[j] != -1 && destinations[j] != -1) {
+                edgeList.add(new Edge<>(vertexList.get(sources[j]),
+                        vertexList.get(destinations[j])));
+            }
+        }
+        addEdges(edgeList);
+    }
+
+    /**
+     * Checks if this graph is equal to another object.
+     *
+     * @param obj the object to compare with
+     * @return true if the specified object is equal to this graph; false otherwise
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        SparseIncidenceMatrixGraph<T> that = (SparseIncidenceMatrixGraph<T>) obj;
+        if (this.vertices.size() != that.vertices.size() || this.edgeCount != that.edgeCount) {
+            return false;
+        }
+        for (Vertex<T> currVertex : this.vertices) {
+            List<Vertex<T>> thisNeighbors = getNeighbors(currVertex);
+            List<Vertex<T>> thatNeighbors = that.getNeighbors(currVertex);
+            if (thatNeighbors == null || thatNeighbors.size() != thisNeighbors.size()) {
+                return false;
+            }
+            for (Vertex<T> neighbor : thisNeighbors) {
+                thatNeighbors.remove(neighbor);
+            }
+            if (!thatNeighbors.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a hash code for this graph that does not depend on the order of vertices or
+     * edges, like {@link #equals}.
+     *
+     * @return a hash code value for this graph
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Vertex<T> vertex : vertices) {
+            hash += 31 * vertex.hashCode();
+        }
+        for (int j = 0; j < edgeCount; j++) {
+            hash += vertices.get(edgeTo[j]).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a string representation of the graph in the same format as
+     * {@link IncidenceMatrixGraph}, expanding the stored columns into matrix rows.
+     *
+     * @return a string representing the graph structure
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < vertices.size(); i++) {
+            builder.append(vertices.get(i).toString()).append(" | ");
+            for (int j = 0; j < edgeCount; j++) {
+                int incidence = edgeTo[j] == i ? -1 : edgeFrom[j] == i ? 1 : 0;
+                builder.append(incidence).append(" ");
+            }
+            builder.append("\n");
+        }
+
+        return builder.toString();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > edgeFrom.length) {
+            int capacity = Math.max(required, Math.max(4, edgeFrom.length * 2));
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+        }
+    }
+
+    private int indexOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+}
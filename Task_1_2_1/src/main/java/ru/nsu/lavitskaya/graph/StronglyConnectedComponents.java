@@ -0,0 +1,260 @@
+package ru.nsu.lavitskaya.graph;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits a directed graph into strongly connected components with Tarjan's algorithm.
+ *
+ * <p>The graph is copied into a {@link CsrGraph}, and the search runs over the vertex ids with
+ * an explicit call stack and an array holding the next edge of every vertex on it, so it
+ * needs no recursion and handles long paths of any length. All state is kept in int arrays,
+ * about six ints per vertex.</p>
+ *
+ * <p>Tarjan's algorithm completes the components in reverse topological order, so the
+ * component ids are assigned in the opposite order: for every edge between two components,
+ * the id of the source component is smaller than the id of the target component. The ids
+ * from 0 to {@link #componentCount()} - 1 are therefore already a topological order of the
+ * {@link #condensation()}.</p>
+ *
+ * @param <T> the type of the vertex values in the graph
+ */
+public final class StronglyConnectedComponents<T> {
+    private final CsrGraph<T> graph;
+    private final int[] component;
+    private final int count;
+    private int[] memberOffsets;
+    private int[] members;
+
+    private StronglyConnectedComponents(CsrGraph<T> graph, int[] component, int count) {
+        this.graph = graph;
+        this.component = component;
+        this.count = count;
+    }
+
+    /**
+     * Finds the strongly connected components of a graph.
+     *
+     * @param graph the directed graph
+     * @param <T>   the type of the vertex values in the graph
+     * @return the components of the graph
+     */
+    public static <T> StronglyConnectedComponents<T> of(Graph<T> graph) {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        int vertexCount = csr.vertexCount();
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+
+        int[] index = new int[vertexCount];
+        int[] low = new int[vertexCount];
+        int[] component = new int[vertexCount];
+        int[] nextEdge = new int[vertexCount];
+        int[] calls = new int[vertexCount];
+        int[] stack = new int[vertexCount];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        int counter = 0;
+        int found = 0;
+        int top = 0;
+
+        for (int root = 0; root < vertexCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            calls[depth++] = root;
+            index[root] = low[root] = counter++;
+            nextEdge[root] = offsets[root];
+            stack[top++] = root;
+            while (depth > 0) {
+                int v = calls[depth - 1];
+                if (nextEdge[v] < offsets[v + 1]) {
+                    int w = targets[nextEdge[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        nextEdge[w] = offsets[w];
+                        stack[top++] = w;
+                        calls[depth++] = w;
+                    } else if (component[w] == -1) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--top];
+                        component[w] = found;
+                    } while (w != v);
+                    found++;
+                }
+                if (depth > 0) {
+                    int parent = calls[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        for (int v = 0; v < vertexCount; v++) {
+            component[v] = found - 1 - component[v];
+        }
+        return new StronglyConnectedComponents<>(csr, component, found);
+    }
+
+    /**
+     * Returns the number of strongly connected components.
+     *
+     * @return the number of components
+     */
+    public int componentCount() {
+        return count;
+    }
+
+    /**
+     * Checks whether the graph has no cycles, that is, every component is a single vertex
+     * without a self-loop.
+     *
+     * @return true if the graph is acyclic, false otherwise
+     */
+    public boolean isAcyclic() {
+        if (count != graph.vertexCount()) {
+            return false;
+        }
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int index = 0; index < graph.outDegree(v); index++) {
+                if (graph.neighborId(v, index) == v) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the component of the vertex with the given id in
+     * {@link CsrGraph#copyOf(Graph)} of the graph, which is its position in
+     * {@link Graph#getVertices()}.
+     *
+     * @param id the id of the vertex
+     * @return the id of the component of the vertex
+     * @throws IndexOutOfBoundsException if there is no vertex with the id
+     */
+    public int componentOf(int id) {
+        return component[id];
+    }
+
+    /**
+     * Returns the component of a vertex.
+     *
+     * @param vertex the vertex
+     * @return the id of the component of the vertex
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public int componentOf(Vertex<T> vertex) {
+        int id = graph.idOf(vertex);
+        if (id == -1) {
+            throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+        }
+        return component[id];
+    }
+
+    /**
+     * Returns the component of every vertex, indexed by vertex id.
+     *
+     * @return a new array with the id of the component of every vertex
+     */
+    public int[] componentIds() {
+        return component.clone();
+    }
+
+    /**
+     * Returns the vertices of one component, in the order of their ids.
+     *
+     * @param componentId the id of the component
+     * @return an unmodifiable list of the vertices of the component
+     * @throws IndexOutOfBoundsException if there is no component with the id
+     */
+    public List<Vertex<T>> members(int componentId) {
+        groupMembers();
+        int from = memberOffsets[componentId];
+        int size = memberOffsets[componentId + 1] - from;
+        return new AbstractList<>() {
+            @Override
+            public Vertex<T> get(int index) {
+                return graph.vertexOf(members[from + Objects.checkIndex(index, size)]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Builds the condensation of the graph: the graph with a vertex for every component,
+     * whose value is the component id, and an edge between two components if there is an
+     * edge between their vertices. Parallel edges and edges inside a component are dropped,
+     * so the condensation is a directed acyclic graph, and the vertices are in topological
+     * order. It takes O(V + E) time.
+     *
+     * @return the condensation
+     */
+    public CsrGraph<Integer> condensation() {
+        groupMembers();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] seen = new int[count];
+        Arrays.fill(seen, -1);
+        int[] dagOffsets = new int[count + 1];
+        int[] dagTargets = new int[targets.length];
+        int size = 0;
+        for (int c = 0; c < count; c++) {
+            dagOffsets[c] = size;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int v = members[m];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int d = component[targets[e]];
+                    if (d != c && seen[d] != c) {
+                        seen[d] = c;
+                        dagTargets[size++] = d;
+                    }
+                }
+            }
+        }
+        dagOffsets[count] = size;
+
+        List<Vertex<Integer>> vertices = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            vertices.add(new Vertex<>(c));
+        }
+        return CsrGraph.of(vertices, dagOffsets, Arrays.copyOf(dagTargets, size), null);
+    }
+
+    /**
+     * Groups the vertex ids by component with a counting sort, once.
+     */
+    private void groupMembers() {
+        if (members != null) {
+            return;
+        }
+        int[] offsets = new int[count + 1];
+        for (int c : component) {
+            offsets[c + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] grouped = new int[component.length];
+        int[] next = Arrays.copyOf(offsets, count);
+        for (int v = 0; v < component.length; v++) {
+            grouped[next[component[v]]++] = v;
+        }
+        memberOffsets = offsets;
+        members = grouped;
+    }
+}
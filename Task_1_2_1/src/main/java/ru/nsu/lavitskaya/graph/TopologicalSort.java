@@ -1,60 +1,197 @@
 package ru.nsu.lavitskaya.graph;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 /**
- * Provides a method for performing topological sorting on a directed acyclic graph.
+ * Provides methods for performing topological sorting on a directed acyclic graph.
  */
 public class TopologicalSort {
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
 
     /**
-     * Performs a topological sort on the given graph.
+     * Performs a topological sort on the given graph with Kahn's algorithm.
+     *
+     * <p>The graph is copied into a {@link CsrGraph}, and the sort works on the vertex ids with
+     * an array of in-degree counters and an array used as the queue of vertices whose
+     * in-degree has dropped to zero, so it takes O(V + E) time and no recursion.</p>
+     *
+     * <p>The result is the order in which Kahn's algorithm removes the vertices: first all
+     * sources, the vertices without incoming edges, in the order of
+     * {@link Graph#getVertices()}, and then every other vertex right after the last of its
+     * predecessors is removed, with vertices that become ready at the same time in the order
+     * of the edges that freed them. This is not the depth-first order of earlier versions:
+     * for the edges A→C and B→C the result is now [A, B, C], where it used to be
+     * [B, A, C].</p>
      *
      * @param graph The directed graph to be sorted.
      * @param <T>   The type of the vertices in the graph.
      * @return A list of vertices in topologically sorted order.
-     * @throws IllegalStateException If the graph is cyclic.
+     * @throws CyclicGraphException If the graph is cyclic; the exception holds one of the
+     *     cycles.
+     */
+    public static <T> List<Vertex<T>> topSort(Graph<T> graph) throws CyclicGraphException {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        List<Vertex<T>> sortedList = new ArrayList<>(csr.vertexCount());
+        for (int v : order(csr)) {
+            sortedList.add(csr.vertexOf(v));
+        }
+        return sortedList;
+    }
+
+    /**
+     * Sorts the vertex ids of a CSR graph topologically with Kahn's algorithm.
+     *
+     * @param csr The graph to be sorted.
+     * @param <T> The type of the vertices in the graph.
+     * @return The vertex ids in topologically sorted order.
+     * @throws CyclicGraphException If the graph is cyclic.
      */
-    public static <T> List<Vertex<T>> topSort(Graph<T> graph) throws IllegalStateException {
-        List<Vertex<T>> sortedList = new ArrayList<>();
-        Set<Vertex<T>> visited = new HashSet<>();
-        Set<Vertex<T>> visiting = new HashSet<>();
-
-        for (Vertex<T> vertex : graph.getVertices()) {
-            if (!visited.contains(vertex)) {
-                if (dfs(vertex, visited, visiting, sortedList, graph)) {
-                    throw new IllegalStateException("Graph is cyclic");
+    static <T> int[] order(CsrGraph<T> csr) throws CyclicGraphException {
+        int vertexCount = csr.vertexCount();
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+
+        int[] inDegree = new int[vertexCount];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+        int[] queue = new int[vertexCount];
+        int tail = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    queue[tail++] = targets[e];
                 }
             }
         }
-
-        return sortedList;
+        if (tail < vertexCount) {
+            throw new CyclicGraphException(findCycle(csr, inDegree));
+        }
+        return queue;
     }
 
-    private static <T> boolean dfs(Vertex<T> vertex, Set<Vertex<T>> visited,
-                                   Set<Vertex<T>> visiting, List<Vertex<T>> sortedList,
-                                   Graph<T> graph) {
-        visiting.add(vertex);
+    /**
+     * Splits the given graph into layers: the first layer holds the vertices without incoming
+     * edges, and every next layer holds the vertices all of whose predecessors are in earlier
+     * layers. The vertices of one layer do not depend on each other, so they can be processed
+     * in parallel once the previous layers are done.
+     *
+     * <p>The layers are computed with Kahn's algorithm one frontier at a time. Large frontiers
+     * are processed in parallel: the in-degree counters are decremented atomically, and the
+     * thread whose decrement reaches zero appends the vertex to the next frontier. Every layer
+     * is then sorted by the order of {@link Graph#getVertices()}, so the result does not
+     * depend on thread scheduling.</p>
+     *
+     * @param graph The directed graph to be split into layers.
+     * @param <T>   The type of the vertices in the graph.
+     * @return The list of layers.
+     * @throws CyclicGraphException If the graph is cyclic; the exception holds one of the
+     *     cycles.
+     */
+    public static <T> List<List<Vertex<T>>> layers(Graph<T> graph) throws CyclicGraphException {
+        CsrGraph<T> csr = CsrGraph.copyOf(graph);
+        int vertexCount = csr.vertexCount();
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+
+        int[] counts = new int[vertexCount];
+        for (int target : targets) {
+            counts[target]++;
+        }
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(counts);
+        int[] frontier = new int[vertexCount];
+        int[] next = new int[vertexCount];
+        int size = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (counts[v] == 0) {
+                frontier[size++] = v;
+            }
+        }
+
+        List<List<Vertex<T>>> layers = new ArrayList<>();
+        int processed = 0;
+        while (size > 0) {
+            List<Vertex<T>> layer = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                layer.add(csr.vertexOf(frontier[i]));
+            }
+            layers.add(layer);
+            processed += size;
 
-        List<Vertex<T>> neighbors = graph.getNeighbors(vertex);
-        for (Vertex<T> neighbor : neighbors) {
-            if (visiting.contains(neighbor)) {
-                return true;
+            int[] current = frontier;
+            int[] ready = next;
+            AtomicInteger nextSize = new AtomicInteger();
+            IntStream range = IntStream.range(0, size);
+            if (size >= PARALLEL_THRESHOLD) {
+                range = range.parallel();
             }
-            if (!visited.contains(neighbor)) {
-                if (dfs(neighbor, visited, visiting, sortedList, graph)) {
-                    return true;
+            range.forEach(i -> {
+                int v = current[i];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    if (inDegree.decrementAndGet(targets[e]) == 0) {
+                        ready[nextSize.getAndIncrement()] = targets[e];
+                    }
                 }
+            });
+            size = nextSize.get();
+            Arrays.sort(ready, 0, size);
+            next = frontier;
+            frontier = ready;
+        }
+        if (processed < vertexCount) {
+            for (int v = 0; v < vertexCount; v++) {
+                counts[v] = inDegree.get(v);
             }
+            throw new CyclicGraphException(findCycle(csr, counts));
         }
+        return layers;
+    }
 
-        visiting.remove(vertex);
-        visited.add(vertex);
-        sortedList.addFirst(vertex);
-        return false;
+    /**
+     * Finds a cycle among the vertices that Kahn's algorithm could not remove. Each of them
+     * still has an incoming edge from another such vertex, so following these edges backwards
+     * must eventually revisit a vertex.
+     */
+    private static <T> List<Vertex<T>> findCycle(CsrGraph<T> csr, int[] inDegree) {
+        int vertexCount = csr.vertexCount();
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+        int[] predecessor = new int[vertexCount];
+        int start = -1;
+        for (int v = 0; v < vertexCount; v++) {
+            if (inDegree[v] == 0) {
+                continue;
+            }
+            start = v;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                predecessor[targets[e]] = v;
+            }
+        }
+
+        boolean[] visited = new boolean[vertexCount];
+        int v = start;
+        while (!visited[v]) {
+            visited[v] = true;
+            v = predecessor[v];
+        }
+        List<Vertex<T>> cycle = new ArrayList<>();
+        int first = v;
+        do {
+            cycle.add(csr.vertexOf(v));
+            v = predecessor[v];
+        } while (v != first);
+        return cycle.reversed();
     }
 
 }
@@ -3,6 +3,8 @@ package ru.nsu.lavitskaya.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -135,4 +137,124 @@ class AdjacencyListGraphTest {
             tempFile.delete();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNeighborViews() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v2, v3));
+
+        List<Vertex<String>> view = graph.neighborsView(v1);
+        assertEquals(List.of(v2, v3, v3), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(v1));
+        assertNull(graph.neighborsView(new Vertex<>("D")));
+
+        List<Vertex<String>> visited = new ArrayList<>();
+        graph.forEachNeighbor(v1, visited::add);
+        graph.forEachNeighbor(new Vertex<>("D"), visited::add);
+        assertEquals(List.of(v2, v3, v3), visited);
+
+        List<Integer> ids = new ArrayList<>();
+        graph.forEachNeighbor(graph.idOf(v2), ids::add);
+        assertEquals(List.of(graph.idOf(v3)), ids);
+        assertEquals(v3, graph.getVertices().get(graph.idOf(v3)));
+        assertEquals(-1, graph.idOf(new Vertex<>("D")));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.forEachNeighbor(3, ids::add));
+
+        graph.removeVertex(v1);
+        assertEquals(0, graph.idOf(v2));
+        assertEquals(1, graph.idOf(v3));
+    }
+
+    @Test
+    public void testFingerprintEquals() {
+        AdjacencyListGraph<Integer> first = new AdjacencyListGraph<>();
+        AdjacencyListGraph<Integer> second = new AdjacencyListGraph<>();
+        for (int i = 0; i < 100; i++) {
+            first.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i * 7) % 100)));
+            first.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % 100)));
+        }
+        for (int i = 99; i >= 0; i--) {
+            second.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % 100)));
+            second.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i * 7) % 100)));
+        }
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        Edge<Integer> reversed = new Edge<>(new Vertex<>(2), new Vertex<>(1));
+        second.removeEdge(new Edge<>(new Vertex<>(1), new Vertex<>(2)));
+        second.addEdge(reversed);
+        assertFalse(first.equals(second));
+        assertFalse(first.hashCode() == second.hashCode());
+
+        second.removeEdge(reversed);
+        second.addEdge(new Edge<>(new Vertex<>(1), new Vertex<>(2)));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        first.addEdge(new Edge<>(new Vertex<>(5), new Vertex<>(5)));
+        first.addEdge(new Edge<>(new Vertex<>(6), new Vertex<>(5)));
+        first.removeVertex(new Vertex<>(5));
+        second.removeVertex(new Vertex<>(5));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void testEqualsWithGrowingDegrees() {
+        AdjacencyListGraph<Integer> first = new AdjacencyListGraph<>();
+        AdjacencyListGraph<Integer> second = new AdjacencyListGraph<>();
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j <= i; j++) {
+                first.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(j % 7)));
+            }
+        }
+        for (int i = 19; i >= 0; i--) {
+            for (int j = i; j >= 0; j--) {
+                second.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(j % 7)));
+            }
+        }
+        assertEquals(first, second);
+        assertEquals(second, first);
+    }
+
+    @Test
+    public void testRemoveVertexWithParallelEdges() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, c));
+        graph.removeVertex(b);
+
+        assertEquals(List.of(c), graph.getNeighbors(a));
+        List<Integer> ids = new ArrayList<>();
+        graph.forEachNeighbor(graph.idOf(a), ids::add);
+        assertEquals(List.of(graph.idOf(c)), ids);
+    }
+
+    @Test
+    public void testFingerprintAfterRemovingParallelInEdges() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(c, b));
+        graph.addEdge(new Edge<>(a, c));
+        graph.removeVertex(b);
+
+        AdjacencyListGraph<String> expected = new AdjacencyListGraph<>();
+        expected.addEdge(new Edge<>(a, c));
+        assertEquals(expected, graph);
+        assertEquals(expected.hashCode(), graph.hashCode());
+    }
+}
@@ -2,6 +2,8 @@ package ru.nsu.lavitskaya.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -162,4 +164,122 @@ class AdjacencyMatrixGraphTest {
             tempFile.delete();
         }
     }
+
+    @Test
+    public void testIndicesAfterRemoveVertex() {
+        AdjacencyMatrixGraph<String> graph = new AdjacencyMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        Vertex<String> v4 = new Vertex<>("D");
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addVertex(v4);
+        graph.removeVertex(v2);
+        graph.addEdge(new Edge<>(v3, v4));
+        graph.addEdge(new Edge<>(v4, v1));
+        assertEquals(List.of(v4), graph.getNeighbors(v3));
+        assertEquals(List.of(v1), graph.getNeighbors(v4));
+        assertEquals(List.of(), graph.getNeighbors(v1));
+        assertEquals(null, graph.getNeighbors(v2));
+        graph.addVertex(v2);
+        graph.addEdge(new Edge<>(v2, v3));
+        assertEquals(List.of(v3), graph.getNeighbors(v2));
+    }
+
+    @Test
+    public void testManyVertices() {
+        AdjacencyMatrixGraph<Integer> graph = new AdjacencyMatrixGraph<>();
+        int n = 1_000;
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % n)));
+        }
+        assertEquals(n, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(0)), graph.getNeighbors(new Vertex<>(n - 1)));
+    }
+
+    @Test
+    public void testNeighborViews() {
+        AdjacencyMatrixGraph<String> graph = new AdjacencyMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v2, v3));
+
+        List<Vertex<String>> view = graph.neighborsView(v1);
+        assertEquals(List.of(v2, v3, v3), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(v1));
+        assertNull(graph.neighborsView(new Vertex<>("D")));
+
+        List<Vertex<String>> visited = new ArrayList<>();
+        graph.forEachNeighbor(v1, visited::add);
+        graph.forEachNeighbor(new Vertex<>("D"), visited::add);
+        assertEquals(List.of(v2, v3, v3), visited);
+
+        List<Integer> ids = new ArrayList<>();
+        graph.forEachNeighbor(graph.idOf(v2), ids::add);
+        assertEquals(List.of(graph.idOf(v3)), ids);
+        assertEquals(v3, graph.getVertices().get(graph.idOf(v3)));
+        assertEquals(-1, graph.idOf(new Vertex<>("D")));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.forEachNeighbor(3, ids::add));
+
+        graph.removeVertex(v1);
+        assertEquals(0, graph.idOf(v2));
+        assertEquals(1, graph.idOf(v3));
+    }
+
+    @Test
+    public void testGrowAndRemoveInPlace() {
+        AdjacencyMatrixGraph<Integer> graph = new AdjacencyMatrixGraph<>();
+        for (int i = 0; i < 100; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % 100)));
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i * 3) % 100)));
+        }
+        graph.addEdge(new Edge<>(new Vertex<>(50), new Vertex<>(50)));
+        graph.removeVertex(new Vertex<>(50));
+
+        AdjacencyMatrixGraph<Integer> expected = new AdjacencyMatrixGraph<>();
+        for (int i = 99; i >= 0; i--) {
+            if (i != 50) {
+                expected.addVertex(new Vertex<>(i));
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            int[] targets = {(i + 1) % 100, (i * 3) % 100};
+            for (int target : targets) {
+                if (i != 50 && target != 50) {
+                    expected.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(target)));
+                }
+            }
+        }
+        assertEquals(expected, graph);
+        assertEquals(expected.hashCode(), graph.hashCode());
+        assertEquals(99, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(18), new Vertex<>(51)),
+                graph.getNeighbors(new Vertex<>(17)));
+    }
+
+    @Test
+    public void testCapacityStaysLinear() {
+        int n = 20_000;
+        AdjacencyMatrixGraph<Integer> graph = new AdjacencyMatrixGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(0), new Vertex<>(i)));
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(i / 2)));
+        }
+        assertTrue(graph.rowCapacity() <= 2 * n);
+        assertTrue(graph.columnCapacity(0) <= 2 * n);
+        for (int id = 1; id < n; id++) {
+            assertTrue(graph.columnCapacity(id) <= 2 * (id / 2 + 1) + 4);
+        }
+        assertEquals(n + 1, graph.getNeighbors(new Vertex<>(0)).size());
+
+        graph.removeVertex(new Vertex<>(0));
+        assertEquals(n - 1, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(4)), graph.getNeighbors(new Vertex<>(9)));
+    }
 }
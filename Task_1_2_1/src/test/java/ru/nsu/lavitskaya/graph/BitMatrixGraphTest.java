@@ -0,0 +1,155 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BitMatrixGraph class.
+ *
+ * <p>This class checks the graph operations on the bit-packed matrix, including removal of
+ * vertices across word boundaries, and the bit-parallel algorithms: degrees, breadth-first
+ * search layers, reachability and the transitive closure.</p>
+ */
+class BitMatrixGraphTest {
+    private final Vertex<String> a = new Vertex<>("A");
+    private final Vertex<String> b = new Vertex<>("B");
+    private final Vertex<String> c = new Vertex<>("C");
+    private final Vertex<String> d = new Vertex<>("D");
+
+    @Test
+    public void testAddAndRemove() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>();
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, c));
+        graph.addEdge(new Edge<>(a, c));
+        assertEquals("  A B C \n" + "A 0 1 1 \n" + "B 0 0 0 \n" + "C 0 0 0 \n",
+                graph.toString(), "parallel edges collapse");
+
+        graph.removeEdge(new Edge<>(a, b));
+        assertFalse(graph.hasEdge(a, b));
+        assertTrue(graph.hasEdge(a, c));
+
+        graph.addEdge(new Edge<>(c, a));
+        graph.removeVertex(b);
+        assertEquals("  A C \n" + "A 0 1 \n" + "C 1 0 \n", graph.toString());
+        assertNull(graph.getNeighbors(b));
+        assertEquals(List.of(c), graph.getNeighbors(a));
+    }
+
+    @Test
+    public void testRemoveVertexAcrossWords() {
+        int n = 200;
+        BitMatrixGraph<Integer> graph = new BitMatrixGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % n)));
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i * 7 + 3) % n)));
+        }
+        graph.removeVertex(new Vertex<>(63));
+        graph.removeVertex(new Vertex<>(0));
+        assertEquals(n - 2, graph.getVertices().size());
+        for (int i = 1; i < n; i++) {
+            if (i == 63) {
+                continue;
+            }
+            Vertex<Integer> from = new Vertex<>(i);
+            for (int target : new int[] {(i + 1) % n, (i * 7 + 3) % n}) {
+                boolean removed = target == 0 || target == 63;
+                assertEquals(!removed, graph.hasEdge(from, new Vertex<>(target)));
+            }
+        }
+    }
+
+    @Test
+    public void testOutDegree() {
+        BitMatrixGraph<Integer> graph = new BitMatrixGraph<>();
+        Vertex<Integer> hub = new Vertex<>(-1);
+        for (int i = 0; i < 150; i++) {
+            graph.addEdge(new Edge<>(hub, new Vertex<>(i)));
+        }
+        assertEquals(150, graph.outDegree(hub));
+        assertEquals(0, graph.outDegree(new Vertex<>(5)));
+        assertEquals(-1, graph.outDegree(new Vertex<>(1000)));
+    }
+
+    @Test
+    public void testBfsLayers() {
+        BitMatrixGraph<String> graph = new BitMatrixGraph<>();
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, c));
+        graph.addEdge(new Edge<>(b, d));
+        graph.addEdge(new Edge<>(c, d));
+        graph.addEdge(new Edge<>(d, a));
+        graph.addVertex(new Vertex<>("E"));
+        assertEquals(List.of(List.of(a), List.of(b, c), List.of(d)), graph.bfsLayers(a));
+        assertTrue(graph.isReachable(d, c));
+        assertTrue(graph.isReachable(a, a));
+        assertFalse(graph.isReachable(a, new Vertex<>("E")));
+        assertThrows(IllegalArgumentException.class, () -> graph.bfsLayers(new Vertex<>("F")));
+    }
+
+    @Test
+    public void testTransitiveClosure() {
+        int n = 130;
+        BitMatrixGraph<Integer> graph = new BitMatrixGraph<>();
+        for (int i = 0; i + 1 < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(i + 1)));
+        }
+        BitMatrixGraph<Integer> closure = graph.transitiveClosure();
+        for (int i = 0; i < n; i++) {
+            assertEquals(n - 1 - i, closure.outDegree(new Vertex<>(i)));
+            for (int j = 0; j < n; j++) {
+                assertEquals(j > i, closure.hasEdge(new Vertex<>(i), new Vertex<>(j)));
+            }
+        }
+        assertEquals(1, graph.outDegree(new Vertex<>(0)), "the source graph is unchanged");
+
+        graph.addEdge(new Edge<>(new Vertex<>(n - 1), new Vertex<>(0)));
+        closure = graph.transitiveClosure();
+        for (int i = 0; i < n; i++) {
+            assertEquals(n, closure.outDegree(new Vertex<>(i)));
+        }
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        BitMatrixGraph<String> graph1 = new BitMatrixGraph<>();
+        graph1.addEdge(new Edge<>(a, b));
+        graph1.addEdge(new Edge<>(b, c));
+        BitMatrixGraph<String> graph2 = new BitMatrixGraph<>();
+        graph2.addVertex(c);
+        graph2.addEdge(new Edge<>(b, c));
+        graph2.addEdge(new Edge<>(a, b));
+        graph2.addEdge(new Edge<>(a, b));
+        assertTrue(graph1.equals(graph2));
+        assertEquals(graph1.hashCode(), graph2.hashCode());
+
+        graph2.addEdge(new Edge<>(c, a));
+        assertFalse(graph1.equals(graph2));
+        assertFalse(graph1.equals(new AdjacencyMatrixGraph<String>()));
+    }
+
+    @Test
+    public void testReadFromFile() throws IOException {
+        File tempFile = File.createTempFile("testGraph", ".txt");
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write("  1 2 3 \n");
+            writer.write("1 0 2 1 \n");
+            writer.write("2 0 0 1 \n");
+            writer.write("3 0 0 0 \n");
+        }
+        BitMatrixGraph<Integer> graph = new BitMatrixGraph<>();
+        graph.readFromFile(tempFile, Integer::parseInt);
+        assertEquals("  1 2 3 \n" + "1 0 1 1 \n" + "2 0 0 1 \n" + "3 0 0 0 \n",
+                graph.toString());
+        tempFile.delete();
+    }
+}
@@ -0,0 +1,233 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ConcurrentGraph class.
+ *
+ * <p>This class checks the basic graph operations, the isolation of snapshots and views from
+ * later updates, incremental snapshots and live vertex ids against a reference graph, and
+ * concurrent writers with readers taking snapshots at the same time.</p>
+ */
+class ConcurrentGraphTest {
+    @Test
+    public void testAddAndRemove() {
+        ConcurrentGraph<String> graph = new ConcurrentGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(a, c));
+        graph.addEdge(new Edge<>(b, c));
+        graph.addEdge(new Edge<>(c, a));
+        assertEquals("A: [B, C]\nB: [C]\nC: [A]\n", graph.toString());
+
+        graph.removeEdge(new Edge<>(a, b));
+        assertEquals(List.of(c), graph.getNeighbors(a));
+        graph.removeVertex(c);
+        assertEquals(List.of(a, b), graph.getVertices());
+        assertEquals(List.of(), graph.getNeighbors(a));
+        assertNull(graph.getNeighbors(c));
+        assertEquals(-1, graph.idOf(c));
+        assertEquals(1, graph.idOf(b));
+    }
+
+    @Test
+    public void testSnapshotIsolation() {
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        Vertex<Integer> one = new Vertex<>(1);
+        Vertex<Integer> two = new Vertex<>(2);
+        graph.addEdge(new Edge<>(one, two));
+        CsrGraph<Integer> snapshot = graph.snapshot();
+        assertSame(snapshot, graph.snapshot());
+        List<Vertex<Integer>> view = graph.neighborsView(one);
+
+        for (int i = 3; i < 100; i++) {
+            graph.addEdge(new Edge<>(one, new Vertex<>(i)));
+        }
+        graph.removeEdge(new Edge<>(one, two));
+        assertEquals(1, snapshot.edgeCount());
+        assertEquals(List.of(two), view);
+        assertEquals(97, graph.snapshot().edgeCount());
+        assertFalse(snapshot == graph.snapshot());
+    }
+
+    @Test
+    public void testEquals() {
+        ConcurrentGraph<String> first = new ConcurrentGraph<>();
+        ConcurrentGraph<String> second = new ConcurrentGraph<>();
+        first.addEdge(new Edge<>(new Vertex<>("A"), new Vertex<>("B")));
+        first.addEdge(new Edge<>(new Vertex<>("B"), new Vertex<>("C")));
+        second.addEdge(new Edge<>(new Vertex<>("B"), new Vertex<>("C")));
+        second.addEdge(new Edge<>(new Vertex<>("A"), new Vertex<>("B")));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws InterruptedException {
+        int writers = 4;
+        int edgesPerWriter = 20_000;
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < edgesPerWriter; i++) {
+                        Vertex<Integer> from = new Vertex<>(i % 100);
+                        graph.addEdge(new Edge<>(from, new Vertex<>(writer * edgesPerWriter + i)));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                start.await();
+                int lastEdges = 0;
+                while (!done.get()) {
+                    CsrGraph<Integer> snapshot = graph.snapshot();
+                    int edges = 0;
+                    for (int id = 0; id < snapshot.vertexCount(); id++) {
+                        edges += snapshot.outDegree(id);
+                    }
+                    if (edges != snapshot.edgeCount() || edges < lastEdges) {
+                        throw new AssertionError("inconsistent snapshot");
+                    }
+                    lastEdges = edges;
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        threads.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        CsrGraph<Integer> snapshot = graph.snapshot();
+        assertEquals(writers * edgesPerWriter, snapshot.edgeCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(writers * edgesPerWriter / 100,
+                    graph.neighborsView(new Vertex<>(i)).size());
+        }
+        assertTrue(snapshot.vertexCount() >= writers * edgesPerWriter);
+    }
+
+    @Test
+    public void testConcurrentReadersShareOneRebuild() throws InterruptedException {
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        for (int i = 0; i < 50_000; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>(i + 1)));
+        }
+        int readers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CsrGraph<Integer>> snapshots = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    snapshots.add(graph.snapshot());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(readers, snapshots.size());
+        for (CsrGraph<Integer> snapshot : snapshots) {
+            assertSame(snapshots.get(0), snapshot);
+        }
+        assertEquals(50_000, snapshots.get(0).edgeCount());
+    }
+
+    @Test
+    public void testIncrementalSnapshots() {
+        Random random = new Random(23);
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        AdjacencyListGraph<Integer> reference = new AdjacencyListGraph<>();
+        for (int step = 0; step < 3_000; step++) {
+            Vertex<Integer> from = new Vertex<>(random.nextInt(60));
+            Vertex<Integer> to = new Vertex<>(random.nextInt(60));
+            int operation = random.nextInt(20);
+            if (operation == 0) {
+                graph.removeVertex(from);
+                reference.removeVertex(from);
+            } else if (operation < 6) {
+                graph.removeEdge(new Edge<>(from, to));
+                reference.removeEdge(new Edge<>(from, to));
+            } else {
+                graph.addEdge(new Edge<>(from, to));
+                reference.addEdge(new Edge<>(from, to));
+            }
+            if (step % 7 == 0) {
+                CsrGraph<Integer> snapshot = graph.snapshot();
+                assertEquals(CsrGraph.copyOf(reference), snapshot);
+                assertEquals(graph.getVertices(), snapshot.getVertices());
+                assertEquals(snapshot.hashCode(), graph.hashCode());
+                assertEquals(snapshot.toString(), graph.toString());
+                for (Vertex<Integer> vertex : graph.getVertices()) {
+                    int id = graph.idOf(vertex);
+                    assertEquals(id, snapshot.idOf(vertex));
+                    List<Integer> live = new ArrayList<>();
+                    List<Integer> frozen = new ArrayList<>();
+                    graph.forEachNeighbor(id, live::add);
+                    snapshot.forEachNeighbor(id, frozen::add);
+                    assertEquals(frozen, live);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIdsAreStableUntilRemoval() {
+        ConcurrentGraph<String> graph = new ConcurrentGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        graph.addEdge(new Edge<>(a, b));
+        CsrGraph<String> before = graph.snapshot();
+        List<Vertex<String>> vertices = graph.getVertices();
+        graph.addEdge(new Edge<>(c, a));
+        assertEquals(List.of(a, b), vertices);
+        assertEquals(List.of(a, b, c), graph.getVertices());
+        assertEquals(2, graph.idOf(c));
+        assertEquals(-1, before.idOf(c));
+
+        graph.removeVertex(a);
+        assertEquals(0, graph.idOf(b));
+        assertEquals(1, graph.idOf(c));
+        assertEquals(0, before.idOf(a));
+        assertEquals(List.of(b), before.getNeighbors(a));
+        assertEquals("B: []\nC: []\n", graph.snapshot().toString());
+    }
+}
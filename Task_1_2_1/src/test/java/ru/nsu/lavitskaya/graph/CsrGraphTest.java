@@ -0,0 +1,144 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CsrGraph class.
+ *
+ * <p>This class checks building CSR graphs, copying other graphs, neighbor access by vertex
+ * and by id, immutability, equality and reading graphs from files.</p>
+ */
+class CsrGraphTest {
+    private final Vertex<String> a = new Vertex<>("A");
+    private final Vertex<String> b = new Vertex<>("B");
+    private final Vertex<String> c = new Vertex<>("C");
+
+    @Test
+    public void testBuilder() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addVertex(a)
+                .addEdge(a, b)
+                .addEdge(new Edge<>(b, c))
+                .addEdge(a, c)
+                .addEdge(a, b)
+                .build();
+        assertEquals(3, graph.vertexCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals("A: [B, C, B]\nB: [C]\nC: []\n", graph.toString());
+        assertEquals(List.of(b, c, b), graph.getNeighbors(a));
+        assertEquals(List.of(), graph.getNeighbors(c));
+        assertNull(graph.getNeighbors(new Vertex<>("D")));
+    }
+
+    @Test
+    public void testIds() {
+        CsrGraph<String> graph = CsrGraph.<String>builder().addEdge(b, a).addEdge(b, c).build();
+        assertEquals(0, graph.idOf(b));
+        assertEquals(1, graph.idOf(a));
+        assertEquals(-1, graph.idOf(new Vertex<>("D")));
+        assertEquals(c, graph.vertexOf(2));
+        assertEquals(2, graph.outDegree(0));
+        assertEquals(2, graph.neighborId(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.neighborId(1, 0));
+    }
+
+    @Test
+    public void testWeights() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addEdge(b, c)
+                .addEdge(a, b, 2.5)
+                .addEdge(a, c)
+                .build();
+        assertTrue(graph.isWeighted());
+        assertEquals(2.5, graph.weight(graph.idOf(a), 0));
+        assertEquals(1.0, graph.weight(graph.idOf(a), 1));
+        assertEquals(1.0, graph.weight(graph.idOf(b), 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.weight(graph.idOf(c), 0));
+        assertFalse(CsrGraph.<String>builder().addEdge(a, b).build().isWeighted());
+    }
+
+    @Test
+    public void testCopyOf() {
+        AdjacencyListGraph<String> source = new AdjacencyListGraph<>();
+        source.addEdge(new Edge<>(a, b));
+        source.addEdge(new Edge<>(a, b));
+        source.addEdge(new Edge<>(b, c));
+        CsrGraph<String> graph = CsrGraph.copyOf(source);
+        assertEquals(3, graph.vertexCount());
+        for (Vertex<String> vertex : source.getVertices()) {
+            assertEquals(source.getNeighbors(vertex), graph.getNeighbors(vertex));
+        }
+        assertSame(graph, CsrGraph.copyOf(graph));
+    }
+
+    @Test
+    public void testImmutable() {
+        CsrGraph<String> graph = CsrGraph.<String>builder().addEdge(a, b).build();
+        assertThrows(UnsupportedOperationException.class, () -> graph.addVertex(c));
+        assertThrows(UnsupportedOperationException.class, () -> graph.removeVertex(a));
+        assertThrows(UnsupportedOperationException.class, () -> graph.addEdge(new Edge<>(b, a)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> graph.removeEdge(new Edge<>(a, b)));
+        assertThrows(UnsupportedOperationException.class, () -> graph.getVertices().add(c));
+        assertThrows(UnsupportedOperationException.class, () -> graph.neighborsView(a).add(c));
+        List<Vertex<String>> neighbors = graph.getNeighbors(a);
+        neighbors.add(c);
+        assertEquals(List.of(b, c), neighbors);
+        assertEquals(List.of(b), graph.getNeighbors(a));
+    }
+
+    @Test
+    public void testEquals() {
+        CsrGraph<String> graph1 = CsrGraph.<String>builder()
+                .addEdge(a, b).addEdge(a, c).addEdge(a, b).build();
+        CsrGraph<String> graph2 = CsrGraph.<String>builder()
+                .addVertex(c).addEdge(a, b).addEdge(a, b).addEdge(a, c).build();
+        CsrGraph<String> graph3 = CsrGraph.<String>builder()
+                .addEdge(a, c).addEdge(a, c).addEdge(a, b).build();
+        assertTrue(graph1.equals(graph2));
+        assertEquals(graph1.hashCode(), graph2.hashCode());
+        assertFalse(graph1.equals(graph3));
+        assertFalse(graph1.equals(new AdjacencyListGraph<String>()));
+    }
+
+    @Test
+    public void testLargeGraph() {
+        int n = 100_000;
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addEdge(new Vertex<>(i), new Vertex<>((i + 1) % n));
+            builder.addEdge(new Vertex<>(i), new Vertex<>((i * 7) % n));
+        }
+        CsrGraph<Integer> graph = builder.build();
+        assertEquals(n, graph.vertexCount());
+        assertEquals(2 * n, graph.edgeCount());
+        assertEquals(List.of(new Vertex<>(6), new Vertex<>(35)),
+                graph.getNeighbors(new Vertex<>(5)));
+    }
+
+    @Test
+    public void testReadFrom() throws IOException {
+        File tempFile = File.createTempFile("testGraph", ".txt");
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write("1:[2, 3] \n");
+            writer.write("2:[3] \n");
+            writer.write("3:[] \n");
+        }
+        CsrGraph<Integer> graph = CsrGraph.readFrom(tempFile, Integer::parseInt);
+        assertEquals("1: [2, 3]\n2: [3]\n3: []\n", graph.toString());
+        assertThrows(UnsupportedOperationException.class,
+                () -> graph.readFromFile(tempFile, Integer::parseInt));
+        tempFile.delete();
+    }
+}
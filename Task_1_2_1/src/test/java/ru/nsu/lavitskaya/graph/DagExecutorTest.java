@@ -0,0 +1,100 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the DagExecutor class.
+ *
+ * <p>This class checks that every task runs exactly once and only after its predecessors,
+ * and that cycles and failing tasks are reported.</p>
+ */
+class DagExecutorTest {
+    @Test
+    public void testDependenciesAreRespected() {
+        int n = 20_000;
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(new Vertex<>(i / 2), new Vertex<>(i));
+            builder.addEdge(new Vertex<>(i / 3), new Vertex<>(i));
+        }
+        CsrGraph<Integer> graph = builder.build();
+
+        AtomicInteger clock = new AtomicInteger();
+        AtomicIntegerArray started = new AtomicIntegerArray(n);
+        AtomicIntegerArray finished = new AtomicIntegerArray(n);
+        AtomicIntegerArray runs = new AtomicIntegerArray(n);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new DagExecutor(pool).execute(graph, vertex -> {
+                int id = vertex.getValue();
+                runs.incrementAndGet(id);
+                started.set(id, clock.incrementAndGet());
+                finished.set(id, clock.incrementAndGet());
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, runs.get(i));
+        }
+        for (int i = 1; i < n; i++) {
+            assertTrue(finished.get(i / 2) < started.get(i));
+            assertTrue(finished.get(i / 3) < started.get(i));
+        }
+    }
+
+    @Test
+    public void testCommonPool() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        graph.addEdge(new Edge<>(v1, v2));
+        StringBuffer order = new StringBuffer();
+        new DagExecutor().execute(graph, vertex -> order.append(vertex.getValue()));
+        assertEquals("AB", order.toString());
+    }
+
+    @Test
+    public void testCyclicGraph() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v2, v1));
+        AtomicInteger runs = new AtomicInteger();
+        assertThrows(CyclicGraphException.class,
+                () -> new DagExecutor().execute(graph, vertex -> runs.incrementAndGet()));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testFailingTask() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v2, v3));
+        AtomicInteger runs = new AtomicInteger();
+        RuntimeException exception = assertThrows(IllegalArgumentException.class,
+                () -> new DagExecutor().execute(graph, vertex -> {
+                    runs.incrementAndGet();
+                    if (vertex.equals(v2)) {
+                        throw new IllegalArgumentException("task failed");
+                    }
+                }));
+        assertTrue(exception.getMessage().contains("task failed"));
+        assertEquals(2, runs.get());
+    }
+}
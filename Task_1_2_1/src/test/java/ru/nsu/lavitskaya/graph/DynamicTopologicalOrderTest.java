@@ -0,0 +1,117 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the DynamicTopologicalOrder class.
+ *
+ * <p>This class checks that the order stays topological while edges are added in random
+ * order, that an edge closing a cycle is rejected with the cycle as a witness and leaves the
+ * graph unchanged, and that the order can start from an existing graph.</p>
+ */
+class DynamicTopologicalOrderTest {
+    private static void assertTopological(DynamicTopologicalOrder<Integer> order,
+                                          List<Edge<Integer>> edges) {
+        for (Edge<Integer> edge : edges) {
+            assertTrue(order.positionOf(edge.getFrom()) < order.positionOf(edge.getTo()),
+                    edge.toString());
+        }
+    }
+
+    @Test
+    public void testBackwardEdgesRepairOrder() {
+        DynamicTopologicalOrder<String> order = new DynamicTopologicalOrder<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        Vertex<String> d = new Vertex<>("D");
+        order.addVertex(a);
+        order.addVertex(b);
+        order.addVertex(c);
+        order.addVertex(d);
+        order.addEdge(new Edge<>(c, b));
+        assertEquals(List.of(a, c, b, d), order.getOrder());
+        order.addEdge(new Edge<>(d, a));
+        assertEquals(List.of(d, c, b, a), order.getOrder());
+        order.addEdge(new Edge<>(a, c));
+        assertEquals(List.of(d, a, c, b), order.getOrder());
+        assertEquals(3, order.edgeCount());
+    }
+
+    @Test
+    public void testCycleIsRejected() {
+        DynamicTopologicalOrder<String> order = new DynamicTopologicalOrder<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        Vertex<String> d = new Vertex<>("D");
+        order.addEdge(new Edge<>(a, b));
+        order.addEdge(new Edge<>(b, c));
+        order.addEdge(new Edge<>(a, d));
+        List<Vertex<String>> before = order.getOrder();
+
+        CyclicGraphException exception = assertThrows(CyclicGraphException.class,
+                () -> order.addEdge(new Edge<>(c, a)));
+        assertEquals(List.of(a, b, c), exception.getCycle());
+        assertEquals(before, order.getOrder());
+        assertEquals(3, order.edgeCount());
+
+        exception = assertThrows(CyclicGraphException.class,
+                () -> order.addEdge(new Edge<>(d, d)));
+        assertEquals(List.of(d), exception.getCycle());
+
+        order.removeEdge(new Edge<>(b, c));
+        order.addEdge(new Edge<>(c, a));
+        assertTrue(order.positionOf(c) < order.positionOf(a));
+        assertEquals(-1, order.positionOf(new Vertex<>("E")));
+    }
+
+    @Test
+    public void testRandomInsertions() {
+        int n = 2_000;
+        Random random = new Random(47);
+        int[] rank = random.ints(0, Integer.MAX_VALUE).distinct().limit(n).toArray();
+        DynamicTopologicalOrder<Integer> order = new DynamicTopologicalOrder<>();
+        for (int i = 0; i < n; i++) {
+            order.addVertex(new Vertex<>(i));
+        }
+        AdjacencyListGraph<Integer> graph = new AdjacencyListGraph<>();
+        int cycles = 0;
+        for (int k = 0; k < 10_000; k++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u == v) {
+                continue;
+            }
+            Edge<Integer> edge = rank[u] < rank[v]
+                    ? new Edge<>(new Vertex<>(u), new Vertex<>(v))
+                    : new Edge<>(new Vertex<>(v), new Vertex<>(u));
+            order.addEdge(edge);
+            graph.addEdge(edge);
+            try {
+                order.addEdge(new Edge<>(edge.getTo(), edge.getFrom()));
+            } catch (CyclicGraphException e) {
+                cycles++;
+                List<Vertex<?>> cycle = e.getCycle();
+                assertEquals(List.of(edge.getFrom(), edge.getTo()), cycle);
+            }
+        }
+        assertTrue(cycles > 0);
+        List<Edge<Integer>> edges = new ArrayList<>();
+        for (Vertex<Integer> from : graph.getVertices()) {
+            for (Vertex<Integer> to : graph.getNeighbors(from)) {
+                edges.add(new Edge<>(from, to));
+            }
+        }
+        assertEquals(edges.size(), order.edgeCount());
+        assertTopological(order, edges);
+        assertTopological(DynamicTopologicalOrder.of(graph), edges);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the GraphLoader class.
+ *
+ * <p>This class checks parsing of the adjacency list format, interning of vertex names,
+ * splitting files into chunks, parallel loading and loading into other graph classes.</p>
+ */
+class GraphLoaderTest {
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("testGraph", ".txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        Path file = write("A:[B, C]\n  B : [ C ]\r\n\nC:[]\nD:[A,A]");
+        CsrGraph<String> graph = GraphLoader.load(file, name -> name, false);
+        assertEquals("A: [B, C]\nB: [C]\nC: []\nD: [A, A]\n", graph.toString());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testConverterIsCalledOncePerName() throws IOException {
+        Path file = write("1:[2, 3]\n2:[3, 1]\n3:[1, 2, 3]\n");
+        AtomicInteger calls = new AtomicInteger();
+        CsrGraph<Integer> graph = GraphLoader.load(file, name -> {
+            calls.incrementAndGet();
+            return Integer.parseInt(name);
+        }, false);
+        assertEquals(3, calls.get());
+        assertEquals(7, graph.edgeCount());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testInvalidLines() throws IOException {
+        for (String content : List.of("A B\n", ":[B]\n", " : B\n", "[A]\n")) {
+            Path file = write(content);
+            IOException exception = assertThrows(IOException.class,
+                    () -> GraphLoader.load(file, name -> name, false));
+            assertTrue(exception.getMessage().startsWith("Invalid line format: "));
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLineWithoutList() throws IOException {
+        Path file = write("A:B\nC:[D\nE:\nF:[G]\n");
+        CsrGraph<String> graph = GraphLoader.load(file, name -> name, false);
+        assertEquals("A: []\nC: []\nE: []\nF: [G]\nG: []\n", graph.toString());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testEmptyListEntries() throws IOException {
+        Path file = write("A:[B,]\nB:[ , C,,D, ]\nC:[,]\n");
+        CsrGraph<String> graph = GraphLoader.load(file, name -> name, false);
+        assertEquals("A: [B]\nB: [C, D]\nC: []\nD: []\n", graph.toString());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testNamesWithColons() throws IOException {
+        Path file = write("a:b:[c:d, e]\nc:d : [a:b]\nf:[g]:h\n");
+        CsrGraph<String> graph = GraphLoader.load(file, name -> name, false);
+        assertEquals(List.of(new Vertex<>("c:d"), new Vertex<>("e")),
+                graph.getNeighbors(new Vertex<>("a:b")));
+        assertEquals(List.of(new Vertex<>("a:b")), graph.getNeighbors(new Vertex<>("c:d")));
+        assertEquals(List.of(), graph.getNeighbors(new Vertex<>("f")));
+        assertEquals(4, graph.vertexCount());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testChunksMatchSingleChunk() throws IOException {
+        int n = 5_000;
+        Random random = new Random(5);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            content.append("v").append(i).append(":[");
+            int degree = random.nextInt(6);
+            for (int k = 0; k < degree; k++) {
+                if (k > 0) {
+                    content.append(", ");
+                }
+                content.append("v").append(random.nextInt(2 * n));
+            }
+            content.append("]\n");
+        }
+        Path file = write(content.toString());
+        CsrGraph<String> expected = GraphLoader.load(file, name -> name, false);
+        for (long chunkSize : new long[] {1, 100, 4096}) {
+            CsrGraph<String> sequential = GraphLoader.load(file, name -> name, false, chunkSize);
+            CsrGraph<String> parallel = GraphLoader.load(file, name -> name, true, chunkSize);
+            assertEquals(expected.toString(), sequential.toString());
+            assertEquals(expected.toString(), parallel.toString());
+        }
+        assertEquals(GraphLoader.load(file, name -> name, true).toString(), expected.toString());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testLoadInto() throws IOException {
+        Path file = write("A:[B, C]\nB:[C]\nC:[]\n");
+        IncidenceMatrixGraph<String> incidence = new IncidenceMatrixGraph<>();
+        assertSame(incidence, GraphLoader.loadInto(file, name -> name, false, incidence));
+        assertEquals(List.of(new Vertex<>("B"), new Vertex<>("C")),
+                incidence.getNeighbors(new Vertex<>("A")));
+
+        AdjacencyListGraph<String> expected = new AdjacencyListGraph<>();
+        expected.readFromFile(file.toFile(), name -> name);
+        AdjacencyListGraph<String> loaded = GraphLoader.loadInto(file, name -> name, true,
+                new AdjacencyListGraph<>());
+        assertEquals(expected, loaded);
+        Files.delete(file);
+    }
+}
@@ -2,6 +2,8 @@ package ru.nsu.lavitskaya.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -108,6 +110,15 @@ class IncidenceMatrixGraphTest {
         graph1.addEdge(new Edge<>(v1, v2));
         graph2.addEdge(new Edge<>(v1, v2));
         assertTrue(graph1.hashCode() == graph2.hashCode());
+
+        Vertex<String> v3 = new Vertex<>("C");
+        graph1.addEdge(new Edge<>(v2, v3));
+        IncidenceMatrixGraph<String> graph3 = new IncidenceMatrixGraph<>();
+        graph3.addVertex(v3);
+        graph3.addEdge(new Edge<>(v2, v3));
+        graph3.addEdge(new Edge<>(v1, v2));
+        assertEquals(graph1, graph3);
+        assertEquals(graph1.hashCode(), graph3.hashCode());
     }
 
     @Test
@@ -137,5 +148,100 @@ class IncidenceMatrixGraphTest {
         }
     }
 
+    @Test
+    public void testIndicesAfterRemoveVertex() {
+        IncidenceMatrixGraph<String> graph = new IncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        Vertex<String> v4 = new Vertex<>("D");
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addVertex(v4);
+        graph.removeVertex(v2);
+        graph.addEdge(new Edge<>(v3, v4));
+        graph.addEdge(new Edge<>(v4, v1));
+        assertEquals(List.of(v4), graph.getNeighbors(v3));
+        assertEquals(List.of(v1), graph.getNeighbors(v4));
+        assertEquals(List.of(), graph.getNeighbors(v1));
+        assertEquals(null, graph.getNeighbors(v2));
+        graph.addVertex(v2);
+        graph.addEdge(new Edge<>(v2, v3));
+        assertEquals(List.of(v3), graph.getNeighbors(v2));
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void testManyVertices() {
+        IncidenceMatrixGraph<Integer> graph = new IncidenceMatrixGraph<>();
+        int n = 1_000;
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % n)));
+        }
+        assertEquals(n, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(0)), graph.getNeighbors(new Vertex<>(n - 1)));
+
+        for (int i = 0; i < n; i += 2) {
+            graph.removeVertex(new Vertex<>(i));
+        }
+        graph.removeEdge(new Edge<>(new Vertex<>(1), new Vertex<>(2)));
+        graph.addEdge(new Edge<>(new Vertex<>(n + 1), new Vertex<>(1)));
+        assertEquals(n / 2 + 1, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(1)), graph.getNeighbors(new Vertex<>(n + 1)));
+        assertEquals(List.of(), graph.getNeighbors(new Vertex<>(3)));
+    }
+
+    @Test
+    public void testBulkLoad() {
+        IncidenceMatrixGraph<Integer> single = new IncidenceMatrixGraph<>();
+        IncidenceMatrixGraph<Integer> bulk = new IncidenceMatrixGraph<>();
+        List<Edge<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Edge<Integer> edge = new Edge<>(new Vertex<>(i % 200),
+                    new Vertex<>((i * 7 + 1) % 200));
+            edges.add(edge);
+            single.addEdge(edge);
+        }
+        bulk.addEdges(edges);
+        assertEquals(200, bulk.getVertices().size());
+        assertEquals(20_000 / 200, bulk.getNeighbors(new Vertex<>(3)).size());
+        assertTrue(single.equals(bulk));
+        single.removeEdge(edges.get(0));
+        single.removeVertex(new Vertex<>(5));
+        assertEquals(200 - 1, single.getVertices().size());
+        assertEquals(20_000 / 200 - 1, single.getNeighbors(new Vertex<>(0)).size());
+    }
+
+    @Test
+    public void testNeighborViews() {
+        IncidenceMatrixGraph<String> graph = new IncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v2, v3));
+
+        List<Vertex<String>> view = graph.neighborsView(v1);
+        assertEquals(List.of(v2, v3, v3), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(v1));
+        assertNull(graph.neighborsView(new Vertex<>("D")));
+
+        List<Vertex<String>> visited = new ArrayList<>();
+        graph.forEachNeighbor(v1, visited::add);
+        graph.forEachNeighbor(new Vertex<>("D"), visited::add);
+        assertEquals(List.of(v2, v3, v3), visited);
+
+        List<Integer> ids = new ArrayList<>();
+        graph.forEachNeighbor(graph.idOf(v2), ids::add);
+        assertEquals(List.of(graph.idOf(v3)), ids);
+        assertEquals(v3, graph.getVertices().get(graph.idOf(v3)));
+        assertEquals(-1, graph.idOf(new Vertex<>("D")));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.forEachNeighbor(3, ids::add));
+
+        graph.removeVertex(v1);
+        assertEquals(0, graph.idOf(v2));
+        assertEquals(1, graph.idOf(v3));
+    }
+}
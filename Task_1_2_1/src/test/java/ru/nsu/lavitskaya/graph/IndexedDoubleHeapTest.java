@@ -0,0 +1,74 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the IndexedDoubleHeap class.
+ */
+class IndexedDoubleHeapTest {
+    @Test
+    public void testOfferAndPoll() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(5);
+        assertTrue(heap.offer(3, 2.5));
+        assertTrue(heap.offer(1, 7));
+        assertTrue(heap.offer(4, -1));
+        assertTrue(heap.offer(1, 0));
+        assertFalse(heap.offer(3, 3), "a greater key does not replace a smaller one");
+        assertEquals(3, heap.size());
+        assertEquals(2.5, heap.key(3));
+        assertEquals(4, heap.peek());
+        assertEquals(4, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+        assertThrows(NoSuchElementException.class, heap::poll);
+        assertThrows(NoSuchElementException.class, () -> heap.key(3));
+    }
+
+    @Test
+    public void testClear() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(3);
+        heap.offer(0, 1);
+        heap.offer(2, 2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        assertTrue(heap.offer(2, 5));
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        int n = 2_000;
+        Random random = new Random(42);
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextDouble() * 1000;
+            heap.offer(i, keys[i]);
+        }
+        for (int k = 0; k < 5 * n; k++) {
+            int id = random.nextInt(n);
+            double key = random.nextDouble() * 1000;
+            heap.offer(id, key);
+            keys[id] = Math.min(keys[id], key);
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            assertTrue(keys[id] >= previous);
+            previous = keys[id];
+            count++;
+        }
+        assertEquals(n, count);
+    }
+}
@@ -0,0 +1,169 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the MappedGraph class.
+ *
+ * <p>This class checks writing graphs to the binary format, opening them again, vertex
+ * lookups through the name table, weights, immutability and rejection of invalid files.</p>
+ */
+class MappedGraphTest {
+    private final Vertex<String> a = new Vertex<>("A");
+    private final Vertex<String> b = new Vertex<>("B");
+    private final Vertex<String> c = new Vertex<>("C");
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        AdjacencyListGraph<String> source = new AdjacencyListGraph<>();
+        source.addEdge(new Edge<>(a, b));
+        source.addEdge(new Edge<>(a, c));
+        source.addEdge(new Edge<>(b, c));
+        source.addVertex(new Vertex<>("Ünïcode"));
+        Path file = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(source, file);
+
+        MappedGraph<String> graph = MappedGraph.open(file, name -> name);
+        assertEquals(4, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        assertFalse(graph.isWeighted());
+        for (Vertex<String> vertex : source.getVertices()) {
+            assertEquals(source.getNeighbors(vertex), graph.getNeighbors(vertex));
+            assertEquals(vertex, graph.vertexOf(graph.idOf(vertex)));
+        }
+        assertNull(graph.getNeighbors(new Vertex<>("D")));
+        assertEquals(CsrGraph.copyOf(source), graph.toCsrGraph());
+        assertEquals(MappedGraph.open(file, name -> name), graph);
+        Files.delete(file);
+    }
+
+    @Test
+    public void testWeightsAndIds() throws IOException {
+        CsrGraph<Integer> source = CsrGraph.<Integer>builder()
+                .addEdge(new Vertex<>(10), new Vertex<>(20), 2.5)
+                .addEdge(new Vertex<>(10), new Vertex<>(30), -1)
+                .addEdge(new Vertex<>(30), new Vertex<>(20))
+                .build();
+        Path file = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(source, file);
+        MappedGraph<Integer> graph = MappedGraph.open(file, Integer::parseInt);
+        assertTrue(graph.isWeighted());
+        int id = graph.idOf(new Vertex<>(10));
+        assertEquals(2, graph.outDegree(id));
+        assertEquals(graph.idOf(new Vertex<>(30)), graph.neighborId(id, 1));
+        assertEquals(2.5, graph.weight(id, 0));
+        assertEquals(-1.0, graph.weight(id, 1));
+        assertEquals(1.0, graph.weight(graph.idOf(new Vertex<>(30)), 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.neighborId(id, 2));
+        assertEquals(-1, graph.idOf(new Vertex<>(40)));
+
+        ShortestPaths<Integer> paths = ShortestPaths.acyclic(graph, new Vertex<>(10));
+        assertEquals(0.0, paths.distanceTo(new Vertex<>(20)));
+        Files.delete(file);
+    }
+
+    @Test
+    public void testNamesAreConvertedOnce() throws IOException {
+        CsrGraph<String> source = CsrGraph.<String>builder()
+                .addEdge(a, b).addEdge(a, c).addEdge(c, a).build();
+        Path file = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(source, file);
+        AtomicInteger calls = new AtomicInteger();
+        MappedGraph<String> graph = MappedGraph.open(file, name -> {
+            calls.incrementAndGet();
+            return name;
+        });
+        assertEquals(0, calls.get());
+        assertEquals(2, graph.getVertices().indexOf(c));
+        assertTrue(graph.neighborsView(a).contains(c));
+        assertEquals(source.hashCode(), graph.hashCode());
+        assertEquals(source.toString(), graph.toString());
+        assertEquals(graph, MappedGraph.open(file, name -> name));
+        assertEquals(3, calls.get());
+
+        Path other = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(CsrGraph.<String>builder().addEdge(a, b).addEdge(a, c)
+                .addEdge(c, b).build(), other);
+        assertFalse(graph.equals(MappedGraph.open(other, name -> name)));
+        Files.delete(file);
+        Files.delete(other);
+    }
+
+    @Test
+    public void testLargeGraph() throws IOException {
+        int n = 100_000;
+        Random random = new Random(9);
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int i = 0; i < 5 * n; i++) {
+            builder.addEdge(new Vertex<>(random.nextInt(n)), new Vertex<>(random.nextInt(n)),
+                    random.nextDouble());
+        }
+        CsrGraph<Integer> source = builder.build();
+        Path file = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(source, file);
+        MappedGraph<Integer> graph = MappedGraph.open(file, Integer::parseInt);
+        for (int i = 0; i < n; i += 997) {
+            Vertex<Integer> vertex = new Vertex<>(i);
+            assertEquals(source.getNeighbors(vertex), graph.getNeighbors(vertex));
+        }
+        CsrGraph<Integer> copy = graph.toCsrGraph();
+        assertEquals(source, copy);
+        for (int k = 0; k < source.outDegree(7); k++) {
+            assertEquals(source.weight(7, k), copy.weight(7, k));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testImmutable() throws IOException {
+        Path file = Files.createTempFile("testGraph", ".bin");
+        MappedGraph.write(CsrGraph.<String>builder().addEdge(a, b).build(), file);
+        MappedGraph<String> graph = MappedGraph.open(file, name -> name);
+        assertThrows(UnsupportedOperationException.class, () -> graph.addVertex(c));
+        assertThrows(UnsupportedOperationException.class, () -> graph.removeVertex(a));
+        assertThrows(UnsupportedOperationException.class, () -> graph.addEdge(new Edge<>(b, a)));
+        assertThrows(UnsupportedOperationException.class, () -> graph.neighborsView(a).add(c));
+        List<Vertex<String>> neighbors = graph.getNeighbors(a);
+        neighbors.add(c);
+        assertEquals(List.of(b, c), neighbors);
+        assertEquals(List.of(b), graph.getNeighbors(a));
+        assertThrows(UnsupportedOperationException.class,
+                () -> graph.readFromFile(file.toFile(), name -> name));
+        assertEquals("A: [B]\nB: []\n", graph.toString());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testInvalidFiles() throws IOException {
+        Path file = Files.createTempFile("testGraph", ".bin");
+        Files.writeString(file, "A:[B]\n");
+        assertThrows(IOException.class, () -> MappedGraph.open(file, name -> name));
+
+        MappedGraph.write(CsrGraph.<String>builder().addEdge(a, b).build(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedGraph.open(file, name -> name));
+
+        AdjacencyListGraph<Integer> clash = new AdjacencyListGraph<>();
+        clash.addEdge(new Edge<>(new Vertex<>(1), new Vertex<>(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedGraph.write(clash, file, value -> "same"));
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ShortestPaths class.
+ *
+ * <p>This class checks Dijkstra's algorithm, A* and shortest paths in acyclic graphs on small
+ * hand-made graphs, compares the algorithms with each other on larger random graphs, and checks
+ * that a reused query gives the same answers as fresh searches.</p>
+ */
+class ShortestPathsTest {
+    private final Vertex<String> a = new Vertex<>("A");
+    private final Vertex<String> b = new Vertex<>("B");
+    private final Vertex<String> c = new Vertex<>("C");
+    private final Vertex<String> d = new Vertex<>("D");
+    private final Vertex<String> e = new Vertex<>("E");
+
+    @Test
+    public void testDijkstra() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addEdge(a, b, 4)
+                .addEdge(a, c, 1)
+                .addEdge(c, b, 2)
+                .addEdge(b, d, 1)
+                .addEdge(c, d, 5)
+                .addVertex(e)
+                .build();
+        ShortestPaths<String> paths = ShortestPaths.dijkstra(graph, a);
+        assertEquals(a, paths.getSource());
+        assertEquals(0, paths.distanceTo(a));
+        assertEquals(3, paths.distanceTo(b));
+        assertEquals(4, paths.distanceTo(d));
+        assertEquals(List.of(a, c, b, d), paths.pathTo(d));
+        assertFalse(paths.hasPathTo(e));
+        assertEquals(Double.POSITIVE_INFINITY, paths.distanceTo(e));
+        assertEquals(List.of(), paths.pathTo(e));
+        assertThrows(IllegalArgumentException.class, () -> paths.distanceTo(new Vertex<>("F")));
+    }
+
+    @Test
+    public void testUnweightedGraph() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(b, c));
+        graph.addEdge(new Edge<>(a, c));
+        ShortestPaths<String> paths = ShortestPaths.dijkstra(graph, a);
+        assertEquals(1, paths.distanceTo(c));
+        assertEquals(List.of(a, c), paths.pathTo(c));
+    }
+
+    @Test
+    public void testInvalidInput() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addEdge(a, b, 1)
+                .addEdge(b, c, -1)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> ShortestPaths.dijkstra(graph, a));
+        assertThrows(IllegalArgumentException.class, () -> ShortestPaths.dijkstra(graph, d));
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrGraph.<String>builder().addEdge(a, b, Double.NaN));
+    }
+
+    @Test
+    public void testAcyclic() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addEdge(a, b, 2)
+                .addEdge(a, c, 6)
+                .addEdge(b, c, -3)
+                .addEdge(c, d, 1)
+                .addEdge(e, a, 1)
+                .build();
+        ShortestPaths<String> paths = ShortestPaths.acyclic(graph, a);
+        assertEquals(-1, paths.distanceTo(c));
+        assertEquals(0, paths.distanceTo(d));
+        assertEquals(List.of(a, b, c, d), paths.pathTo(d));
+        assertFalse(paths.hasPathTo(e));
+
+        CsrGraph<String> cyclic = CsrGraph.<String>builder()
+                .addEdge(a, b, 1)
+                .addEdge(b, a, 1)
+                .build();
+        assertThrows(CyclicGraphException.class, () -> ShortestPaths.acyclic(cyclic, a));
+    }
+
+    @Test
+    public void testAstarOnGrid() {
+        int size = 100;
+        Random random = new Random(3);
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Vertex<Integer> cell = new Vertex<>(row * size + column);
+                if (column + 1 < size) {
+                    double weight = 1 + random.nextInt(5);
+                    builder.addEdge(cell, new Vertex<>(row * size + column + 1), weight);
+                    builder.addEdge(new Vertex<>(row * size + column + 1), cell, weight);
+                }
+                if (row + 1 < size) {
+                    double weight = 1 + random.nextInt(5);
+                    builder.addEdge(cell, new Vertex<>((row + 1) * size + column), weight);
+                    builder.addEdge(new Vertex<>((row + 1) * size + column), cell, weight);
+                }
+            }
+        }
+        CsrGraph<Integer> graph = builder.build();
+        Vertex<Integer> source = new Vertex<>(0);
+        ShortestPaths<Integer> all = ShortestPaths.dijkstra(graph, source);
+        for (int target : new int[] {0, 57, size * size - 1, 4321}) {
+            Vertex<Integer> goal = new Vertex<>(target);
+            ShortestPaths<Integer> path = ShortestPaths.aStar(graph, source, goal,
+                    vertex -> Math.abs(vertex.getValue() / size - target / size)
+                            + Math.abs(vertex.getValue() % size - target % size));
+            assertEquals(all.distanceTo(goal), path.distanceTo(goal));
+            List<Vertex<Integer>> vertices = path.pathTo(goal);
+            assertEquals(source, vertices.get(0));
+            assertEquals(goal, vertices.get(vertices.size() - 1));
+        }
+    }
+
+    @Test
+    public void testDijkstraAgreesWithAcyclic() {
+        int n = 50_000;
+        Random random = new Random(11);
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int i = 1; i < n; i++) {
+            for (int k = 0; k < 4; k++) {
+                int from = random.nextInt(i);
+                builder.addEdge(new Vertex<>(from), new Vertex<>(i), random.nextDouble() * 10);
+            }
+        }
+        CsrGraph<Integer> graph = builder.build();
+        ShortestPaths<Integer> dijkstra = ShortestPaths.dijkstra(graph, new Vertex<>(0));
+        ShortestPaths<Integer> acyclic = ShortestPaths.acyclic(graph, new Vertex<>(0));
+        for (int i = 0; i < n; i++) {
+            Vertex<Integer> vertex = new Vertex<>(i);
+            assertEquals(acyclic.distanceTo(vertex), dijkstra.distanceTo(vertex), 1e-9);
+        }
+        assertTrue(dijkstra.hasPathTo(new Vertex<>(n - 1)));
+    }
+
+    @Test
+    public void testReusedQuery() {
+        int n = 2_000;
+        Random random = new Random(17);
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int k = 0; k < 3 * n; k++) {
+            builder.addEdge(new Vertex<>(random.nextInt(n)), new Vertex<>(random.nextInt(n)),
+                    random.nextInt(10));
+        }
+        CsrGraph<Integer> graph = builder.build();
+        ShortestPaths.Query<Integer> query = ShortestPaths.query(graph);
+        for (int round = 0; round < 200; round++) {
+            Vertex<Integer> source = new Vertex<>(random.nextInt(n));
+            Vertex<Integer> target = new Vertex<>(random.nextInt(n));
+            ShortestPaths<Integer> expected = ShortestPaths.dijkstra(graph, source);
+            double distance = round % 2 == 0
+                    ? query.dijkstra(source, target)
+                    : query.aStar(source, target, vertex -> 0);
+            assertEquals(expected.distanceTo(target), distance);
+            assertEquals(distance, query.distanceTo(target));
+            List<Vertex<Integer>> path = query.pathTo(target);
+            if (expected.hasPathTo(target)) {
+                assertEquals(source, path.get(0));
+                assertEquals(target, path.get(path.size() - 1));
+            } else {
+                assertEquals(List.of(), path);
+            }
+        }
+    }
+
+    @Test
+    public void testQueryInvalidInput() {
+        CsrGraph<String> graph = CsrGraph.<String>builder()
+                .addEdge(a, b, 1)
+                .addEdge(b, c, -1)
+                .addEdge(d, e, 2)
+                .build();
+        ShortestPaths.Query<String> query = ShortestPaths.query(graph);
+        assertThrows(IllegalArgumentException.class, () -> query.dijkstra(a, c));
+        assertThrows(IllegalArgumentException.class, () -> query.dijkstra(a, new Vertex<>("F")));
+        assertEquals(2, query.dijkstra(d, e));
+        assertEquals(List.of(d, e), query.pathTo(e));
+        assertEquals(Double.POSITIVE_INFINITY, query.distanceTo(a));
+        assertEquals(List.of(), query.pathTo(b));
+    }
+}
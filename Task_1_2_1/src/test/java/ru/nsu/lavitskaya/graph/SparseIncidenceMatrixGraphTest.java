@@ -0,0 +1,211 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SparseIncidenceMatrixGraph class.
+ *
+ * <p>This class contains various test cases to validate the functionality of
+ * the SparseIncidenceMatrixGraph, including adding and removing vertices and edges,
+ * retrieving neighbors, checking equality, generating hash codes, and
+ * reading graphs from files.</p>
+ */
+class SparseIncidenceMatrixGraphTest {
+    @Test
+    public void testAddRemoveVerticesAndEdges() {
+        SparseIncidenceMatrixGraph<String> graph = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+
+        graph.addVertex(v1);
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        assertEquals("A | \n" + "B | \n" + "C | \n", graph.toString());
+
+        Vertex<String> v4 = new Vertex<>("D");
+        Vertex<String> v5 = new Vertex<>("E");
+        graph.addEdge(new Edge<>(v4, v5));
+        graph.addEdge(new Edge<>(v1, v2));
+        assertEquals("A | 0 1 \n" + "B | 0 -1 \n" + "C | 0 0 \n" + "D | 1 0 \n"
+                + "E | -1 0 \n", graph.toString());
+
+        graph.removeVertex(v4);
+        assertEquals("A | 1 \n" + "B | -1 \n" + "C | 0 \n" + "E | 0 \n", graph.toString());
+    }
+
+    @Test
+    public void testGetNeighbors() {
+        SparseIncidenceMatrixGraph<String> graph = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v1, v3));
+        List<Vertex<String>> expected = new ArrayList<>();
+        expected.add(v2);
+        expected.add(v2);
+        expected.add(v3);
+        List<Vertex<String>> neighbors = graph.getNeighbors(v1);
+        assertEquals(expected, neighbors);
+    }
+
+    @Test
+    public void testEquals() {
+        SparseIncidenceMatrixGraph<String> graph1 = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        graph1.addEdge(new Edge<>(v1, v2));
+        graph1.addEdge(new Edge<>(v1, v2));
+        graph1.addEdge(new Edge<>(v1, v3));
+        SparseIncidenceMatrixGraph<String> graph2 = new SparseIncidenceMatrixGraph<>();
+        graph2.addEdge(new Edge<>(v1, v3));
+        graph2.addEdge(new Edge<>(v1, v3));
+        graph2.addEdge(new Edge<>(v1, v2));
+        assertFalse(graph1.equals(graph2));
+
+        SparseIncidenceMatrixGraph<String> graph3 = new SparseIncidenceMatrixGraph<>();
+        graph3.addVertex(v1);
+        graph3.addVertex(v2);
+        graph3.addEdge(new Edge<>(v1, v2));
+        SparseIncidenceMatrixGraph<String> graph4 = new SparseIncidenceMatrixGraph<>();
+        graph4.addVertex(v2);
+        graph4.addVertex(v1);
+        graph4.addEdge(new Edge<>(v1, v2));
+        assertTrue(graph3.equals(graph4));
+
+    }
+
+    @Test
+    public void testEqualsWithDifTypes() {
+        SparseIncidenceMatrixGraph<String> graph1 = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("1");
+        graph1.addVertex(v1);
+        SparseIncidenceMatrixGraph<Integer> graph2 = new SparseIncidenceMatrixGraph<>();
+        Vertex<Integer> v2 = new Vertex<>(1);
+        graph2.addVertex(v2);
+        assertFalse(graph1.equals(graph2));
+    }
+
+    @Test
+    public void testHashCode() {
+        SparseIncidenceMatrixGraph<String> graph1 = new SparseIncidenceMatrixGraph<>();
+        SparseIncidenceMatrixGraph<String> graph2 = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        graph1.addEdge(new Edge<>(v1, v2));
+        graph2.addEdge(new Edge<>(v1, v2));
+        assertTrue(graph1.hashCode() == graph2.hashCode());
+    }
+
+    @Test
+    public void testReadFromFile() throws IOException {
+        File tempFile;
+        tempFile = File.createTempFile("testGraph", ".txt");
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write("1|1 1 \n");
+            writer.write("2|-1 0 \n");
+            writer.write("3|0 -1 \n");
+        }
+        SparseIncidenceMatrixGraph<Integer> graph = new SparseIncidenceMatrixGraph<>();
+        graph.readFromFile(tempFile, line -> Integer.parseInt(line.trim()));
+        List<Vertex<Integer>> vertices = graph.getVertices();
+        assertEquals(3, vertices.size());
+        assertTrue(vertices.contains(new Vertex<>(1)));
+        assertTrue(vertices.contains(new Vertex<>(2)));
+        assertTrue(vertices.contains(new Vertex<>(3)));
+
+        List<Vertex<Integer>> neighborsOf1 = graph.getNeighbors(new Vertex<>(1));
+        assertEquals(2, neighborsOf1.size());
+        assertTrue(neighborsOf1.contains(new Vertex<>(2)));
+        assertTrue(neighborsOf1.contains(new Vertex<>(3)));
+
+        if (tempFile.exists()) {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testIndicesAfterRemoveVertex() {
+        SparseIncidenceMatrixGraph<String> graph = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        Vertex<String> v4 = new Vertex<>("D");
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addVertex(v4);
+        graph.removeVertex(v2);
+        graph.addEdge(new Edge<>(v3, v4));
+        graph.addEdge(new Edge<>(v4, v1));
+        assertEquals(List.of(v4), graph.getNeighbors(v3));
+        assertEquals(List.of(v1), graph.getNeighbors(v4));
+        assertEquals(List.of(), graph.getNeighbors(v1));
+        assertEquals(null, graph.getNeighbors(v2));
+        graph.addVertex(v2);
+        graph.addEdge(new Edge<>(v2, v3));
+        assertEquals(List.of(v3), graph.getNeighbors(v2));
+    }
+
+    @Test
+    public void testManyVertices() {
+        SparseIncidenceMatrixGraph<Integer> graph = new SparseIncidenceMatrixGraph<>();
+        int n = 1_000;
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(new Edge<>(new Vertex<>(i), new Vertex<>((i + 1) % n)));
+        }
+        assertEquals(n, graph.getVertices().size());
+        assertEquals(List.of(new Vertex<>(0)), graph.getNeighbors(new Vertex<>(n - 1)));
+    }
+
+    @Test
+    public void testBulkLoad() {
+        SparseIncidenceMatrixGraph<Integer> single = new SparseIncidenceMatrixGraph<>();
+        SparseIncidenceMatrixGraph<Integer> bulk = new SparseIncidenceMatrixGraph<>();
+        List<Edge<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Edge<Integer> edge = new Edge<>(new Vertex<>(i % 1_000),
+                    new Vertex<>((i * 7 + 1) % 1_000));
+            edges.add(edge);
+            single.addEdge(edge);
+        }
+        bulk.addEdges(edges);
+        assertEquals(1_000, bulk.getVertices().size());
+        assertEquals(100_000 / 1_000, bulk.getNeighbors(new Vertex<>(3)).size());
+        assertTrue(single.equals(bulk));
+        single.removeEdge(edges.get(0));
+        single.removeVertex(new Vertex<>(5));
+        assertEquals(1_000 - 1, single.getVertices().size());
+        assertEquals(100_000 / 1_000 - 1, single.getNeighbors(new Vertex<>(0)).size());
+    }
+
+    @Test
+    public void testHashCodeIgnoresOrder() {
+        SparseIncidenceMatrixGraph<String> first = new SparseIncidenceMatrixGraph<>();
+        SparseIncidenceMatrixGraph<String> second = new SparseIncidenceMatrixGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        first.addEdge(new Edge<>(a, b));
+        first.addEdge(new Edge<>(b, c));
+        first.addEdge(new Edge<>(a, c));
+        second.addEdge(new Edge<>(b, c));
+        second.addEdge(new Edge<>(a, c));
+        second.addEdge(new Edge<>(a, b));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
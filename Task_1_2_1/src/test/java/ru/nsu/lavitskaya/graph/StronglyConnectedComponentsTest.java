@@ -0,0 +1,126 @@
+package ru.nsu.lavitskaya.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the StronglyConnectedComponents class.
+ *
+ * <p>This class checks the components and the condensation of small graphs, compares the
+ * components of random graphs with mutual reachability, and runs the search on long paths and
+ * cycles that would overflow a recursive implementation.</p>
+ */
+class StronglyConnectedComponentsTest {
+    private static Vertex<Integer> vertex(int value) {
+        return new Vertex<>(value);
+    }
+
+    @Test
+    public void testComponentsAndCondensation() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        Vertex<String> d = new Vertex<>("D");
+        Vertex<String> e = new Vertex<>("E");
+        graph.addEdge(new Edge<>(d, e));
+        graph.addEdge(new Edge<>(a, b));
+        graph.addEdge(new Edge<>(b, c));
+        graph.addEdge(new Edge<>(c, a));
+        graph.addEdge(new Edge<>(c, d));
+        graph.addEdge(new Edge<>(b, d));
+        graph.addEdge(new Edge<>(e, d));
+
+        StronglyConnectedComponents<String> components = StronglyConnectedComponents.of(graph);
+        assertEquals(2, components.componentCount());
+        assertFalse(components.isAcyclic());
+        assertEquals(0, components.componentOf(a));
+        assertEquals(1, components.componentOf(e));
+        assertEquals(List.of(d, e), components.members(1));
+        assertEquals(List.of(a, b, c), components.members(0));
+
+        CsrGraph<Integer> condensation = components.condensation();
+        assertEquals("0: [1]\n1: []\n", condensation.toString());
+        assertEquals(List.of(vertex(0), vertex(1)), TopologicalSort.topSort(condensation));
+        assertThrows(IllegalArgumentException.class,
+                () -> components.componentOf(new Vertex<>("F")));
+    }
+
+    @Test
+    public void testAcyclicGraph() {
+        AdjacencyListGraph<Integer> graph = new AdjacencyListGraph<>();
+        graph.addEdge(new Edge<>(vertex(3), vertex(1)));
+        graph.addEdge(new Edge<>(vertex(1), vertex(2)));
+        StronglyConnectedComponents<Integer> components = StronglyConnectedComponents.of(graph);
+        assertTrue(components.isAcyclic());
+        assertEquals(3, components.componentCount());
+        assertTrue(components.componentOf(vertex(3)) < components.componentOf(vertex(1)));
+        assertTrue(components.componentOf(vertex(1)) < components.componentOf(vertex(2)));
+
+        graph.addEdge(new Edge<>(vertex(2), vertex(2)));
+        assertFalse(StronglyConnectedComponents.of(graph).isAcyclic());
+    }
+
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(48);
+        for (int round = 0; round < 20; round++) {
+            int n = 40;
+            boolean[][] reach = new boolean[n][n];
+            CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+            for (int i = 0; i < n; i++) {
+                builder.addVertex(vertex(i));
+                reach[i][i] = true;
+            }
+            for (int k = 0; k < 60; k++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                builder.addEdge(vertex(u), vertex(v));
+                reach[u][v] = true;
+            }
+            for (int k = 0; k < n; k++) {
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        reach[i][j] |= reach[i][k] && reach[k][j];
+                    }
+                }
+            }
+            CsrGraph<Integer> graph = builder.build();
+            StronglyConnectedComponents<Integer> components = StronglyConnectedComponents.of(graph);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    boolean same = components.componentOf(i) == components.componentOf(j);
+                    assertEquals(reach[i][j] && reach[j][i], same);
+                    if (reach[i][j] && !same) {
+                        assertTrue(components.componentOf(i) < components.componentOf(j));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongPathAndCycle() {
+        int n = 1_000_000;
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(vertex(i), vertex(i + 1));
+        }
+        CsrGraph<Integer> path = builder.build();
+        StronglyConnectedComponents<Integer> components = StronglyConnectedComponents.of(path);
+        assertEquals(n, components.componentCount());
+        assertEquals(n - 1, components.condensation().edgeCount());
+
+        builder.addEdge(vertex(n - 1), vertex(0));
+        components = StronglyConnectedComponents.of(builder.build());
+        assertEquals(1, components.componentCount());
+        assertEquals(n, components.members(0).size());
+        assertEquals(0, components.condensation().edgeCount());
+    }
+}
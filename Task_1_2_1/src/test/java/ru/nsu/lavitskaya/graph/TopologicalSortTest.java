@@ -2,6 +2,7 @@ package ru.nsu.lavitskaya.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,4 +39,123 @@ class TopologicalSortTest {
         assertEquals(expectedGraph, sortedGraph);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSourcesInInsertionOrder() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> a = new Vertex<>("A");
+        Vertex<String> b = new Vertex<>("B");
+        Vertex<String> c = new Vertex<>("C");
+        Vertex<String> d = new Vertex<>("D");
+        graph.addEdge(new Edge<>(a, c));
+        graph.addEdge(new Edge<>(b, c));
+        assertEquals(List.of(a, b, c), TopologicalSort.topSort(graph));
+
+        graph.addEdge(new Edge<>(d, b));
+        assertEquals(List.of(a, d, b, c), TopologicalSort.topSort(graph));
+    }
+
+    @Test
+    public void testCycleWitness() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        Vertex<String> v4 = new Vertex<>("D");
+        Vertex<String> v5 = new Vertex<>("E");
+        graph.addEdge(new Edge<>(v1, v2));
+        graph.addEdge(new Edge<>(v2, v3));
+        graph.addEdge(new Edge<>(v3, v4));
+        graph.addEdge(new Edge<>(v4, v2));
+        graph.addEdge(new Edge<>(v4, v5));
+
+        CyclicGraphException exception = assertThrows(CyclicGraphException.class,
+                () -> TopologicalSort.topSort(graph));
+        List<Vertex<?>> cycle = exception.getCycle();
+        assertEquals(3, cycle.size());
+        int start = cycle.indexOf(v2);
+        assertTrue(start != -1);
+        assertEquals(v3, cycle.get((start + 1) % 3));
+        assertEquals(v4, cycle.get((start + 2) % 3));
+
+        AdjacencyListGraph<String> loop = new AdjacencyListGraph<>();
+        loop.addEdge(new Edge<>(v1, v1));
+        exception = assertThrows(CyclicGraphException.class, () -> TopologicalSort.topSort(loop));
+        assertEquals(List.of(v1), exception.getCycle());
+    }
+
+    @Test
+    public void testLongChain() {
+        int n = 1_000_000;
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = n - 1; i >= 0; i--) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(new Vertex<>(i), new Vertex<>(i + 1));
+        }
+        List<Vertex<Integer>> sorted = TopologicalSort.topSort(builder.build());
+        assertEquals(n, sorted.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(new Vertex<>(i), sorted.get(i));
+        }
+    }
+
+    @Test
+    public void testLayers() {
+        AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+        Vertex<String> v1 = new Vertex<>("A");
+        Vertex<String> v2 = new Vertex<>("B");
+        Vertex<String> v3 = new Vertex<>("C");
+        Vertex<String> v4 = new Vertex<>("D");
+        Vertex<String> v5 = new Vertex<>("E");
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addVertex(v4);
+        graph.addVertex(v5);
+        graph.addEdge(new Edge<>(v1, v3));
+        graph.addEdge(new Edge<>(v2, v3));
+        graph.addEdge(new Edge<>(v1, v4));
+        graph.addEdge(new Edge<>(v3, v5));
+        graph.addEdge(new Edge<>(v4, v5));
+        assertEquals(List.of(List.of(v1, v2), List.of(v3, v4), List.of(v5)),
+                TopologicalSort.layers(graph));
+
+        graph.addEdge(new Edge<>(v5, v2));
+        CyclicGraphException exception = assertThrows(CyclicGraphException.class,
+                () -> TopologicalSort.layers(graph));
+        assertEquals(List.of(v2, v3, v5), exception.getCycle());
+    }
+
+    @Test
+    public void testLayersOfLargeGraph() {
+        int n = 200_000;
+        CsrGraph.Builder<Integer> builder = CsrGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addVertex(new Vertex<>(i));
+        }
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(new Vertex<>(i / 2), new Vertex<>(i));
+            builder.addEdge(new Vertex<>(i / 3), new Vertex<>(i));
+        }
+        CsrGraph<Integer> graph = builder.build();
+        List<List<Vertex<Integer>>> layers = TopologicalSort.layers(graph);
+
+        int[] level = new int[n];
+        int count = 0;
+        for (int l = 0; l < layers.size(); l++) {
+            int previous = -1;
+            for (Vertex<Integer> vertex : layers.get(l)) {
+                assertTrue(vertex.getValue() > previous);
+                previous = vertex.getValue();
+                level[vertex.getValue()] = l;
+                count++;
+            }
+        }
+        assertEquals(n, count);
+        for (int i = 1; i < n; i++) {
+            assertEquals(level[i / 2] + 1, level[i]);
+        }
+    }
+}